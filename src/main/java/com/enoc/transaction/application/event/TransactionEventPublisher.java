@@ -1,26 +1,84 @@
 package com.enoc.transaction.application.event;
 
+import com.enoc.transaction.domain.model.OutboxEvent;
 import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.OutboxStatus;
+import com.enoc.transaction.domain.repository.OutboxEventRepository;
+import com.enoc.transaction.events.ExternalTransferRequested;
 import com.enoc.transaction.events.TransactionCreated;
-import com.enoc.transaction.infrastructure.messaging.producer.TransactionCreatedProducer;
+import com.enoc.transaction.infrastructure.messaging.outbox.OutboxPayloads;
+import com.enoc.transaction.infrastructure.messaging.producer.KeyedEventProducer;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.apache.avro.specific.SpecificRecord;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
 public class TransactionEventPublisher {
 
-    private final TransactionCreatedProducer producer;
+    private final OutboxEventRepository outboxRepository;
+    private final KeyedEventProducer keyedEventProducer;
 
-    public void publishCreated(Transaction tx) {
-        TransactionCreated event = TransactionCreated.newBuilder()
+    /*
+      Appends the TransactionCreated event to the outbox; the OutboxRelay publishes it to Kafka. Must run inside the
+      same Mongo transaction that saves the transaction.
+      Agrega el evento TransactionCreated al outbox; el OutboxRelay lo publica en Kafka. Debe ejecutarse dentro de la
+      misma transacción de Mongo que guarda la transacción.
+     */
+    public Mono<Transaction> publishCreated(Transaction tx) {
+        return outboxRepository.insert(outboxEvent(tx.getId(), created(tx)))
+                .thenReturn(tx);
+    }
+
+    /*
+      Batch variant: one outbox insert carrying the TransactionCreated event of every transaction.
+      Variante por lotes: una sola inserción en el outbox con el evento TransactionCreated de cada transacción.
+     */
+    public Mono<Void> publishCreatedAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return Mono.empty();
+        }
+        return outboxRepository.insert(transactions.stream()
+                        .map(tx -> outboxEvent(tx.getId(), created(tx)))
+                        .collect(Collectors.toList()))
+                .then();
+    }
+
+    /*
+      Appends the ExternalTransferRequested event and the TransactionCreated event of the transfer to the outbox.
+      Agrega al outbox el evento ExternalTransferRequested y el TransactionCreated de la transferencia.
+     */
+    public Mono<Transaction> publishExternalTransferRequested(Transaction tx, ExternalTransferRequested event) {
+        return outboxRepository.insert(List.of(
+                        outboxEvent(tx.getId(), event),
+                        outboxEvent(tx.getId(), created(tx))))
+                .then(Mono.just(tx));
+    }
+
+    private TransactionCreated created(Transaction tx) {
+        return TransactionCreated.newBuilder()
                 .setTransactionId(tx.getId())
                 .setCustomerId(tx.getCustomerId())
+                .setAccountId(tx.getAccountId())
                 .setAmount(tx.getAmount().doubleValue())
                 .setType(tx.getType().name())
                 .setTimestamp(tx.getCreatedAt().toString())
                 .build();
+    }
 
-        producer.publish(event);
+    private OutboxEvent outboxEvent(String aggregateId, SpecificRecord event) {
+        return OutboxEvent.builder()
+                .aggregateId(aggregateId)
+                .topic(keyedEventProducer.topicOf(event))
+                .messageKey(keyedEventProducer.keyOf(event))
+                .eventType(event.getSchema().getFullName())
+                .payload(OutboxPayloads.encode(event))
+                .status(OutboxStatus.PENDING)
+                .createdAt(OffsetDateTime.now())
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,8 @@ package com.enoc.transaction.application.service;
 
 import com.enoc.transaction.domain.model.enums.TransactionType;
 import com.enoc.transaction.dto.request.TransactionRequestDTO;
+import com.enoc.transaction.dto.response.BatchItemResult;
+import com.enoc.transaction.dto.response.TransactionPage;
 import com.enoc.transaction.dto.response.TransactionResponseDto;
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -13,6 +15,8 @@ public interface TransactionService {
     // Transacciones generales
     Mono<TransactionResponseDto> create(TransactionRequestDTO request);
 
+    Flux<BatchItemResult> createBatch(Flux<TransactionRequestDTO> requests);
+
     Mono<TransactionResponseDto> update(String id, TransactionRequestDTO request);
 
     Mono<TransactionResponseDto> deleteTransactionByLogicalState(String id);
@@ -55,14 +59,14 @@ public interface TransactionService {
 
     Mono<TransactionResponseDto> getLastTransaction(String customerId);
 
-    // Consultas por cliente o producto
-    Flux<TransactionResponseDto> findAll();
+    // Consultas por cliente o producto, paginadas por cursor (pageToken null = primera página, size null = tamaño por defecto)
+    Mono<TransactionPage> findAll(String pageToken, Integer size);
 
-    Flux<TransactionResponseDto> getTransactionsByCustomerId(String customerId);
+    Mono<TransactionPage> getTransactionsByCustomerId(String customerId, String pageToken, Integer size);
 
-    Flux<TransactionResponseDto> getTransactionsByProductId(String productId);
+    Mono<TransactionPage> getTransactionsByProductId(String productId, String pageToken, Integer size);
 
-    Flux<TransactionResponseDto> getTransactionsByDateRange(OffsetDateTime start, OffsetDateTime end);
+    Mono<TransactionPage> getTransactionsByDateRange(OffsetDateTime start, OffsetDateTime end, String pageToken, Integer size);
 
     Mono<Long> countByAccountIdAndTypeIn(String accountId, List<TransactionType> types);
 
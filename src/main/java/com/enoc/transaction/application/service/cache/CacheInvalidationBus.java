@@ -0,0 +1,167 @@
+package com.enoc.transaction.application.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+/*
+  Cross-node invalidation of the local cache tiers over a Redis channel; the Redis entries themselves are written or
+  deleted by the caller beforehand. Keys are coalesced for a short window (or until max-batch of them) and published
+  as one message: the publish time in epoch millis on the first line, then one key per line. Every node, the
+  publisher included, evicts the keys from its local tier and records how long the message took to arrive (the lag
+  relies on the nodes' clocks being in sync).
+  Invalidación entre nodos de los niveles locales de caché sobre un canal de Redis; las entradas de Redis las escribe
+  o borra antes quien llama. Las claves se agrupan durante una ventana corta (o hasta max-batch claves) y se publican
+  en un único mensaje: la hora de publicación en milisegundos epoch en la primera línea y luego una clave por línea.
+  Cada nodo, incluido el que publica, expulsa las claves de su nivel local y registra cuánto tardó en llegar el
+  mensaje (la demora depende de que los relojes de los nodos estén sincronizados).
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    private static final String SEPARATOR = "\n";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String channel;
+    private final int maxBatch;
+    private final Duration window;
+    private final Object pendingLock = new Object();
+    private volatile Sinks.Many<String> pending = Sinks.many().unicast().onBackpressureBuffer();
+    private final List<Consumer<String>> evictors = new CopyOnWriteArrayList<>();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+    private final Counter published;
+    private final Counter received;
+    private final DistributionSummary batchSize;
+    private final Timer lag;
+
+    public CacheInvalidationBus(ReactiveStringRedisTemplate redisTemplate,
+                                MeterRegistry registry,
+                                @Value("${transaction.cache.invalidation.channel}") String channel,
+                                @Value("${transaction.cache.invalidation.max-batch}") int maxBatch,
+                                @Value("${transaction.cache.invalidation.window-ms}") long windowMs) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.maxBatch = maxBatch;
+        this.window = Duration.ofMillis(windowMs);
+        this.published = Counter.builder("transaction.cache.invalidation.published")
+                .description("Claves invalidadas publicadas por este nodo")
+                .register(registry);
+        this.received = Counter.builder("transaction.cache.invalidation.received")
+                .description("Claves invalidadas recibidas por este nodo")
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("transaction.cache.invalidation.batch.size")
+                .description("Claves por mensaje de invalidación publicado")
+                .register(registry);
+        this.lag = Timer.builder("transaction.cache.invalidation.lag")
+                .description("Demora entre la publicación de una invalidación y su recepción en este nodo")
+                .register(registry);
+    }
+
+    // Quien mantiene un nivel local se registra aquí para recibir cada clave invalidada.
+    public void onInvalidation(Consumer<String> evictor) {
+        evictors.add(evictor);
+    }
+
+    // Encola la clave sin bloquear; el envío agrupado lo hace el flujo iniciado en start().
+    public void publish(String key) {
+        synchronized (pendingLock) {
+            pending.tryEmitNext(key);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        startSending(pending);
+        subscriptions.add(redisTemplate.listenToChannel(channel)
+                .doOnNext(message -> receive(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Reconectando al canal de invalidación {}: {}", channel,
+                                signal.failure().getMessage())))
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    /*
+      bufferTimeout fails when a batch closes while the send of the previous one is still in flight, so the batches
+      are buffered before concatMap. If the flow still terminates, a fresh sink replaces the old one (a unicast sink
+      accepts a single subscriber) and sending resumes; the keys left in the old sink are lost and only bounded by the
+      local TTL.
+      bufferTimeout falla cuando un lote se cierra mientras el envío del anterior sigue en curso, por eso los lotes se
+      acumulan antes de concatMap. Si aun así el flujo termina, un sink nuevo reemplaza al anterior (un sink unicast
+      admite un solo suscriptor) y el envío se reanuda; las claves que quedaron en el sink anterior se pierden y solo
+      las acota el TTL local.
+     */
+    private void startSending(Sinks.Many<String> sink) {
+        subscriptions.add(sink.asFlux()
+                .bufferTimeout(maxBatch, window)
+                .onBackpressureBuffer()
+                .concatMap(keys -> send(new ArrayList<>(new LinkedHashSet<>(keys)))
+                        .onErrorResume(ex -> {
+                            log.error("No se pudo publicar la invalidación de {} claves: {}", keys.size(), ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe(null, ex -> {
+                    log.error("El envío de invalidaciones terminó con error, se reinicia: {}", ex.getMessage());
+                    if (!subscriptions.isDisposed()) {
+                        Sinks.Many<String> fresh = Sinks.many().unicast().onBackpressureBuffer();
+                        synchronized (pendingLock) {
+                            pending = fresh;
+                        }
+                        startSending(fresh);
+                    }
+                }));
+    }
+
+    private Mono<Void> send(List<String> keys) {
+        String message = System.currentTimeMillis() + SEPARATOR + String.join(SEPARATOR, keys);
+        return redisTemplate.convertAndSend(channel, message)
+                .doOnSuccess(subscribers -> {
+                    published.increment(keys.size());
+                    batchSize.record(keys.size());
+                })
+                .then();
+    }
+
+    // Un mensaje mal formado se descarta sin cortar la suscripción al canal.
+    void receive(String message) {
+        String[] lines = message.split(SEPARATOR);
+        long publishedAt;
+        try {
+            publishedAt = Long.parseLong(lines[0]);
+        } catch (NumberFormatException ex) {
+            log.warn("Mensaje de invalidación descartado: {}", lines[0]);
+            return;
+        }
+        Set<String> keys = new LinkedHashSet<>(List.of(lines).subList(1, lines.length));
+        lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - publishedAt)));
+        received.increment(keys.size());
+        for (String key : keys) {
+            evictors.forEach(evictor -> evictor.accept(key));
+        }
+    }
+}
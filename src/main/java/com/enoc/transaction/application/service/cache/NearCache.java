@@ -0,0 +1,110 @@
+package com.enoc.transaction.application.service.cache;
+
+import com.enoc.transaction.dto.response.TransactionResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/*
+  In-process tier (L1) of one Redis key prefix, with hit and miss counters for both tiers. Entries are the DTO
+  instances themselves, so a hit hands out the same object every time: callers must treat it as read-only.
+  Nivel en proceso (L1) de un prefijo de claves de Redis, con contadores de aciertos y fallos de ambos niveles. Las
+  entradas son las propias instancias del DTO, así un acierto entrega siempre el mismo objeto: quien lo recibe debe
+  tratarlo como de solo lectura.
+ */
+final class NearCache {
+
+    private final String prefix;
+    // TTL de la clave en Redis; con escritura directa puede ser largo.
+    private final Duration remoteTtl;
+    private final Cache<String, TransactionResponseDto> local;
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final SingleFlight<String, TransactionResponseDto> loads;
+
+    NearCache(String prefix, long maxSize, Duration ttl, Duration remoteTtl, MeterRegistry registry) {
+        this.prefix = prefix;
+        this.remoteTtl = remoteTtl;
+        // El TTL acota cuánto puede servir esta instancia una entrada que otra ya cambió en Redis.
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        Tags tags = Tags.of("cache", prefix);
+        this.localHits = gets(registry, tags, "l1", "hit");
+        this.localMisses = gets(registry, tags, "l1", "miss");
+        this.remoteHits = gets(registry, tags, "l2", "hit");
+        this.remoteMisses = gets(registry, tags, "l2", "miss");
+        this.loads = new SingleFlight<>(Counter.builder("transaction.cache.loads.coalesced")
+                .description("Fallos de L1 que se sumaron a una carga ya en curso de la misma clave")
+                .tags(tags)
+                .register(registry));
+        hitRatio(registry, tags, "l1", localHits, localMisses);
+        hitRatio(registry, tags, "l2", remoteHits, remoteMisses);
+        FunctionCounter.builder("transaction.cache.evictions", local, cache -> cache.stats().evictionCount())
+                .tags(tags.and("tier", "l1"))
+                .register(registry);
+    }
+
+    String prefix() {
+        return prefix;
+    }
+
+    Duration remoteTtl() {
+        return remoteTtl;
+    }
+
+    String key(String id) {
+        return prefix + "::" + id;
+    }
+
+    TransactionResponseDto getIfPresent(String id) {
+        TransactionResponseDto dto = local.getIfPresent(id);
+        (dto != null ? localHits : localMisses).increment();
+        return dto;
+    }
+
+    void put(String id, TransactionResponseDto dto) {
+        local.put(id, dto);
+    }
+
+    void invalidate(String id) {
+        local.invalidate(id);
+    }
+
+    // Los fallos concurrentes de L1 por el mismo id comparten una sola lectura de Redis y, si hace falta, de Mongo.
+    Mono<TransactionResponseDto> load(String id, Supplier<Mono<TransactionResponseDto>> loader) {
+        return loads.execute(id, loader);
+    }
+
+    void recordRemote(boolean hit) {
+        (hit ? remoteHits : remoteMisses).increment();
+    }
+
+    private static Counter gets(MeterRegistry registry, Tags tags, String tier, String result) {
+        return Counter.builder("transaction.cache.gets")
+                .description("Lecturas de caché por nivel y resultado")
+                .tags(tags.and("tier", tier, "result", result))
+                .register(registry);
+    }
+
+    private static void hitRatio(MeterRegistry registry, Tags tags, String tier, Counter hits, Counter misses) {
+        Gauge.builder("transaction.cache.hit.ratio", () -> {
+                    double total = hits.count() + misses.count();
+                    return total == 0 ? 0.0 : hits.count() / total;
+                })
+                .description("Proporción de aciertos acumulada del nivel")
+                .tags(tags.and("tier", tier))
+                .register(registry);
+    }
+}
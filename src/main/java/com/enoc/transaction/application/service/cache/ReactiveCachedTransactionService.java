@@ -1,70 +1,203 @@
 package com.enoc.transaction.application.service.cache;
 
+import com.enoc.transaction.domain.model.Transaction;
 import com.enoc.transaction.domain.model.enums.TransactionState;
 import com.enoc.transaction.domain.repository.TransactionRepository;
 import com.enoc.transaction.dto.response.TransactionResponseDto;
 import com.enoc.transaction.infrastructure.mapper.TransactionMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
-import lombok.RequiredArgsConstructor;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class ReactiveCachedTransactionService {
 
     private final TransactionRepository repository;
     private final TransactionMapper mapper;
     private final ReactiveRedisTemplate<String, TransactionResponseDto> redisTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    // Nivel local (L1) por prefijo de clave, delante de Redis (L2).
+    private final NearCache transactions;
+    private final NearCache activeTransactions;
+    private final NearCache lastTransactions;
+    private final Map<String, NearCache> byPrefix;
 
-    // TTL por tipo de dato
-    private static final Duration TTL_TRANSACTIONS = Duration.ofMinutes(15);
-    private static final Duration TTL_ACTIVE = Duration.ofMinutes(5);
-    private static final Duration TTL_LAST = Duration.ofMinutes(10);
+    public ReactiveCachedTransactionService(TransactionRepository repository,
+                                            TransactionMapper mapper,
+                                            ReactiveRedisTemplate<String, TransactionResponseDto> redisTemplate,
+                                            CacheInvalidationBus invalidationBus,
+                                            MeterRegistry registry,
+                                            @Value("${transaction.cache.transactions.local-max-size}") long transactionsMaxSize,
+                                            @Value("${transaction.cache.transactions.local-ttl-ms}") long transactionsTtlMs,
+                                            @Value("${transaction.cache.active-transactions.local-max-size}") long activeMaxSize,
+                                            @Value("${transaction.cache.active-transactions.local-ttl-ms}") long activeTtlMs,
+                                            @Value("${transaction.cache.last-transactions.local-max-size}") long lastMaxSize,
+                                            @Value("${transaction.cache.last-transactions.local-ttl-ms}") long lastTtlMs,
+                                            @Value("${transaction.cache.transactions.ttl-ms}") long transactionsRemoteTtlMs,
+                                            @Value("${transaction.cache.active-transactions.ttl-ms}") long activeRemoteTtlMs,
+                                            @Value("${transaction.cache.last-transactions.ttl-ms}") long lastRemoteTtlMs) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.redisTemplate = redisTemplate;
+        this.invalidationBus = invalidationBus;
+        this.transactions = new NearCache("transactions", transactionsMaxSize, Duration.ofMillis(transactionsTtlMs),
+                Duration.ofMillis(transactionsRemoteTtlMs), registry);
+        this.activeTransactions = new NearCache("activeTransactions", activeMaxSize, Duration.ofMillis(activeTtlMs),
+                Duration.ofMillis(activeRemoteTtlMs), registry);
+        this.lastTransactions = new NearCache("lastTransactions", lastMaxSize, Duration.ofMillis(lastTtlMs),
+                Duration.ofMillis(lastRemoteTtlMs), registry);
+        this.byPrefix = Map.of(transactions.prefix(), transactions, activeTransactions.prefix(), activeTransactions,
+                lastTransactions.prefix(), lastTransactions);
+        invalidationBus.onInvalidation(this::evictLocal);
+    }
 
     /*
-      Method to get a transaction by its ID using Redis cache.
-      Método para obtener una transacción por su ID usando caché en Redis.
- */
+      Write-through after an update or a logical delete, once it is committed: transactions::{id} takes the new DTO,
+      activeTransactions::{id} takes it while the transaction is ACTIVE and is deleted otherwise, and the customer's
+      lastTransactions entry is deleted because its order may have changed.
+      Escritura directa tras una actualización o una eliminación lógica, una vez confirmada: transactions::{id} recibe
+      el nuevo DTO, activeTransactions::{id} también mientras la transacción esté ACTIVE y se borra en otro caso, y la
+      entrada lastTransactions del cliente se borra porque su orden pudo cambiar.
+     */
+    public Mono<Void> onUpdated(Transaction tx) {
+        TransactionResponseDto dto = mapper.toDto(tx);
+        return write(List.of(
+                set(transactions, tx.getId(), dto),
+                tx.getState() == TransactionState.ACTIVE
+                        ? set(activeTransactions, tx.getId(), dto)
+                        : delete(activeTransactions, tx.getId()),
+                delete(lastTransactions, tx.getCustomerId())));
+    }
 
-    public Mono<TransactionResponseDto> getByIdCached(String id) {
-        String key = "transactions::" + id;
-        return redisTemplate.opsForValue().get(key)
-                .switchIfEmpty(repository.findById(id)
-                        .map(mapper::toDto)
-                        .flatMap(dto -> redisTemplate.opsForValue()
-                                .set(key, dto, TTL_TRANSACTIONS)
-                                .thenReturn(dto)));
+    // Una transacción ACTIVE recién creada pasa a ser la última de su cliente.
+    public Mono<Void> onCreated(Transaction tx) {
+        return write(List.of(tx.getState() == TransactionState.ACTIVE
+                ? set(lastTransactions, tx.getCustomerId(), mapper.toDto(tx))
+                : delete(lastTransactions, tx.getCustomerId())));
     }
+
+    // Lotes y eventos pueden traer varias transacciones por cliente o fechas pasadas: se borra en lugar de escribir.
+    public Mono<Void> evictLast(Collection<String> customerIds) {
+        return write(customerIds.stream()
+                .map(customerId -> delete(lastTransactions, customerId))
+                .collect(Collectors.toList()));
+    }
+
     /*
-      Method to get an active transaction by its ID using Redis cache.
-      Método para obtener una transacción activa por su ID usando caché en Redis.
- */
+      Method to get a transaction by its ID using the local cache, then Redis.
+      Método para obtener una transacción por su ID usando la caché local y luego Redis.
+     */
+    public Mono<TransactionResponseDto> getByIdCached(String id) {
+        return cached(transactions, id, () -> repository.findByIdIncludingArchive(id));
+    }
 
+    /*
+      Method to get an active transaction by its ID using the local cache, then Redis.
+      Método para obtener una transacción activa por su ID usando la caché local y luego Redis.
+     */
     public Mono<TransactionResponseDto> getActiveByIdCached(String id) {
-        String key = "activeTransactions::" + id;
-        return redisTemplate.opsForValue().get(key)
-                .switchIfEmpty(repository.findByIdAndState(id, TransactionState.ACTIVE)
-                        .map(mapper::toDto)
-                        .flatMap(dto -> redisTemplate.opsForValue()
-                                .set(key, dto, TTL_ACTIVE)
-                                .thenReturn(dto)));
+        return cached(activeTransactions, id,
+                () -> repository.findByIdAndStateIncludingArchive(id, TransactionState.ACTIVE));
     }
 
     /*
-      Method to get the last active transaction by customer ID using Redis cache.
-      Método para obtener la última transacción activa por ID de cliente usando caché en Redis.
- */
+      Method to get the last active transaction by customer ID using the local cache, then Redis.
+      Método para obtener la última transacción activa por ID de cliente usando la caché local y luego Redis.
+     */
+    public Mono<TransactionResponseDto> getLastByCustomerIdCached(String customerId) {
+        return cached(lastTransactions, customerId,
+                () -> repository.findTopByCustomerIdAndStateOrderByCreatedAtDesc(customerId, TransactionState.ACTIVE));
+    }
 
+    /*
+      L1 hit: the cached DTO itself, with no network hop and no deserialization. L1 miss: Redis, and on a Redis miss the
+      repository, written back only if absent so a slow load cannot overwrite a newer write-through. When the write-back
+      loses that race, Redis is read again and its value is the one kept in L1; if it is gone by then, the loaded DTO is
+      returned without caching it. Concurrent L1 misses for the same id share that single load. Absent transactions are
+      not cached on any tier.
+      Acierto en L1: el propio DTO cacheado, sin viaje de red ni deserialización. Fallo en L1: Redis, y ante un fallo
+      de Redis el repositorio, que se escribe de vuelta solo si la clave no existe para que una carga lenta no pise una
+      escritura directa más reciente. Cuando la escritura de vuelta pierde esa carrera se vuelve a leer Redis y su valor
+      es el que se guarda en L1; si ya no está, el DTO cargado se devuelve sin cachearlo. Los fallos concurrentes de L1
+      por el mismo id comparten esa única carga. Las transacciones inexistentes no se cachean en ningún nivel.
+     */
+    private Mono<TransactionResponseDto> cached(NearCache cache, String id, Supplier<Mono<Transaction>> loader) {
+        TransactionResponseDto local = cache.getIfPresent(id);
+        if (local != null) {
+            return Mono.just(local);
+        }
+        String key = cache.key(id);
+        return cache.load(id, () -> redisTemplate.opsForValue().get(key)
+                .doOnNext(dto -> {
+                    cache.recordRemote(true);
+                    cache.put(id, dto);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    cache.recordRemote(false);
+                    return loader.get()
+                            .map(mapper::toDto)
+                            .flatMap(dto -> redisTemplate.opsForValue()
+                                    .setIfAbsent(key, dto, cache.remoteTtl())
+                                    .flatMap(written -> written ? Mono.just(dto) : redisTemplate.opsForValue().get(key))
+                                    .doOnNext(current -> cache.put(id, current))
+                                    .defaultIfEmpty(dto));
+                })));
+    }
 
-    public Mono<TransactionResponseDto> getLastByCustomerIdCached(String customerId) {
-        String key = "lastTransactions::" + customerId;
-        return redisTemplate.opsForValue().get(key)
-                .switchIfEmpty(repository.findTopByCustomerIdAndStateOrderByCreatedAtDesc(customerId, TransactionState.ACTIVE)
-                        .map(mapper::toDto)
-                        .flatMap(dto -> redisTemplate.opsForValue()
-                                .set(key, dto, TTL_LAST)
-                                .thenReturn(dto)));
+    /*
+      The commands are subscribed together, so the client sends them back to back on the shared connection and waits
+      for the replies once (a pipeline). Each key is then dropped from the local tier of every node, even if its Redis
+      command failed: a write error is logged and never fails the already committed write.
+      Los comandos se suscriben juntos, así el cliente los envía seguidos por la conexión compartida y espera las
+      respuestas una sola vez (un pipeline). Luego cada clave se quita del nivel local de todos los nodos, aunque su
+      comando de Redis haya fallado: un error de escritura se registra y nunca hace fallar la escritura ya confirmada.
+     */
+    private Mono<Void> write(List<Mono<Void>> commands) {
+        return Flux.merge(commands).then();
+    }
+
+    private Mono<Void> set(NearCache cache, String id, TransactionResponseDto dto) {
+        return command(cache, id, redisTemplate.opsForValue().set(cache.key(id), dto, cache.remoteTtl()));
+    }
+
+    private Mono<Void> delete(NearCache cache, String id) {
+        return command(cache, id, redisTemplate.delete(Mono.just(cache.key(id))));
+    }
+
+    private Mono<Void> command(NearCache cache, String id, Mono<?> command) {
+        if (id == null) {
+            return Mono.empty();
+        }
+        return command
+                .onErrorResume(ex -> {
+                    log.error("No se pudo actualizar la clave {} en Redis: {}", cache.key(id), ex.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.fromRunnable(() -> {
+                    cache.invalidate(id);
+                    invalidationBus.publish(cache.key(id));
+                }));
+    }
+
+    private void evictLocal(String key) {
+        int separator = key.indexOf("::");
+        if (separator < 0) {
+            return;
+        }
+        NearCache cache = byPrefix.get(key.substring(0, separator));
+        if (cache != null) {
+            cache.invalidate(key.substring(separator + 2));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.enoc.transaction.application.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/*
+  Per-key deduplication of in-flight loads: concurrent callers for the same key subscribe to one shared load instead
+  of each starting their own. The key is released when the load terminates (value, empty, error or cancellation of
+  every caller), so the next miss starts a fresh load and errors are never cached.
+  Deduplicación por clave de las cargas en curso: las llamadas concurrentes por la misma clave se suscriben a una sola
+  carga compartida en lugar de iniciar cada una la suya. La clave se libera cuando la carga termina (valor, vacío,
+  error o cancelación de todas las llamadas), así el siguiente fallo inicia una carga nueva y los errores nunca se
+  cachean.
+ */
+final class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    // Llamadas que se sumaron a una carga ya en curso en lugar de iniciar otra.
+    private final Counter coalesced;
+
+    SingleFlight(Counter coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Flight<V> created = new Flight<>();
+            Mono<V> flight = inFlight.computeIfAbsent(key, k -> created.start(Mono.defer(loader)
+                    .doFinally(signal -> inFlight.remove(k, created.shared))));
+            if (flight != created.shared) {
+                coalesced.increment();
+            }
+            return flight;
+        });
+    }
+
+    // El Mono compartido se guarda antes de suscribirse, para que doFinally libere exactamente esta carga.
+    private static final class Flight<V> {
+
+        private Mono<V> shared;
+
+        Mono<V> start(Mono<V> load) {
+            shared = load.share();
+            return shared;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.enoc.transaction.application.usecase;
+
+import com.enoc.transaction.domain.exception.BusinessException;
+import com.enoc.transaction.domain.model.AccountBalance;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.repository.AccountBalanceRepository;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBalanceProjection {
+
+    private final AccountBalanceRepository repository;
+
+    /*
+      Applies a newly persisted transaction to its account balance. Debits (negative amounts) use the conditional
+      decrement and fail with BusinessException when the balance would go negative; callers run this inside the same
+      Mongo transaction as the save so the failure rolls the transaction back.
+      Aplica una transacción recién persistida al saldo de su cuenta. Los débitos (montos negativos) usan el descuento
+      condicional y fallan con BusinessException si el saldo quedaría negativo; quien llama lo ejecuta dentro de la
+      misma transacción de Mongo que el guardado para que el fallo la revierta.
+     */
+    public Mono<Transaction> apply(Transaction tx) {
+        if (!affectsBalance(tx)) {
+            return Mono.just(tx);
+        }
+        if (tx.getAmount().signum() >= 0) {
+            return repository.increment(tx.getAccountId(), tx.getProductId(), tx.getAmount(), tx.getCreatedAt())
+                    .thenReturn(tx);
+        }
+        return repository.decrementIfSufficient(tx.getAccountId(), tx.getProductId(), tx.getAmount().negate(), tx.getCreatedAt())
+                .switchIfEmpty(Mono.error(new BusinessException("Saldo insuficiente en la cuenta " + tx.getAccountId())))
+                .thenReturn(tx);
+    }
+
+    /*
+      Removes a transaction's effect (logical delete or before an amount correction). Never rejected.
+      Quita el efecto de una transacción (borrado lógico o antes de corregir el monto). Nunca se rechaza.
+     */
+    public Mono<Transaction> revert(Transaction tx) {
+        if (!affectsBalance(tx)) {
+            return Mono.just(tx);
+        }
+        return repository.increment(tx.getAccountId(), tx.getProductId(), tx.getAmount().negate(), null)
+                .thenReturn(tx);
+    }
+
+    /*
+      Applies already accepted transactions (ingested events) unconditionally, one $inc per account.
+      Aplica transacciones ya aceptadas (eventos ingeridos) sin condición, un $inc por cuenta.
+     */
+    public Mono<Void> applyAll(List<Transaction> transactions) {
+        Map<String, Transaction> latest = new LinkedHashMap<>();
+        Map<String, BigDecimal> deltas = new LinkedHashMap<>();
+        for (Transaction tx : transactions) {
+            if (affectsBalance(tx)) {
+                deltas.merge(tx.getAccountId(), tx.getAmount(), BigDecimal::add);
+                latest.merge(tx.getAccountId(), tx, (current, candidate) -> isAfter(candidate, current) ? candidate : current);
+            }
+        }
+        return Flux.fromIterable(deltas.entrySet())
+                .concatMap(delta -> {
+                    Transaction last = latest.get(delta.getKey());
+                    return repository.increment(delta.getKey(), last.getProductId(), delta.getValue(), last.getCreatedAt());
+                })
+                .then();
+    }
+
+    // Cuentas de un producto con su saldo, primero la de actividad más reciente.
+    public Flux<AccountBalance> accountsOf(String productId) {
+        return repository.findByProductIdOrderByLastActivityDesc(productId);
+    }
+
+    // Cuenta de un producto con la actividad más reciente.
+    public Mono<AccountBalance> latestAccountOf(String productId) {
+        return repository.findFirstByProductIdOrderByLastActivityDesc(productId);
+    }
+
+    public Mono<Long> rebuild() {
+        return repository.rebuildFromTransactions()
+                .doOnNext(accounts -> log.info("Proyección de saldos reconstruida: {} cuentas", accounts));
+    }
+
+    private static boolean affectsBalance(Transaction tx) {
+        return tx.getState() == TransactionState.ACTIVE && tx.getAccountId() != null && tx.getAmount() != null;
+    }
+
+    private static boolean isAfter(Transaction candidate, Transaction current) {
+        OffsetDateTime candidateAt = candidate.getCreatedAt();
+        return candidateAt != null && (current.getCreatedAt() == null || candidateAt.isAfter(current.getCreatedAt()));
+    }
+}
@@ -1,56 +1,17 @@
 package com.enoc.transaction.application.usecase;
 
-import com.enoc.transaction.domain.model.Transaction;
-import com.enoc.transaction.domain.model.enums.StatusEnum;
-import com.enoc.transaction.domain.model.enums.TransactionState;
-import com.enoc.transaction.domain.repository.TransactionRepository;
 import com.enoc.transaction.events.CreditPaymentRequested;
-import java.math.BigDecimal;
-import java.time.OffsetDateTime;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
-@Slf4j
 public class CreditPaymentHandler {
 
-    private final TransactionRepository repository;
+    private final EventIngestionPipeline pipeline;
 
-    public void process(CreditPaymentRequested event) {
-        log.info("Evento recibido: credit.payment.requested | ID={}", event.getPaymentId());
-
-        try {
-            validate(event);
-
-            Transaction transaction = mapToDomain(event);
-
-            repository.save(transaction);
-
-            log.info("Pago de crédito persistido correctamente: {}", transaction.getId());
-
-        } catch (Exception ex) {
-            log.error("Error al procesar pago de crédito {}: {}", event.getPaymentId(), ex.getMessage());
-        }
-    }
-
-    private void validate(CreditPaymentRequested event) {
-        if (event.getPaymentId() == null) {
-            throw new IllegalArgumentException("ID de pago nulo");
-        }
-        if (event.getAmount() <= 0) {
-            throw new IllegalArgumentException("Monto inválido: debe ser mayor a cero");
-        }
-    }
-
-    private Transaction mapToDomain(CreditPaymentRequested event) {
-        return Transaction.builder()
-                .id(event.getPaymentId().toString())
-                .amount(BigDecimal.valueOf(event.getAmount()))
-                .eventDate(OffsetDateTime.parse(event.getTimestamp().toString()))
-                .state(TransactionState.ACTIVE)
-                .status(StatusEnum.PENDING)
-                .build();
+    public Mono<Void> process(CreditPaymentRequested event) {
+        return pipeline.process(EventMappings.CREDIT_PAYMENT, event);
     }
 }
@@ -0,0 +1,134 @@
+package com.enoc.transaction.application.usecase;
+
+import com.enoc.transaction.domain.model.CustomerDebtStatus;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.CustomerDebtStatusRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@Slf4j
+public class CustomerDebtProjection {
+
+    private final CustomerDebtStatusRepository repository;
+    private final Cache<String, CustomerDebtStatus> cache;
+
+    public CustomerDebtProjection(CustomerDebtStatusRepository repository,
+                                  @Value("${transaction.debt-status.cache-max-size}") long cacheMaxSize,
+                                  @Value("${transaction.debt-status.cache-ttl-ms}") long cacheTtlMs) {
+        this.repository = repository;
+        // El TTL acota cuánto puede durar una entrada escrita por otra instancia, que no invalida esta caché.
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    /*
+      Overdue check used before every write: a cache hit is a map lookup plus a date comparison; a miss reads one
+      document by _id. Customers without debt are cached as NONE so they do not hit Mongo either.
+      Verificación de mora usada antes de cada escritura: un acierto de caché es una búsqueda en memoria más una
+      comparación de fechas; un fallo lee un documento por _id. Los clientes sin deuda se cachean como NONE para que
+      tampoco consulten Mongo.
+     */
+    public Mono<Boolean> isOverdue(String customerId) {
+        if (customerId == null) {
+            return Mono.just(false);
+        }
+        CustomerDebtStatus cached = cache.getIfPresent(customerId);
+        if (cached != null) {
+            return Mono.just(cached.isOverdueAt(OffsetDateTime.now()));
+        }
+        return repository.findById(customerId)
+                .defaultIfEmpty(CustomerDebtStatus.NONE)
+                .doOnNext(status -> cache.put(customerId, status))
+                .map(status -> status.isOverdueAt(OffsetDateTime.now()));
+    }
+
+    /*
+      Applies a newly persisted CREDIT_CHARGE or CREDIT_PAYMENT; other transactions do not touch the projection. The
+      cached status is left alone: callers evict it once the Mongo transaction has committed.
+      Aplica un CREDIT_CHARGE o CREDIT_PAYMENT recién persistido; las demás transacciones no tocan la proyección. El
+      estado cacheado no se toca: quien llama lo desaloja una vez confirmada la transacción de Mongo.
+     */
+    public Mono<Transaction> apply(Transaction tx) {
+        if (tx.getState() != TransactionState.ACTIVE || tx.getAmount() == null) {
+            return Mono.just(tx);
+        }
+        if (tx.getType() == TransactionType.CREDIT_CHARGE && tx.getCustomerId() != null) {
+            return repository.charge(tx.getCustomerId(), tx.getAmount(), tx.getDate())
+                    .thenReturn(tx);
+        }
+        String debtor = tx.getDebtorDni() != null ? tx.getDebtorDni() : tx.getCustomerId();
+        if (tx.getType() == TransactionType.CREDIT_PAYMENT && debtor != null) {
+            return repository.pay(debtor, tx.getAmount())
+                    .thenReturn(tx);
+        }
+        return Mono.just(tx);
+    }
+
+    /*
+      Recomputes the customers a changed transaction belongs to (update or logical delete of any type, since the
+      type itself may have changed).
+      Recalcula los clientes a los que pertenece una transacción modificada (actualización o borrado lógico de
+      cualquier tipo, ya que el propio tipo puede haber cambiado).
+     */
+    public Mono<Transaction> refresh(Transaction tx) {
+        return Flux.fromIterable(customersOf(tx))
+                .concatMap(repository::recompute)
+                .then()
+                .thenReturn(tx);
+    }
+
+    /*
+      Drops the cached status of the customers a transaction touched. Called after commit: evicting inside the Mongo
+      transaction lets a concurrent check cache the pre-commit status until the TTL expires.
+      Descarta el estado cacheado de los clientes que tocó una transacción. Se llama tras el commit: desalojar dentro
+      de la transacción de Mongo deja que una verificación concurrente cachee el estado previo hasta que venza el TTL.
+     */
+    public Mono<Void> evict(Transaction tx) {
+        return Mono.fromRunnable(() -> cache.invalidateAll(customersOf(tx)));
+    }
+
+    public Mono<Void> evictAll(Collection<Transaction> transactions) {
+        return Mono.fromRunnable(() -> transactions.forEach(tx -> cache.invalidateAll(customersOf(tx))));
+    }
+
+    private static Set<String> customersOf(Transaction tx) {
+        Set<String> customers = new LinkedHashSet<>();
+        if (tx.getCustomerId() != null) {
+            customers.add(tx.getCustomerId());
+        }
+        if (tx.getDebtorDni() != null) {
+            customers.add(tx.getDebtorDni());
+        }
+        return customers;
+    }
+
+    public Mono<Long> markOverdue() {
+        return repository.markOverdue(OffsetDateTime.now())
+                .doOnNext(flagged -> {
+                    if (flagged > 0) {
+                        log.info("Clientes marcados en mora: {}", flagged);
+                    }
+                });
+    }
+
+    public Mono<Long> rebuild() {
+        return repository.rebuildFromTransactions()
+                .doOnNext(customers -> log.info("Proyección de deudas reconstruida: {} clientes", customers))
+                .doFinally(signal -> cache.invalidateAll());
+    }
+}
@@ -0,0 +1,67 @@
+package com.enoc.transaction.application.usecase;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class EventIdBloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /*
+      Sizes the filter for the expected number of ids and the target false positive rate.
+      Dimensiona el filtro para la cantidad esperada de ids y la tasa objetivo de falsos positivos.
+     */
+    public EventIdBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitCount = Math.max(64L, (long) Math.ceil(bits));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+    }
+
+    public void put(CharSequence id) {
+        long hash = fnv64(id);
+        long hash1 = mix(hash);
+        long hash2 = mix(hash ^ FNV_OFFSET) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            long mask = 1L << bit;
+            words.getAndUpdate((int) (bit >>> 6), word -> word | mask);
+        }
+    }
+
+    public boolean mightContain(CharSequence id) {
+        long hash = fnv64(id);
+        long hash1 = mix(hash);
+        long hash2 = mix(hash ^ FNV_OFFSET) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long fnv64(CharSequence value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // Finalizador de MurmurHash3 para repartir mejor los bits del hash FNV.
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,90 @@
+package com.enoc.transaction.application.usecase;
+
+import com.enoc.transaction.application.service.cache.ReactiveCachedTransactionService;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventIngestionPipeline {
+
+    private final TransactionRepository repository;
+    private final ProcessedEventDeduplicator deduplicator;
+    private final ReactiveCachedTransactionService cachedService;
+    private final TransactionalOperator transactionalOperator;
+
+    /*
+      Maps one event through its descriptor, drops it if it was already processed and persists it. The document and
+      the processed-event marker commit together, so a redelivery either finds the marker or finds nothing applied.
+      Mapea un evento con su descriptor, lo descarta si ya fue procesado y lo persiste. El documento y la marca de
+      evento procesado se confirman juntos, así una reentrega encuentra la marca o no encuentra nada aplicado.
+     */
+    public <E> Mono<Void> process(EventMapping<E> mapping, E event) {
+        log.info("Evento recibido: {} | ID={}", mapping.getEventName(), mapping.idOf(event));
+
+        return Mono.fromCallable(() -> mapping.toTransaction(event))
+                .filterWhen(transaction -> deduplicator.isNew(transaction.getId()))
+                .flatMap(transaction -> repository.save(transaction)
+                        .flatMap(saved -> deduplicator.markProcessed(saved.getId()).thenReturn(saved))
+                        .as(transactionalOperator::transactional))
+                .delayUntil(transaction -> cachedService.evictLast(Collections.singleton(transaction.getCustomerId())))
+                .doOnNext(transaction -> log.info("{} persistido correctamente: {}", mapping.getDescription(), transaction.getId()))
+                .doOnError(ex -> log.error("Error al procesar {} {}: {}", mapping.getEventName(), mapping.idOf(event), ex.getMessage()))
+                .then();
+    }
+
+    /*
+      Validates and maps the whole batch, drops redelivered events and repeated ids, then persists it with a single
+      unordered bulk insert in the same Mongo transaction as the processed-event markers. Ids already stored are read
+      inside the transaction and left out of the insert: a duplicate-key error would abort the whole transaction even
+      though the bulk insert reports it as ignored.
+      Valida y mapea el lote completo, descarta eventos reentregados e ids repetidos y lo persiste con una única
+      inserción masiva no ordenada, en la misma transacción de Mongo que las marcas de eventos procesados. Los ids ya
+      almacenados se leen dentro de la transacción y quedan fuera de la inserción: un error de clave duplicada
+      abortaría toda la transacción aunque la inserción masiva lo informe como ignorado.
+     */
+    public <E> Mono<Long> processBatch(EventMapping<E> mapping, List<E> events) {
+        log.info("Lote recibido: {} | eventos={}", mapping.getEventName(), events.size());
+
+        List<Transaction> transactions = new ArrayList<>(events.size());
+        for (E event : events) {
+            try {
+                transactions.add(mapping.toTransaction(event));
+            } catch (Exception ex) {
+                log.error("Evento descartado del lote {}: {}", mapping.idOf(event), ex.getMessage());
+            }
+        }
+
+        return Flux.fromIterable(transactions)
+                .distinct(Transaction::getId)
+                .filterWhen(transaction -> deduplicator.isNew(transaction.getId()))
+                .collectList()
+                .flatMap(fresh -> repository.findExistingIds(ids(fresh))
+                        .collect(Collectors.toSet())
+                        .flatMap(stored -> repository.insertAllUnordered(fresh.stream()
+                                .filter(transaction -> !stored.contains(transaction.getId()))
+                                .collect(Collectors.toList())))
+                        .flatMap(inserted -> deduplicator.markProcessed(ids(fresh)).thenReturn(inserted))
+                        .as(transactionalOperator::transactional)
+                        .delayUntil(inserted -> cachedService.evictLast(fresh.stream()
+                                .map(Transaction::getCustomerId)
+                                .collect(Collectors.toSet()))))
+                .doOnSuccess(inserted -> log.info("Lote de {} almacenado: {} de {} eventos",
+                        mapping.getEventName(), inserted, events.size()));
+    }
+
+    private static List<String> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package com.enoc.transaction.application.usecase;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import java.time.OffsetDateTime;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class EventMapping<E> {
+
+    private final String eventName;
+    private final String description;
+    private final Function<E, CharSequence> id;
+    private final String missingIdMessage;
+    private final ToDoubleFunction<E> amount;
+    private final Function<E, CharSequence> timestamp;
+
+    public String idOf(E event) {
+        CharSequence value = id.apply(event);
+        return value != null ? value.toString() : null;
+    }
+
+    /*
+      Validates the event and maps it to a pending, active Transaction. Utf8.toString() caches its String, the
+      timestamp is parsed from the CharSequence and the amount skips the double-to-String round trip.
+      Valida el evento y lo mapea a una Transaction activa y pendiente. Utf8.toString() cachea su String, el timestamp
+      se parsea desde el CharSequence y el monto evita el paso por String del double.
+     */
+    public Transaction toTransaction(E event) {
+        CharSequence eventId = id.apply(event);
+        if (eventId == null) {
+            throw new IllegalArgumentException(missingIdMessage);
+        }
+        double value = amount.applyAsDouble(event);
+        if (value <= 0) {
+            throw new IllegalArgumentException("Monto inválido: debe ser mayor a cero");
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setId(eventId.toString());
+        transaction.setAmount(MonetaryAmounts.of(value));
+        transaction.setEventDate(IsoTimestamps.parse(timestamp.apply(event)));
+        transaction.setStatus(StatusEnum.PENDING);
+        transaction.setCreatedAt(OffsetDateTime.now());  // necesario para la paginación por cursor
+        return transaction;
+    }
+}
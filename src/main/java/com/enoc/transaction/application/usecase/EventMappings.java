@@ -0,0 +1,70 @@
+package com.enoc.transaction.application.usecase;
+
+import com.enoc.transaction.events.CreditPaymentRequested;
+import com.enoc.transaction.events.DebitCardPaymentRequested;
+import com.enoc.transaction.events.ExternalTransferRequested;
+import com.enoc.transaction.events.OrderedDebitWithdrawalRequested;
+import com.enoc.transaction.events.ThirdPartyCreditPaymentRequested;
+import com.enoc.transaction.events.TransactionCreated;
+
+public final class EventMappings {
+
+    public static final EventMapping<TransactionCreated> TRANSACTION_CREATED = EventMapping.<TransactionCreated>builder()
+            .eventName("transaction.created")
+            .description("Transacción")
+            .id(TransactionCreated::getTransactionId)
+            .missingIdMessage("ID de transacción nulo")
+            .amount(TransactionCreated::getAmount)
+            .timestamp(TransactionCreated::getTimestamp)
+            .build();
+
+    public static final EventMapping<CreditPaymentRequested> CREDIT_PAYMENT = EventMapping.<CreditPaymentRequested>builder()
+            .eventName("credit.payment.requested")
+            .description("Pago de crédito")
+            .id(CreditPaymentRequested::getPaymentId)
+            .missingIdMessage("ID de pago nulo")
+            .amount(CreditPaymentRequested::getAmount)
+            .timestamp(CreditPaymentRequested::getTimestamp)
+            .build();
+
+    public static final EventMapping<DebitCardPaymentRequested> DEBIT_CARD_PAYMENT = EventMapping.<DebitCardPaymentRequested>builder()
+            .eventName("debit.card.payment.requested")
+            .description("Pago con tarjeta")
+            .id(DebitCardPaymentRequested::getPaymentId)
+            .missingIdMessage("ID de pago nulo")
+            .amount(DebitCardPaymentRequested::getAmount)
+            .timestamp(DebitCardPaymentRequested::getTimestamp)
+            .build();
+
+    public static final EventMapping<ExternalTransferRequested> EXTERNAL_TRANSFER = EventMapping.<ExternalTransferRequested>builder()
+            .eventName("external.transfer.requested")
+            .description("Transferencia externa")
+            .id(ExternalTransferRequested::getTransferId)
+            .missingIdMessage("ID de transferencia nulo")
+            .amount(ExternalTransferRequested::getAmount)
+            .timestamp(ExternalTransferRequested::getTimestamp)
+            .build();
+
+    public static final EventMapping<OrderedDebitWithdrawalRequested> ORDERED_DEBIT_WITHDRAWAL =
+            EventMapping.<OrderedDebitWithdrawalRequested>builder()
+                    .eventName("ordered.debit.withdrawal.requested")
+                    .description("Retiro programado")
+                    .id(OrderedDebitWithdrawalRequested::getWithdrawalId)
+                    .missingIdMessage("ID de retiro nulo")
+                    .amount(OrderedDebitWithdrawalRequested::getAmount)
+                    .timestamp(OrderedDebitWithdrawalRequested::getTimestamp)
+                    .build();
+
+    public static final EventMapping<ThirdPartyCreditPaymentRequested> THIRD_PARTY_CREDIT_PAYMENT =
+            EventMapping.<ThirdPartyCreditPaymentRequested>builder()
+                    .eventName("third.party.credit.payment.requested")
+                    .description("Pago de tercero")
+                    .id(ThirdPartyCreditPaymentRequested::getPaymentId)
+                    .missingIdMessage("ID de pago nulo")
+                    .amount(ThirdPartyCreditPaymentRequested::getAmount)
+                    .timestamp(ThirdPartyCreditPaymentRequested::getTimestamp)
+                    .build();
+
+    private EventMappings() {
+    }
+}
@@ -0,0 +1,116 @@
+package com.enoc.transaction.application.usecase;
+
+import com.enoc.transaction.domain.model.FeeCounter;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.FeeCounterRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class FeeCounterProjection {
+
+    private final FeeCounterRepository repository;
+    private final Cache<String, Long> cache;
+
+    public FeeCounterProjection(FeeCounterRepository repository,
+                                @Value("${transaction.fees.counter-cache-max-size}") long cacheMaxSize,
+                                @Value("${transaction.fees.counter-cache-ttl-ms}") long cacheTtlMs) {
+        this.repository = repository;
+        // El TTL acota cuánto puede quedar atrasado un conteo incrementado por otra instancia.
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    /*
+      Transactions of the current month for the account and type: a cache hit is a map lookup, a miss reads one
+      counter document by _id (zero when the month has no transactions yet).
+      Transacciones del mes en curso para la cuenta y el tipo: un acierto de caché es una búsqueda en memoria, un fallo
+      lee un documento contador por _id (cero cuando el mes aún no tiene transacciones).
+     */
+    public Mono<Long> countOf(String accountId, TransactionType type) {
+        String id = FeeCounter.idOf(accountId, type, YearMonth.now(ZoneOffset.UTC));
+        Long cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return repository.findById(id)
+                .map(FeeCounter::getCount)
+                .defaultIfEmpty(0L)
+                .doOnNext(count -> cache.put(id, count));
+    }
+
+    /*
+      Counts a newly persisted transaction in the month it was created. The cached value is neither bumped nor
+      dropped here: callers evict it after commit, so a rolled-back Mongo transaction cannot leave an inflated count
+      and a concurrent read cannot re-cache the pre-commit one.
+      Cuenta una transacción recién persistida en el mes en que se creó. El valor cacheado no se incrementa ni se
+      descarta aquí: quien llama lo desaloja tras el commit, así una transacción de Mongo revertida no deja un conteo
+      inflado y una lectura concurrente no vuelve a cachear el previo al commit.
+     */
+    public Mono<Transaction> record(Transaction tx) {
+        if (!isCountable(tx)) {
+            return Mono.just(tx);
+        }
+        return repository.increment(tx.getAccountId(), tx.getType(), periodOf(tx), 1)
+                .thenReturn(tx);
+    }
+
+    /*
+      Batch variant for bulk creation: one $inc per (account, type, month) instead of one per transaction.
+      Variante por lotes para la creación masiva: un $inc por (cuenta, tipo, mes) en lugar de uno por transacción.
+     */
+    public Mono<Void> recordAll(List<Transaction> transactions) {
+        Map<String, Transaction> samples = new LinkedHashMap<>();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Transaction tx : transactions) {
+            if (isCountable(tx)) {
+                String id = FeeCounter.idOf(tx.getAccountId(), tx.getType(), periodOf(tx));
+                samples.putIfAbsent(id, tx);
+                counts.merge(id, 1L, Long::sum);
+            }
+        }
+        return Flux.fromIterable(counts.entrySet())
+                .concatMap(count -> {
+                    Transaction sample = samples.get(count.getKey());
+                    return repository.increment(sample.getAccountId(), sample.getType(), periodOf(sample), count.getValue());
+                })
+                .then();
+    }
+
+    /*
+      Drops the cached counts a committed transaction changed.
+      Descarta los conteos cacheados que cambió una transacción confirmada.
+     */
+    public Mono<Void> evict(Transaction tx) {
+        return evictAll(List.of(tx));
+    }
+
+    public Mono<Void> evictAll(List<Transaction> transactions) {
+        return Mono.fromRunnable(() -> transactions.stream()
+                .filter(FeeCounterProjection::isCountable)
+                .forEach(tx -> cache.invalidate(FeeCounter.idOf(tx.getAccountId(), tx.getType(), periodOf(tx)))));
+    }
+
+    private static boolean isCountable(Transaction tx) {
+        return tx.getAccountId() != null && tx.getType() != null;
+    }
+
+    private static YearMonth periodOf(Transaction tx) {
+        OffsetDateTime createdAt = tx.getCreatedAt() != null ? tx.getCreatedAt() : OffsetDateTime.now();
+        return YearMonth.from(createdAt.withOffsetSameInstant(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,114 @@
+package com.enoc.transaction.application.usecase;
+
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+public final class IsoTimestamps {
+
+    private static final int[] NANO_SCALE = {
+        1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private IsoTimestamps() {
+    }
+
+    /*
+      Parses an ISO-8601 offset date-time straight from the CharSequence (Avro Utf8 included) without copying it to a
+      String or going through DateTimeFormatter. Only the shape OffsetDateTime.toString() produces is handled here
+      (yyyy-MM-ddTHH:mm[:ss[.fraction]] followed by Z or +HH:MM); anything else falls back to OffsetDateTime.parse,
+      which also reports malformed values.
+      Parsea un date-time ISO-8601 con offset directamente del CharSequence (incluido Utf8 de Avro) sin copiarlo a
+      String ni pasar por DateTimeFormatter. Solo se atiende la forma que produce OffsetDateTime.toString(); cualquier
+      otra recae en OffsetDateTime.parse, que además reporta los valores mal formados.
+     */
+    public static OffsetDateTime parse(CharSequence text) {
+        OffsetDateTime parsed = parseCanonical(text);
+        return parsed != null ? parsed : OffsetDateTime.parse(text);
+    }
+
+    private static OffsetDateTime parseCanonical(CharSequence text) {
+        int length = text.length();
+        if (length < 17 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0) {
+            return null;
+        }
+
+        int pos = 16;
+        int second = 0;
+        int nano = 0;
+        if (pos < length && text.charAt(pos) == ':') {
+            second = digits(text, pos + 1, 2);
+            if (second < 0) {
+                return null;
+            }
+            pos += 3;
+            if (pos < length && text.charAt(pos) == '.') {
+                int start = ++pos;
+                while (pos < length && pos - start < 9 && isDigit(text.charAt(pos))) {
+                    nano = nano * 10 + (text.charAt(pos) - '0');
+                    pos++;
+                }
+                if (pos == start) {
+                    return null;
+                }
+                nano *= NANO_SCALE[pos - start];
+            }
+        }
+
+        ZoneOffset offset = offset(text, pos);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.of(year, month, day, hour, minute, second, nano, offset);
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    private static ZoneOffset offset(CharSequence text, int pos) {
+        int length = text.length();
+        if (pos == length - 1 && text.charAt(pos) == 'Z') {
+            return ZoneOffset.UTC;
+        }
+        if (pos != length - 6 || text.charAt(pos + 3) != ':') {
+            return null;
+        }
+        char sign = text.charAt(pos);
+        int hours = digits(text, pos + 1, 2);
+        int minutes = digits(text, pos + 4, 2);
+        if ((sign != '+' && sign != '-') || hours < 0 || minutes < 0 || hours > 18 || minutes > 59) {
+            return null;
+        }
+        int totalSeconds = hours * 3600 + minutes * 60;
+        return ZoneOffset.ofTotalSeconds(sign == '-' ? -totalSeconds : totalSeconds);
+    }
+
+    private static int digits(CharSequence text, int from, int count) {
+        if (from + count > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,32 @@
+package com.enoc.transaction.application.usecase;
+
+import java.math.BigDecimal;
+
+public final class MonetaryAmounts {
+
+    private static final double[] POWERS_OF_TEN = {1d, 10d, 100d, 1_000d, 10_000d};
+
+    private MonetaryAmounts() {
+    }
+
+    /*
+      Same value and scale as BigDecimal.valueOf(double) (shortest decimal, at least one fraction digit) for the
+      amounts events actually carry, built from an unscaled long instead of formatting the double to a String.
+      Other magnitudes or more than four decimals fall back to BigDecimal.valueOf.
+      Mismo valor y escala que BigDecimal.valueOf(double) para los montos que traen los eventos, construido desde un
+      long sin escala en lugar de formatear el double a String. Otras magnitudes o más de cuatro decimales recaen en
+      BigDecimal.valueOf.
+     */
+    public static BigDecimal of(double amount) {
+        double magnitude = Math.abs(amount);
+        if (magnitude >= 1e-3 && magnitude < 1e7) {
+            for (int scale = 1; scale < POWERS_OF_TEN.length; scale++) {
+                long unscaled = Math.round(amount * POWERS_OF_TEN[scale]);
+                if (unscaled / POWERS_OF_TEN[scale] == amount) {
+                    return BigDecimal.valueOf(unscaled, scale);
+                }
+            }
+        }
+        return BigDecimal.valueOf(amount);
+    }
+}
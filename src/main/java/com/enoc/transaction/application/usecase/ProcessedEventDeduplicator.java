@@ -0,0 +1,123 @@
+package com.enoc.transaction.application.usecase;
+
+import com.enoc.transaction.domain.model.ProcessedEvent;
+import com.enoc.transaction.domain.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@Slf4j
+public class ProcessedEventDeduplicator {
+
+    private final ProcessedEventRepository repository;
+    private final long expectedEvents;
+    private final double falsePositiveRate;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter storeLookups;
+    private final Counter falsePositives;
+
+    // Dos generaciones del filtro: los ids viven entre una y dos retenciones, siempre más que el TTL del store.
+    private volatile EventIdBloomFilter current;
+    private volatile EventIdBloomFilter previous;
+    private volatile long rotateAtMillis;
+
+    public ProcessedEventDeduplicator(ProcessedEventRepository repository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${transaction.dedup.expected-events}") long expectedEvents,
+                                      @Value("${transaction.dedup.false-positive-rate}") double falsePositiveRate) {
+        this.repository = repository;
+        this.expectedEvents = expectedEvents;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = new EventIdBloomFilter(expectedEvents, falsePositiveRate);
+        this.previous = new EventIdBloomFilter(expectedEvents, falsePositiveRate);
+        this.rotateAtMillis = System.currentTimeMillis() + ProcessedEvent.RETENTION_PERIOD.toMillis();
+
+        this.hits = meterRegistry.counter("transaction.dedup.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("transaction.dedup.lookups", "result", "miss");
+        this.storeLookups = meterRegistry.counter("transaction.dedup.store.lookups");
+        this.falsePositives = meterRegistry.counter("transaction.dedup.bloom.false-positives");
+    }
+
+    /*
+      Returns true when the event id has not been processed yet. A negative Bloom answer is definitive and costs no
+      database round trip; only possible duplicates are confirmed against the processed_events store.
+      Devuelve true cuando el id de evento aún no fue procesado. Una respuesta negativa del filtro de Bloom es
+      definitiva y no consulta la base; solo los posibles duplicados se confirman contra processed_events.
+     */
+    public Mono<Boolean> isNew(String eventId) {
+        rotateIfExpired();
+        if (!current.mightContain(eventId) && !previous.mightContain(eventId)) {
+            misses.increment();
+            return Mono.just(true);
+        }
+
+        storeLookups.increment();
+        return repository.existsById(eventId)
+                .map(exists -> {
+                    if (exists) {
+                        hits.increment();
+                        log.info("Evento duplicado descartado: {}", eventId);
+                    } else {
+                        misses.increment();
+                        falsePositives.increment();
+                    }
+                    return !exists;
+                });
+    }
+
+    /*
+      Records the id after the event has been persisted.
+      Registra el id después de persistir el evento.
+     */
+    public Mono<Void> markProcessed(String eventId) {
+        current.put(eventId);
+        return repository.save(new ProcessedEvent(eventId, OffsetDateTime.now())).then();
+    }
+
+    public Mono<Void> markProcessed(List<String> eventIds) {
+        eventIds.forEach(current::put);
+        OffsetDateTime now = OffsetDateTime.now();
+        return repository.saveAll(eventIds.stream()
+                        .map(id -> new ProcessedEvent(id, now))
+                        .collect(Collectors.toList()))
+                .then();
+    }
+
+    /*
+      Loads the ids still retained in the store so redeliveries right after a restart are also detected.
+      Carga los ids aún retenidos en el store para detectar también las reentregas justo después de un reinicio.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        repository.findAll()
+                .doOnNext(event -> current.put(event.getId()))
+                .count()
+                .subscribe(
+                        count -> log.info("Filtro de Bloom de deduplicación inicializado con {} ids", count),
+                        ex -> log.error("No se pudo inicializar el filtro de deduplicación: {}", ex.getMessage()));
+    }
+
+    private void rotateIfExpired() {
+        if (System.currentTimeMillis() < rotateAtMillis) {
+            return;
+        }
+        synchronized (this) {
+            if (System.currentTimeMillis() >= rotateAtMillis) {
+                previous = current;
+                current = new EventIdBloomFilter(expectedEvents, falsePositiveRate);
+                rotateAtMillis = System.currentTimeMillis() + ProcessedEvent.RETENTION_PERIOD.toMillis();
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.enoc.transaction.application.usecase;
+
+import com.enoc.transaction.application.event.TransactionEventPublisher;
+import com.enoc.transaction.application.service.cache.ReactiveCachedTransactionService;
+import com.enoc.transaction.domain.exception.BusinessException;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionOrigin;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import com.enoc.transaction.domain.service.TransactionValidator;
+import com.enoc.transaction.dto.request.TransactionRequestDTO;
+import com.enoc.transaction.dto.response.BatchItemResult;
+import com.enoc.transaction.infrastructure.mapper.TransactionMapper;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+@Component
+@Slf4j
+public class TransactionBatchCreator {
+
+    // Tipos sin pasos externos; el resto (pagos de crédito, transferencias externas, retiros ordenados) va por la API unitaria.
+    private static final Set<TransactionType> SUPPORTED_TYPES = EnumSet.of(TransactionType.DEPOSIT, TransactionType.WITHDRAWAL,
+            TransactionType.CREDIT_CHARGE, TransactionType.TRANSFER_INTERNAL, TransactionType.DEBIT_CARD_CHARGE,
+            TransactionType.DEBIT_CARD_PAYMENT);
+    private static final Set<TransactionType> OVERDUE_CHECKED_TYPES = EnumSet.of(TransactionType.DEPOSIT, TransactionType.WITHDRAWAL);
+    private static final BigDecimal DEBIT_CARD_PAYMENT_LIMIT = new BigDecimal("10000");
+
+    private final TransactionRepository repository;
+    private final TransactionMapper mapper;
+    private final TransactionValidator validator;
+    private final TransactionEventPublisher transactionEventPublisher;
+    private final TransactionalOperator transactionalOperator;
+    private final AccountBalanceProjection balanceProjection;
+    private final CustomerDebtProjection debtProjection;
+    private final FeeCounterProjection feeCounters;
+    private final ReactiveCachedTransactionService cachedService;
+    private final int chunkSize;
+
+    public TransactionBatchCreator(TransactionRepository repository,
+                                   TransactionMapper mapper,
+                                   TransactionValidator validator,
+                                   TransactionEventPublisher transactionEventPublisher,
+                                   TransactionalOperator transactionalOperator,
+                                   AccountBalanceProjection balanceProjection,
+                                   CustomerDebtProjection debtProjection,
+                                   FeeCounterProjection feeCounters,
+                                   ReactiveCachedTransactionService cachedService,
+                                   @Value("${transaction.batch.chunk-size}") int chunkSize) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.transactionEventPublisher = transactionEventPublisher;
+        this.transactionalOperator = transactionalOperator;
+        this.balanceProjection = balanceProjection;
+        this.debtProjection = debtProjection;
+        this.feeCounters = feeCounters;
+        this.cachedService = cachedService;
+        this.chunkSize = chunkSize;
+    }
+
+    /*
+      Creates a stream of requests in chunks: each chunk is validated item by item, persisted with one unordered
+      insertMany and one outbox insert inside a single Mongo transaction, and its results are emitted before the next
+      chunk is read, so the response streams while the request is still arriving.
+      Crea un flujo de solicitudes por bloques: cada bloque se valida elemento a elemento, se persiste con un único
+      insertMany no ordenado y una sola inserción en el outbox dentro de una transacción de Mongo, y sus resultados se
+      emiten antes de leer el siguiente bloque, así la respuesta fluye mientras la solicitud aún está llegando.
+     */
+    public Flux<BatchItemResult> create(Flux<TransactionRequestDTO> requests) {
+        // Una sola consulta de mora por cliente distinto en todo el lote.
+        Map<String, Mono<Boolean>> overdueByCustomer = new ConcurrentHashMap<>();
+        return requests.index()
+                .buffer(chunkSize)
+                .concatMap(chunk -> createChunk(chunk, overdueByCustomer));
+    }
+
+    private Flux<BatchItemResult> createChunk(List<Tuple2<Long, TransactionRequestDTO>> chunk,
+                                              Map<String, Mono<Boolean>> overdueByCustomer) {
+        return Flux.fromIterable(chunk)
+                .concatMap(item -> validate(item.getT2(), overdueByCustomer)
+                        .then(Mono.fromCallable(() -> Slot.accepted(item.getT1(), toEntity(item.getT2()))))
+                        .onErrorResume(ex -> Mono.just(Slot.rejected(item.getT1(), ex.getMessage()))))
+                .collectList()
+                .flatMapMany(slots -> persist(slots)
+                        .onErrorResume(ex -> {
+                            log.error("Error al persistir bloque de {} transacciones: {}", slots.size(), ex.getMessage());
+                            slots.stream().filter(Slot::isAccepted).forEach(slot -> slot.reject(ex.getMessage()));
+                            return Mono.empty();
+                        })
+                        .thenMany(Flux.fromIterable(slots))
+                        .map(this::toResult));
+    }
+
+    private Mono<Void> validate(TransactionRequestDTO request, Map<String, Mono<Boolean>> overdueByCustomer) {
+        if (request.getType() == null || !SUPPORTED_TYPES.contains(request.getType())) {
+            return Mono.error(new IllegalArgumentException("Tipo de transacción no soportado en lote: " + request.getType()));
+        }
+        Mono<Void> amount = request.getType() == TransactionType.DEBIT_CARD_PAYMENT
+                ? validator.validarMontoPositivo(request).then(validator.validarMontoMaximo(request, DEBIT_CARD_PAYMENT_LIMIT))
+                : validator.validarMontoPositivo(request);
+        if (!OVERDUE_CHECKED_TYPES.contains(request.getType()) || request.getCustomerId() == null) {
+            return amount;
+        }
+        return amount.then(overdueByCustomer
+                .computeIfAbsent(request.getCustomerId(), customerId -> debtProjection.isOverdue(customerId).cache())
+                .flatMap(hasDebt -> hasDebt
+                        ? Mono.<Void>error(new IllegalArgumentException("Cliente tiene deudas vencidas"))
+                        : Mono.<Void>empty()));
+    }
+
+    /*
+      Debits reserve their funds one by one with the conditional decrement (an insufficient balance rejects only that
+      item); everything else is written once for the whole chunk.
+      Los débitos reservan sus fondos uno a uno con el descuento condicional (un saldo insuficiente rechaza solo ese
+      elemento); todo lo demás se escribe una sola vez para todo el bloque.
+     */
+    private Mono<Void> persist(List<Slot> slots) {
+        return Flux.fromIterable(slots)
+                .filter(slot -> slot.isAccepted() && slot.transaction.getAmount().signum() < 0)
+                .concatMap(slot -> balanceProjection.apply(slot.transaction)
+                        .onErrorResume(BusinessException.class, ex -> {
+                            slot.reject(ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .then(Mono.defer(() -> {
+                    List<Transaction> accepted = slots.stream()
+                            .filter(Slot::isAccepted)
+                            .map(slot -> slot.transaction)
+                            .collect(Collectors.toList());
+                    if (accepted.isEmpty()) {
+                        return Mono.<Void>empty();
+                    }
+                    List<Transaction> credits = accepted.stream()
+                            .filter(tx -> tx.getAmount().signum() >= 0)
+                            .collect(Collectors.toList());
+                    return repository.insertAllUnordered(accepted)
+                            .then(balanceProjection.applyAll(credits))
+                            .thenMany(Flux.fromIterable(accepted).concatMap(debtProjection::apply))
+                            .then(feeCounters.recordAll(accepted))
+                            .then(transactionEventPublisher.publishCreatedAll(accepted));
+                }))
+                .as(transactionalOperator::transactional)
+                // Tras el commit, la deuda, los contadores y la última transacción de cada cliente del bloque cambiaron.
+                .then(Mono.defer(() -> {
+                    List<Transaction> accepted = slots.stream()
+                            .filter(Slot::isAccepted)
+                            .map(slot -> slot.transaction)
+                            .collect(Collectors.toList());
+                    return debtProjection.evictAll(accepted).then(feeCounters.evictAll(accepted));
+                }))
+                .then(Mono.defer(() -> cachedService.evictLast(slots.stream()
+                        .filter(Slot::isAccepted)
+                        .map(slot -> slot.transaction.getCustomerId())
+                        .collect(Collectors.toSet()))));
+    }
+
+    private Transaction toEntity(TransactionRequestDTO request) {
+        Transaction tx = mapper.mapToEntity(request);
+        tx.setState(TransactionState.ACTIVE);
+        tx.setCreatedAt(OffsetDateTime.now());
+        switch (request.getType()) {
+            case WITHDRAWAL:
+                tx.setAmount(request.getAmount().negate());
+                break;
+            case DEBIT_CARD_CHARGE:
+            case DEBIT_CARD_PAYMENT:
+                tx.setOrigin(TransactionOrigin.DEBIT_CARD);
+                break;
+            default:
+                break;
+        }
+        return tx;
+    }
+
+    private BatchItemResult toResult(Slot slot) {
+        return slot.isAccepted()
+                ? BatchItemResult.approved(slot.index, mapper.toDto(slot.transaction))
+                : BatchItemResult.rejected(slot.index, slot.error);
+    }
+
+    // Estado de un elemento del bloque entre la validación y la respuesta.
+    private static final class Slot {
+
+        private static final String UNKNOWN_ERROR = "Error desconocido";
+
+        private final long index;
+        private final Transaction transaction;
+        private String error;
+
+        private Slot(long index, Transaction transaction, String error) {
+            this.index = index;
+            this.transaction = transaction;
+            this.error = error;
+        }
+
+        static Slot accepted(long index, Transaction transaction) {
+            return new Slot(index, transaction, null);
+        }
+
+        static Slot rejected(long index, String error) {
+            return new Slot(index, null, Objects.requireNonNullElse(error, UNKNOWN_ERROR));
+        }
+
+        boolean isAccepted() {
+            return error == null;
+        }
+
+        void reject(String reason) {
+            this.error = Objects.requireNonNullElse(reason, UNKNOWN_ERROR);
+        }
+    }
+}
@@ -1,56 +1,22 @@
 package com.enoc.transaction.application.usecase;
 
-import com.enoc.transaction.domain.model.Transaction;
-import com.enoc.transaction.domain.model.enums.StatusEnum;
-import com.enoc.transaction.domain.model.enums.TransactionState;
-import com.enoc.transaction.domain.repository.TransactionRepository;
 import com.enoc.transaction.events.TransactionCreated;
-import java.math.BigDecimal;
-import java.time.OffsetDateTime;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
-@Slf4j
 public class TransactionCreatedHandler {
 
-    private final TransactionRepository repository;
+    private final EventIngestionPipeline pipeline;
 
-    public void process(TransactionCreated event) {
-        log.info(" Evento recibido: transaction.created | ID={}", event.getTransactionId());
-
-        try {
-            validate(event);
-
-            Transaction transaction = mapToDomain(event);
-
-            repository.save(transaction);
-
-            log.info("Transacción Almacenada correctamente: {}", transaction.getId());
-
-        } catch (Exception ex) {
-            log.error(" Error al procesar transacción {}: {}", event.getTransactionId(), ex.getMessage());
-        }
-    }
-
-    private void validate(TransactionCreated event) {
-        if (event.getTransactionId() == null) {
-            throw new IllegalArgumentException("ID de transacción nulo");
-        }
-        if (event.getAmount() <= 0) {
-            throw new IllegalArgumentException("Monto inválido: debe ser mayor a cero");
-        }
+    public Mono<Void> process(TransactionCreated event) {
+        return pipeline.process(EventMappings.TRANSACTION_CREATED, event);
     }
 
-    private Transaction mapToDomain(TransactionCreated event) {
-        return Transaction.builder()
-                .id(event.getTransactionId().toString())
-                .amount(BigDecimal.valueOf(event.getAmount()))
-                .eventDate(OffsetDateTime.parse(event.getTimestamp().toString()))
-                .state(TransactionState.ACTIVE)
-                .status(StatusEnum.PENDING)
-                .build();
+    public Mono<Long> processBatch(List<TransactionCreated> events) {
+        return pipeline.processBatch(EventMappings.TRANSACTION_CREATED, events);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.enoc.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "account_balances")
+@CompoundIndex(name = "product_lastActivity", def = "{'productId': 1, 'lastActivity': -1}")
+public class AccountBalance {
+
+    // Proyección por cuenta (y resultado del $group por accountId): el _id es el accountId.
+    @Id
+    private String accountId;
+    private String productId;
+    // Decimal128 para que $inc y la comparación del débito condicional sean numéricos.
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal balance;
+    private OffsetDateTime lastActivity;
+}
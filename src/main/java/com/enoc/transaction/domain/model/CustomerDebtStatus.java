@@ -0,0 +1,43 @@
+package com.enoc.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "customer_debt_status")
+@CompoundIndex(name = "overdue_earliestDueDate", def = "{'overdue': 1, 'earliestDueDate': 1}")
+public class CustomerDebtStatus {
+
+    // Cliente sin cargos de crédito: se cachea igual para no volver a consultar Mongo.
+    public static final CustomerDebtStatus NONE = new CustomerDebtStatus(null, BigDecimal.ZERO, null, false, null);
+
+    @Id
+    private String customerId;
+    // CREDIT_CHARGE menos CREDIT_PAYMENT activos.
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal outstanding;
+    // Vencimiento (campo date) del cargo más antiguo con deuda pendiente.
+    private OffsetDateTime earliestDueDate;
+    // Marcado por el barrido programado cuando earliestDueDate ya pasó.
+    private boolean overdue;
+    private OffsetDateTime updatedAt;
+
+    // The stored flag may lag the sweeper, so a passed due date with outstanding debt also counts.
+    // La marca guardada puede ir detrás del barrido, así que un vencimiento pasado con deuda pendiente también cuenta.
+    public boolean isOverdueAt(OffsetDateTime now) {
+        return overdue || (outstanding != null && outstanding.signum() > 0
+                && earliestDueDate != null && earliestDueDate.isBefore(now));
+    }
+}
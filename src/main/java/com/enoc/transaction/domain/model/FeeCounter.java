@@ -0,0 +1,38 @@
+package com.enoc.transaction.domain.model;
+
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "fee_counters")
+public class FeeCounter {
+
+    // Retención de los contadores de meses cerrados (índice TTL sobre updatedAt).
+    public static final String RETENTION = "400d";
+
+    // accountId|type|yyyy-MM: la evaluación de comisiones lee un único documento por _id.
+    @Id
+    private String id;
+    private String accountId;
+    private TransactionType type;
+    private String period;
+    private long count;
+
+    @Indexed(name = "updatedAt_ttl", expireAfter = RETENTION)
+    private OffsetDateTime updatedAt;
+
+    public static String idOf(String accountId, TransactionType type, YearMonth period) {
+        return accountId + "|" + type.name() + "|" + period;
+    }
+}
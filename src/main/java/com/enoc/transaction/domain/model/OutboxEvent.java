@@ -0,0 +1,41 @@
+package com.enoc.transaction.domain.model;
+
+import com.enoc.transaction.domain.model.enums.OutboxStatus;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "outbox_events")
+@CompoundIndex(name = "status_id", def = "{'status': 1, '_id': 1}")
+public class OutboxEvent {
+
+    // Retención de los eventos ya publicados (índice TTL sobre publishedAt).
+    public static final String PUBLISHED_RETENTION = "1d";
+
+    @Id
+    private String id;
+    private String aggregateId;
+    private String topic;
+    private String messageKey;
+    private String eventType;  // nombre completo del esquema Avro
+    private byte[] payload;    // evento serializado en binario Avro
+    private OutboxStatus status;
+    private OffsetDateTime createdAt;
+    private String leaseOwner;
+    private OffsetDateTime leaseUntil;
+
+    @Indexed(name = "publishedAt_ttl", expireAfter = PUBLISHED_RETENTION)
+    private OffsetDateTime publishedAt;
+}
@@ -0,0 +1,29 @@
+package com.enoc.transaction.domain.model;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "processed_events")
+public class ProcessedEvent {
+
+    // Retención de los ids procesados (índice TTL y rotación del filtro de Bloom).
+    public static final String RETENTION = "7d";
+    public static final Duration RETENTION_PERIOD = Duration.ofDays(7);
+
+    @Id
+    private String id;
+
+    @Indexed(name = "processedAt_ttl", expireAfter = RETENTION)
+    private OffsetDateTime processedAt;
+}
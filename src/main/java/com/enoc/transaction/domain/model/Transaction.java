@@ -11,6 +11,8 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -20,6 +22,15 @@ import org.springframework.data.mongodb.core.mapping.Field;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "transactions")
+@CompoundIndexes({
+    // Equality fields first, then the sort field, then the range field (ESR). _id closes the keyset cursor.
+    @CompoundIndex(name = "customer_state_createdAt_id", def = "{'customerId': 1, 'state': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "product_state_createdAt_id", def = "{'productId': 1, 'state': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "customer_type_state_date", def = "{'customerId': 1, 'type': 1, 'state': 1, 'date': 1}"),
+    @CompoundIndex(name = "account_type", def = "{'accountId': 1, 'type': 1}"),
+    @CompoundIndex(name = "state_createdAt_id", def = "{'state': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
+})
 public class Transaction {
 
     @Id
@@ -0,0 +1,51 @@
+package com.enoc.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "transaction_buckets")
+@CompoundIndexes({
+    // Historias por cliente o producto: se leen los buckets del mes más reciente hacia atrás.
+    @CompoundIndex(name = "customerIds_period", def = "{'customerIds': 1, 'period': -1}"),
+    @CompoundIndex(name = "product_period", def = "{'productId': 1, 'period': -1}"),
+    @CompoundIndex(name = "period", def = "{'period': -1}"),
+    // Búsqueda por id de una transacción empaquetada.
+    @CompoundIndex(name = "transactions_id", def = "{'transactions._id': 1}")
+})
+public class TransactionBucket {
+
+    // accountId|yyyy-MM: un documento por cuenta y mes de createdAt (UTC).
+    @Id
+    private String id;
+    private String accountId;
+    private String productId;
+    private List<String> customerIds;
+    private String period;
+    // Resumen recalculado en cada compactación: total de transacciones y suma de las ACTIVE.
+    private int count;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal sum;
+    private OffsetDateTime minCreatedAt;
+    private OffsetDateTime maxCreatedAt;
+    private List<Transaction> transactions;
+
+    public static String idOf(String accountId, YearMonth period) {
+        return accountId + "|" + period;
+    }
+}
@@ -0,0 +1,7 @@
+package com.enoc.transaction.domain.model.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    PUBLISHED,
+    FAILED      // payload no decodificable: no se reintenta
+}
@@ -0,0 +1,19 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.AccountBalance;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface AccountBalanceRepository extends ReactiveMongoRepository<AccountBalance, String>, AccountBalanceUpdates {
+
+    // Accounts of a product, most recently active first.
+    // Cuentas de un producto, primero la de actividad más reciente.
+    Flux<AccountBalance> findByProductIdOrderByLastActivityDesc(String productId);
+
+    // Most recently active account of a product.
+    // Cuenta de un producto con la actividad más reciente.
+    Mono<AccountBalance> findFirstByProductIdOrderByLastActivityDesc(String productId);
+}
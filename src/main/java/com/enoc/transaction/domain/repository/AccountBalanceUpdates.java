@@ -0,0 +1,21 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.AccountBalance;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import reactor.core.publisher.Mono;
+
+public interface AccountBalanceUpdates {
+
+    // Atomically adds delta to the account balance, creating the projection document if needed.
+    // Suma delta al saldo de la cuenta de forma atómica, creando el documento de la proyección si hace falta.
+    Mono<Void> increment(String accountId, String productId, BigDecimal delta, OffsetDateTime at);
+
+    // Atomically subtracts amount only if the balance covers it; empty when funds are insufficient.
+    // Resta amount de forma atómica solo si el saldo lo cubre; vacío cuando los fondos son insuficientes.
+    Mono<AccountBalance> decrementIfSufficient(String accountId, String productId, BigDecimal amount, OffsetDateTime at);
+
+    // Replaces the projection with balances recomputed from ACTIVE transactions and returns the number of accounts.
+    // Reemplaza la proyección con saldos recalculados desde las transacciones ACTIVE y devuelve la cantidad de cuentas.
+    Mono<Long> rebuildFromTransactions();
+}
@@ -0,0 +1,10 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.CustomerDebtStatus;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerDebtStatusRepository extends ReactiveMongoRepository<CustomerDebtStatus, String>,
+                                                      CustomerDebtStatusUpdates {
+}
@@ -0,0 +1,28 @@
+package com.enoc.transaction.domain.repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import reactor.core.publisher.Mono;
+
+public interface CustomerDebtStatusUpdates {
+
+    // Adds a credit charge: increases the outstanding debt and keeps the earliest due date.
+    // Registra un cargo de crédito: aumenta la deuda pendiente y conserva el vencimiento más antiguo.
+    Mono<Void> charge(String customerId, BigDecimal amount, OffsetDateTime dueDate);
+
+    // Adds a credit payment: reduces the outstanding debt and clears the status once it is fully paid.
+    // Registra un pago de crédito: reduce la deuda pendiente y limpia el estado cuando queda saldada.
+    Mono<Void> pay(String customerId, BigDecimal amount);
+
+    // Recomputes one customer from the transactions collection (after updates or logical deletes).
+    // Recalcula un cliente desde la colección de transacciones (tras actualizaciones o borrados lógicos).
+    Mono<Void> recompute(String customerId);
+
+    // Flags customers whose earliest due date has passed and returns how many changed.
+    // Marca a los clientes cuyo vencimiento más antiguo ya pasó y devuelve cuántos cambiaron.
+    Mono<Long> markOverdue(OffsetDateTime now);
+
+    // Replaces the whole projection with statuses recomputed from the transactions collection.
+    // Reemplaza toda la proyección con estados recalculados desde la colección de transacciones.
+    Mono<Long> rebuildFromTransactions();
+}
@@ -0,0 +1,9 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.FeeCounter;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FeeCounterRepository extends ReactiveMongoRepository<FeeCounter, String>, FeeCounterUpdates {
+}
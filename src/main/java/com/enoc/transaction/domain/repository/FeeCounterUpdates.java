@@ -0,0 +1,12 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import java.time.YearMonth;
+import reactor.core.publisher.Mono;
+
+public interface FeeCounterUpdates {
+
+    // Atomically adds by to the (account, type, month) counter, creating its document if needed.
+    // Suma by al contador (cuenta, tipo, mes) de forma atómica, creando su documento si hace falta.
+    Mono<Void> increment(String accountId, TransactionType type, YearMonth period, long by);
+}
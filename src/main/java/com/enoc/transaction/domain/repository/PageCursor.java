@@ -0,0 +1,59 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.Transaction;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Comparator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String VERSION = "v1";
+    private static final String NO_DATE = "-";
+
+    // Orden de página en memoria, igual al de los índices: createdAt descendente con los nulos al final, luego id descendente.
+    public static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getCreatedAt, Comparator.nullsLast(OffsetDateTime.timeLineOrder().reversed()))
+            .thenComparing(Transaction::getId, Comparator.nullsLast(Comparator.<String>reverseOrder()));
+
+    private final OffsetDateTime createdAt;  // null para documentos antiguos sin createdAt
+    private final String id;
+
+    public static PageCursor after(Transaction last) {
+        return new PageCursor(last.getCreatedAt(), last.getId());
+    }
+
+    /*
+      Opaque continuation token: base64url of version, createdAt in epoch millis (Mongo's precision) and id.
+      Token de continuación opaco: base64url de la versión, createdAt en milisegundos epoch (precisión de Mongo) e id.
+     */
+    public String encode() {
+        String millis = createdAt != null ? Long.toString(createdAt.toInstant().toEpochMilli()) : NO_DATE;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join("|", VERSION, millis, id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3 || !VERSION.equals(parts[0]) || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("Token de página inválido");
+            }
+            OffsetDateTime createdAt = NO_DATE.equals(parts[1])
+                    ? null
+                    : Instant.ofEpochMilli(Long.parseLong(parts[1])).atOffset(ZoneOffset.UTC);
+            return new PageCursor(createdAt, parts[2]);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Token de página inválido", ex);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.Transaction;
+import java.time.OffsetDateTime;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface TransactionArchive {
+
+    // Moves up to batchSize cold transactions (INACTIVE/ARCHIVED, or ACTIVE created before activeCutoff) to the archive.
+    // Mueve hasta batchSize transacciones frías (INACTIVE/ARCHIVED, o ACTIVE creadas antes de activeCutoff) al archivo.
+    Mono<Long> archiveBatch(OffsetDateTime activeCutoff, int batchSize);
+
+    // Looks a transaction up by id in the archive only.
+    // Busca una transacción por id solo en el archivo.
+    Mono<Transaction> findArchivedById(String id);
+
+    // Same contract as findPage, merging the hot collection and the archive in (createdAt, id) order.
+    // Mismo contrato que findPage, combinando la colección caliente y el archivo en orden (createdAt, id).
+    Flux<Transaction> findPageIncludingArchive(Criteria filter, PageCursor after, int limit);
+
+    // Creates the archive's indexes if they are missing.
+    // Crea los índices del archivo si no existen.
+    Mono<Void> ensureArchiveIndexes();
+}
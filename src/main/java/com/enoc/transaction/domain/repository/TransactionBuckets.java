@@ -0,0 +1,21 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.Transaction;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface TransactionBuckets {
+
+    // Packs up to batchSize archived transactions into per-account, per-month buckets; returns how many were handled.
+    // Empaqueta hasta batchSize transacciones archivadas en buckets por cuenta y mes; devuelve cuántas se procesaron.
+    Mono<Long> compactBatch(int batchSize, int maxPerBucket);
+
+    // Looks a transaction up by id inside the buckets only.
+    // Busca una transacción por id solo dentro de los buckets.
+    Mono<Transaction> findBucketedById(String id);
+
+    // Same contract as findPage over the transactions packed in buckets.
+    // Mismo contrato que findPage sobre las transacciones empaquetadas en buckets.
+    Flux<Transaction> findPageInBuckets(Criteria filter, PageCursor after, int limit);
+}
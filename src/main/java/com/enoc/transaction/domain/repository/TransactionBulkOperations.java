@@ -0,0 +1,18 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.Transaction;
+import java.util.Collection;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface TransactionBulkOperations {
+
+    // Inserts the batch with one unordered bulk write and returns the number of documents inserted.
+    // Inserta el lote con una única escritura masiva no ordenada y devuelve la cantidad de documentos insertados.
+    Mono<Long> insertAllUnordered(List<Transaction> transactions);
+
+    // Returns which of the given ids are already stored, reading only the _id of each match.
+    // Devuelve cuáles de los ids dados ya están almacenados, leyendo solo el _id de cada coincidencia.
+    Flux<String> findExistingIds(Collection<String> ids);
+}
@@ -0,0 +1,12 @@
+package com.enoc.transaction.domain.repository;
+
+import com.enoc.transaction.domain.model.Transaction;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+
+public interface TransactionKeysetQueries {
+
+    // Returns up to limit transactions matching the filter, newest first by (createdAt, id), strictly after the cursor.
+    // Devuelve hasta limit transacciones que cumplen el filtro, de la más reciente por (createdAt, id), después del cursor.
+    Flux<Transaction> findPage(Criteria filter, PageCursor after, int limit);
+}
@@ -6,13 +6,15 @@ import com.enoc.transaction.domain.model.enums.TransactionState;
 import com.enoc.transaction.domain.model.enums.TransactionType;
 import java.time.OffsetDateTime;
 import java.util.List;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface TransactionRepository extends ReactiveMongoRepository<Transaction, String> {
+public interface TransactionRepository extends ReactiveMongoRepository<Transaction, String>, TransactionBulkOperations,
+                                               TransactionKeysetQueries, TransactionArchive, TransactionBuckets {
 
     // Custom method to count transactions by account ID and transaction type.
     // Método personalizado para contar transacciones por ID de cuenta y tipo de transacción.
@@ -22,6 +24,33 @@ public interface TransactionRepository extends ReactiveMongoRepository<Transacti
     // Método personalizado para encontrar una transacción por su ID y estado.
     Mono<Transaction> findByIdAndState(String id, TransactionState state);
 
+    // Looks the transaction up in the hot collection and falls back to the archive, then to the buckets.
+    // Busca la transacción en la colección caliente y recurre al archivo y luego a los buckets si no está.
+    default Mono<Transaction> findByIdIncludingArchive(String id) {
+        return findById(id)
+                .switchIfEmpty(Mono.defer(() -> findArchivedById(id)))
+                .switchIfEmpty(Mono.defer(() -> findBucketedById(id)));
+    }
+
+    // Same as findByIdAndState, falling back to the archive and the buckets.
+    // Igual que findByIdAndState, recurriendo al archivo y a los buckets.
+    default Mono<Transaction> findByIdAndStateIncludingArchive(String id, TransactionState state) {
+        return findByIdAndState(id, state)
+                .switchIfEmpty(Mono.defer(() -> findArchivedById(id)
+                        .switchIfEmpty(Mono.defer(() -> findBucketedById(id)))
+                        .filter(tx -> tx.getState() == state)));
+    }
+
+    // Same contract as findPage over the whole history: hot collection, archive and buckets.
+    // Mismo contrato que findPage sobre toda la historia: colección caliente, archivo y buckets.
+    default Flux<Transaction> findPageIncludingHistory(Criteria filter, PageCursor after, int limit) {
+        return Flux.mergeComparing(PageCursor.NEWEST_FIRST,
+                        findPageIncludingArchive(filter, after, limit),
+                        findPageInBuckets(filter, after, limit))
+                .distinctUntilChanged(Transaction::getId)
+                .take(limit);
+    }
+
     // Method to check if there is an overdue credit transaction for a customer with a specific product.
     // Método para verificar si existe una transacción de crédito vencida para un cliente con un producto específico.
     Mono<Boolean> existsByCustomerIdAndTypeAndDateBeforeAndState(String customerId, TransactionType type, OffsetDateTime date,
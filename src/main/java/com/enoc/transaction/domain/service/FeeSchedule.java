@@ -0,0 +1,58 @@
+package com.enoc.transaction.domain.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FeeSchedule {
+
+    // Umbral de transacciones del mes -> comisión que aplica cuando el conteo lo supera.
+    private final NavigableMap<Long, Double> tiers;
+
+    /*
+      Tiers come as "threshold=fee" pairs separated by commas, e.g. "500=5.0,1000=3.5".
+      Los tramos llegan como pares "umbral=comisión" separados por comas, por ejemplo "500=5.0,1000=3.5".
+     */
+    public FeeSchedule(@Value("${transaction.fees.tiers}") String tiers) {
+        this.tiers = parse(tiers);
+    }
+
+    /*
+      Fee for a transaction when the account already has count transactions of that type this month: the tier with
+      the highest threshold below count, or zero while it is within the free limit.
+      Comisión de una transacción cuando la cuenta ya tiene count transacciones de ese tipo en el mes: el tramo con el
+      umbral más alto por debajo de count, o cero mientras esté dentro del límite gratuito.
+     */
+    public double feeFor(long count) {
+        Map.Entry<Long, Double> tier = tiers.lowerEntry(count);
+        return tier != null ? tier.getValue() : 0.0;
+    }
+
+    private static NavigableMap<Long, Double> parse(String value) {
+        NavigableMap<Long, Double> parsed = new TreeMap<>();
+        if (value == null || value.isBlank()) {
+            return parsed;
+        }
+        for (String pair : value.split(",")) {
+            String[] parts = pair.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Tramo de comisión inválido: " + pair);
+            }
+            parsed.put(threshold(pair, parts[0].trim()), Double.parseDouble(parts[1].trim()));
+        }
+        return parsed;
+    }
+
+    // Se admite la escala de transaction.free-limit (500.00), pero no una fracción: 10.5 transacciones no existe.
+    private static long threshold(String pair, String value) {
+        try {
+            return new BigDecimal(value).longValueExact();
+        } catch (ArithmeticException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Umbral de comisión inválido, debe ser entero: " + pair, ex);
+        }
+    }
+}
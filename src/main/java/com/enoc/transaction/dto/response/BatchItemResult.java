@@ -0,0 +1,23 @@
+package com.enoc.transaction.dto.response;
+
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BatchItemResult {
+
+    private final long index;                          // posición del elemento en el lote recibido
+    private final StatusEnum status;                   // APPROVED o REJECTED
+    private final TransactionResponseDto transaction;  // null si fue rechazado
+    private final String error;                        // null si fue aprobado
+
+    public static BatchItemResult approved(long index, TransactionResponseDto transaction) {
+        return new BatchItemResult(index, StatusEnum.APPROVED, transaction, null);
+    }
+
+    public static BatchItemResult rejected(long index, String error) {
+        return new BatchItemResult(index, StatusEnum.REJECTED, null, error);
+    }
+}
@@ -0,0 +1,13 @@
+package com.enoc.transaction.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TransactionPage {
+
+    private final List<TransactionResponseDto> items;
+    private final String nextPageToken;  // null en la última página
+}
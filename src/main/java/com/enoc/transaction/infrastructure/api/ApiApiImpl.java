@@ -1,8 +1,10 @@
 package com.enoc.transaction.infrastructure.api;
 
 import com.enoc.transaction.dto.request.TransactionRequestDTO;
+import com.enoc.transaction.dto.response.BatchItemResult;
 import com.enoc.transaction.dto.response.TransactionResponseDto;
 import com.enoc.transaction.infrastructure.rest.TransactionController;
+import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
@@ -24,14 +26,23 @@ public class ApiApiImpl {
         return controller.create(transactionRequest);
     }
 
+    public Flux<BatchItemResult> createTransactionBatch(
+            Flux<TransactionRequestDTO> transactionRequest,
+            ServerWebExchange exchange) {
+        return controller.createBatch(transactionRequest);
+    }
+
     public Mono<ResponseEntity<TransactionResponseDto>> getTransactionById(
             String id,
             ServerWebExchange exchange) {
         return controller.getTransactionById(id);
     }
 
-    public Mono<ResponseEntity<Flux<TransactionResponseDto>>> getAllTransactions(ServerWebExchange exchange) {
-        return Mono.just(ResponseEntity.ok(controller.getAll()));
+    public Mono<ResponseEntity<List<TransactionResponseDto>>> getAllTransactions(
+            String pageToken,
+            Integer size,
+            ServerWebExchange exchange) {
+        return controller.getAll(pageToken, size);
     }
 
     public Mono<ResponseEntity<TransactionResponseDto>> updateTransaction(
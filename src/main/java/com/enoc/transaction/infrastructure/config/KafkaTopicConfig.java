@@ -0,0 +1,35 @@
+package com.enoc.transaction.infrastructure.config;
+
+import com.enoc.transaction.infrastructure.messaging.consumer.ReactiveEventConsumer;
+import com.enoc.transaction.infrastructure.messaging.retry.RetryTopicRouter;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${kafka.retry.topic-partitions}")
+    private int retryTopicPartitions;
+
+    /*
+      Declares the retry and DLT topics of every consumer so KafkaAdmin creates them at startup.
+      Declara los tópicos de reintento y DLT de cada consumidor para que KafkaAdmin los cree al iniciar.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics retryTopics(List<ReactiveEventConsumer<?>> consumers, RetryTopicRouter router) {
+        List<NewTopic> topics = new ArrayList<>();
+        for (ReactiveEventConsumer<?> consumer : consumers) {
+            for (String retryTopic : router.retryTopics(consumer.topic())) {
+                topics.add(TopicBuilder.name(retryTopic).partitions(retryTopicPartitions).build());
+            }
+            topics.add(TopicBuilder.name(router.dltTopic(consumer.topic())).partitions(retryTopicPartitions).build());
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+}
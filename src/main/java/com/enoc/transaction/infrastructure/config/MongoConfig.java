@@ -1,5 +1,6 @@
 package com.enoc.transaction.infrastructure.config;
 
+import com.enoc.transaction.infrastructure.persistence.TransactionCodec;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
@@ -7,14 +8,25 @@ import java.util.List;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
 import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
 @Configuration
 public class MongoConfig {
 
+    /*
+      Transaction is written and read by TransactionCodec as a whole; the date converters still serve queries and the
+      other entities.
+      Transaction se escribe y se lee completa con TransactionCodec; los convertidores de fechas siguen sirviendo a las
+      consultas y al resto de entidades.
+     */
     @Bean
     public MongoCustomConversions mongoCustomConversions() {
         return new MongoCustomConversions(List.of(
+                new TransactionCodec.Writer(),
+                new TransactionCodec.Reader(),
                 new Converter<OffsetDateTime, Date>() {
                     @Override
                     public Date convert(OffsetDateTime source) {
@@ -29,4 +41,19 @@ public class MongoConfig {
                 }
         ));
     }
-}
\ No newline at end of file
+
+    /*
+      Multi-document transactions (transaction + outbox event) need a replica set or sharded cluster.
+      Las transacciones multi-documento (transacción + evento del outbox) requieren un replica set o un clúster
+      con sharding.
+     */
+    @Bean
+    public ReactiveMongoTransactionManager reactiveMongoTransactionManager(ReactiveMongoDatabaseFactory databaseFactory) {
+        return new ReactiveMongoTransactionManager(databaseFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveMongoTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+}
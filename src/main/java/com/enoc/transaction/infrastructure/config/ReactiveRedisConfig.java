@@ -1,27 +1,31 @@
 package com.enoc.transaction.infrastructure.config;
 
 import com.enoc.transaction.dto.response.TransactionResponseDto;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class ReactiveRedisConfig {
 
+    /*
+      The value serializer writes the configured format and reads both JSON and binary; switch the format to BINARY
+      only once every node runs a version that can read it.
+      El serializador de valores escribe el formato configurado y lee tanto JSON como binario; el formato se cambia a
+      BINARY solo cuando todos los nodos corren una versión que sabe leerlo.
+     */
     @Bean
     public ReactiveRedisTemplate<String, TransactionResponseDto> reactiveRedisTemplate(
-            ReactiveRedisConnectionFactory factory) {
+            ReactiveRedisConnectionFactory factory,
+            @Value("${transaction.cache.serializer.format}") TransactionDtoRedisSerializer.Format format,
+            @Value("${transaction.cache.serializer.lz4-threshold-bytes}") int lz4Threshold) {
 
         var keySerializer = new StringRedisSerializer();
-        var valueSerializer = new Jackson2JsonRedisSerializer<>(TransactionResponseDto.class);
-
-        var mapper = new ObjectMapper();
-        valueSerializer.setObjectMapper(mapper);
+        var valueSerializer = new TransactionDtoRedisSerializer(format, lz4Threshold);
 
         var context = RedisSerializationContext.<String, TransactionResponseDto>newSerializationContext(keySerializer)
                 .value(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer))
@@ -29,4 +33,4 @@ public class ReactiveRedisConfig {
 
         return new ReactiveRedisTemplate<>(factory, context);
     }
-}
\ No newline at end of file
+}
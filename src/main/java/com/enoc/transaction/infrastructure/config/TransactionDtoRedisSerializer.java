@@ -0,0 +1,235 @@
+package com.enoc.transaction.infrastructure.config;
+
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import com.enoc.transaction.domain.model.enums.TransactionOrigin;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.dto.response.TransactionResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/*
+  Redis value serializer for TransactionResponseDto. It writes either the former JSON or a compact binary format, and
+  reads both, so a rolling deploy can switch the written format once every node runs this version. The binary format
+  starts with a header (magic byte, format version, flags) that JSON can never start with; the body is a presence
+  bitmap followed by the non-null fields in declaration order, and bodies of at least lz4Threshold bytes are
+  compressed with LZ4 when that makes them smaller.
+  Serializador de valores de Redis para TransactionResponseDto. Escribe el JSON de antes o un formato binario
+  compacto, y lee ambos, así un despliegue gradual puede cambiar el formato escrito cuando todos los nodos corran esta
+  versión. El formato binario empieza con una cabecera (byte mágico, versión del formato, banderas) con la que nunca
+  empieza un JSON; el cuerpo es un mapa de presencia seguido de los campos no nulos en orden de declaración, y los
+  cuerpos de al menos lz4Threshold bytes se comprimen con LZ4 cuando eso los achica.
+ */
+public final class TransactionDtoRedisSerializer implements RedisSerializer<TransactionResponseDto> {
+
+    public enum Format { JSON, BINARY }
+
+    private static final byte MAGIC = (byte) 0xB7;
+    private static final byte VERSION = 1;
+    private static final byte FLAG_LZ4 = 1;
+    private static final int HEADER_SIZE = 3;
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Format format;
+    private final int lz4Threshold;
+
+    public TransactionDtoRedisSerializer(Format format, int lz4Threshold) {
+        this.format = format;
+        this.lz4Threshold = lz4Threshold;
+    }
+
+    @Override
+    public byte[] serialize(TransactionResponseDto dto) {
+        if (dto == null) {
+            return new byte[0];
+        }
+        try {
+            return format == Format.JSON ? json.writeValueAsBytes(dto) : withHeader(writeBody(dto));
+        } catch (IOException ex) {
+            throw new SerializationException("No se pudo serializar la transacción " + dto.getId(), ex);
+        }
+    }
+
+    @Override
+    public TransactionResponseDto deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == MAGIC && (bytes.length < HEADER_SIZE || bytes[1] != VERSION)) {
+            throw new SerializationException("Versión de formato de caché no soportada: " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+        try {
+            if (bytes[0] != MAGIC) {
+                return json.readValue(bytes, TransactionResponseDto.class);
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE));
+            if ((bytes[2] & FLAG_LZ4) == 0) {
+                return readBody(in);
+            }
+            byte[] body = new byte[readVarInt(in)];
+            DECOMPRESSOR.decompress(bytes, bytes.length - in.available(), body, 0, body.length);
+            return readBody(new DataInputStream(new ByteArrayInputStream(body)));
+        } catch (IOException | RuntimeException ex) {
+            throw new SerializationException("No se pudo deserializar la transacción cacheada", ex);
+        }
+    }
+
+    private byte[] withHeader(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + 5 + body.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        if (body.length >= lz4Threshold) {
+            byte[] compressed = COMPRESSOR.compress(body);
+            if (compressed.length + 5 < body.length) {
+                out.writeByte(FLAG_LZ4);
+                writeVarInt(out, body.length);
+                out.write(compressed);
+                return bytes.toByteArray();
+            }
+        }
+        out.writeByte(0);
+        out.write(body);
+        return bytes.toByteArray();
+    }
+
+    // El orden de los campos es parte del formato: agregar o reordenar campos exige subir VERSION.
+    private static byte[] writeBody(TransactionResponseDto dto) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(192);
+        DataOutputStream out = new DataOutputStream(bytes);
+        Object[] nullable = {dto.getId(), dto.getDebtorDni(), dto.getPayerDni(), dto.getCustomerId(), dto.getProductId(),
+            dto.getAccountId(), dto.getOperationTypeId(), dto.getDestinationAccountId(), dto.getType(), dto.getOrigin(),
+            dto.getStatus(), dto.getState(), dto.getAmount(), dto.getCommissionApplied(), dto.getDate(),
+            dto.getEventDate(), dto.getDescription()};
+        int present = 0;
+        for (int i = 0; i < nullable.length; i++) {
+            if (nullable[i] != null) {
+                present |= 1 << i;
+            }
+        }
+        writeVarInt(out, present);
+        for (Object value : nullable) {
+            if (value instanceof String) {
+                writeString(out, (String) value);
+            } else if (value instanceof Enum) {
+                writeString(out, ((Enum<?>) value).name());
+            } else if (value instanceof BigDecimal) {
+                writeDecimal(out, (BigDecimal) value);
+            } else if (value instanceof OffsetDateTime) {
+                writeDateTime(out, (OffsetDateTime) value);
+            }
+        }
+        out.writeDouble(dto.getAverageBalance());
+        out.writeDouble(dto.getTotalAmount());
+        return bytes.toByteArray();
+    }
+
+    private static TransactionResponseDto readBody(DataInputStream in) throws IOException {
+        int present = readVarInt(in);
+        TransactionResponseDto dto = new TransactionResponseDto();
+        dto.setId(has(present, 0) ? readString(in) : null);
+        dto.setDebtorDni(has(present, 1) ? readString(in) : null);
+        dto.setPayerDni(has(present, 2) ? readString(in) : null);
+        dto.setCustomerId(has(present, 3) ? readString(in) : null);
+        dto.setProductId(has(present, 4) ? readString(in) : null);
+        dto.setAccountId(has(present, 5) ? readString(in) : null);
+        dto.setOperationTypeId(has(present, 6) ? readString(in) : null);
+        dto.setDestinationAccountId(has(present, 7) ? readString(in) : null);
+        dto.setType(has(present, 8) ? TransactionType.valueOf(readString(in)) : null);
+        dto.setOrigin(has(present, 9) ? TransactionOrigin.valueOf(readString(in)) : null);
+        dto.setStatus(has(present, 10) ? StatusEnum.valueOf(readString(in)) : null);
+        dto.setState(has(present, 11) ? TransactionState.valueOf(readString(in)) : null);
+        dto.setAmount(has(present, 12) ? readDecimal(in) : null);
+        dto.setCommissionApplied(has(present, 13) ? readDecimal(in) : null);
+        dto.setDate(has(present, 14) ? readDateTime(in) : null);
+        dto.setEventDate(has(present, 15) ? readDateTime(in) : null);
+        dto.setDescription(has(present, 16) ? readString(in) : null);
+        dto.setAverageBalance(in.readDouble());
+        dto.setTotalAmount(in.readDouble());
+        return dto;
+    }
+
+    private static boolean has(int present, int field) {
+        return (present & (1 << field)) != 0;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[readVarInt(in)];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // Escala en zigzag y el valor sin escala en complemento a dos: 100.50 ocupa 4 bytes en lugar de "100.50".
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        writeVarInt(out, (value.scale() << 1) ^ (value.scale() >> 31));
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarInt(out, unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int zigzag = readVarInt(in);
+        int scale = (zigzag >>> 1) ^ -(zigzag & 1);
+        byte[] unscaled = new byte[readVarInt(in)];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeDateTime(DataOutputStream out, OffsetDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond());
+        writeVarInt(out, value.getNano());
+        out.writeInt(value.getOffset().getTotalSeconds());
+    }
+
+    private static OffsetDateTime readDateTime(DataInputStream in) throws IOException {
+        long seconds = in.readLong();
+        int nanos = readVarInt(in);
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(in.readInt());
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), offset);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int next = in.readUnsignedByte();
+            value |= (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Entero variable demasiado largo");
+    }
+}
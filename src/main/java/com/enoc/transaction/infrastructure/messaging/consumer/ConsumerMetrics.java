@@ -0,0 +1,126 @@
+package com.enoc.transaction.infrastructure.messaging.consumer;
+
+import com.enoc.transaction.application.usecase.IsoTimestamps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.generic.GenericRecord;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+public class ConsumerMetrics {
+
+    // Registro sin backends: los medidores no publican nada (consumidores creados fuera de Spring).
+    public static final ConsumerMetrics NOOP = new ConsumerMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry registry;
+    private final Map<String, ConsumerMeters> meters = new ConcurrentHashMap<>();
+
+    public ConsumerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+
+    public ConsumerMeters forConsumer(String topic, String handler) {
+        return meters.computeIfAbsent(topic + '|' + handler,
+                key -> new ConsumerMeters(registry, Tags.of("topic", topic, "handler", handler)));
+    }
+
+    public static class ConsumerMeters {
+
+        private static final String TIMESTAMP_FIELD = "timestamp";
+
+        private final Counter records;
+        private final Counter failures;
+        private final Counter skipped;
+        private final Timer handlerLatency;
+        private final Timer endToEndLatency;
+        private final DistributionSummary batchSize;
+
+        ConsumerMeters(MeterRegistry registry, Tags tags) {
+            this.records = Counter.builder("transaction.consumer.records")
+                    .description("Registros procesados correctamente")
+                    .tags(tags)
+                    .register(registry);
+            this.failures = Counter.builder("transaction.consumer.failures")
+                    .description("Registros cuyo handler falló")
+                    .tags(tags)
+                    .register(registry);
+            this.skipped = Counter.builder("transaction.consumer.skipped")
+                    .description("Registros omitidos sin payload")
+                    .tags(tags)
+                    .register(registry);
+            this.handlerLatency = Timer.builder("transaction.consumer.handler.latency")
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .tags(tags)
+                    .register(registry);
+            this.endToEndLatency = Timer.builder("transaction.consumer.end-to-end.latency")
+                    .description("Desde el timestamp del evento hasta su persistencia")
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .tags(tags)
+                    .register(registry);
+            this.batchSize = DistributionSummary.builder("transaction.consumer.batch.size")
+                    .tags(tags)
+                    .register(registry);
+        }
+
+        /*
+          Times the handling of recordCount records and counts them as processed or failed.
+          Mide el procesamiento de recordCount registros y los cuenta como procesados o fallidos.
+         */
+        public <T> Mono<T> time(Mono<T> handling, int recordCount) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return handling
+                        .doOnSuccess(result -> {
+                            handlerLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            records.increment(recordCount);
+                        })
+                        .doOnError(ex -> {
+                            handlerLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            failures.increment(recordCount);
+                        });
+            });
+        }
+
+        public void batch(int size) {
+            batchSize.record(size);
+        }
+
+        public void skipped() {
+            skipped.increment();
+        }
+
+        /*
+          Records the end-to-end latency using the timestamp field every event schema carries.
+          Registra la latencia de punta a punta con el campo timestamp que tienen todos los esquemas de eventos.
+         */
+        public void persisted(Object event) {
+            if (!(event instanceof GenericRecord)) {
+                return;
+            }
+            GenericRecord record = (GenericRecord) event;
+            if (record.getSchema().getField(TIMESTAMP_FIELD) == null || record.get(TIMESTAMP_FIELD) == null) {
+                return;
+            }
+            try {
+                OffsetDateTime eventTime = IsoTimestamps.parse((CharSequence) record.get(TIMESTAMP_FIELD));
+                endToEndLatency.record(Duration.between(eventTime, OffsetDateTime.now()));
+            } catch (RuntimeException ex) {
+                // timestamp no ISO-8601: no se mide
+            }
+        }
+    }
+}
@@ -5,27 +5,42 @@ import com.enoc.transaction.events.CreditPaymentRequested;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class CreditPaymentConsumer {
+public class CreditPaymentConsumer extends ReactiveEventConsumer<CreditPaymentRequested> {
 
     private final CreditPaymentHandler handler;
 
-    @KafkaListener(topics = "${kafka.topics.credit-payment-requested}", groupId = "credit-consumer-group")
-    public void consume(ConsumerRecord<String, CreditPaymentRequested> record) {
-        CreditPaymentRequested event = record.value();
+    @Value("${kafka.topics.credit-payment-requested}")
+    private String topicName;
+
+    @Override
+    public String topic() {
+        return topicName;
+    }
+
+    @Override
+    public String handlerName() {
+        return CreditPaymentHandler.class.getSimpleName();
+    }
+
+    @Override
+    public String groupId() {
+        return "credit-consumer-group";
+    }
 
+    @Override
+    public Mono<Void> consume(ConsumerRecord<String, CreditPaymentRequested> record) {
+        CreditPaymentRequested event = record.value();
         log.info("Evento recibido: topic=credit.payment.requested | key={} | partition={} | offset={} | payload={}",
                 record.key(), record.partition(), record.offset(), event);
 
-        try {
-            handler.process(event);
-        } catch (Exception ex) {
-            log.error("❌ Error al procesar evento {}: {}", event.getPaymentId(), ex.getMessage());
-        }
+        return Mono.defer(() -> handler.process(event))
+                .doOnError(ex -> log.error("❌ Error al procesar evento {}: {}", event.getPaymentId(), ex.getMessage()));
     }
-}
\ No newline at end of file
+}
@@ -5,30 +5,42 @@ import com.enoc.transaction.events.DebitCardPaymentRequested;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class DebitCardPaymentConsumer {
+public class DebitCardPaymentConsumer extends ReactiveEventConsumer<DebitCardPaymentRequested> {
 
     private final DebitCardPaymentHandler handler;
 
-    @KafkaListener(
-            topics = "${kafka.topics.debit-card-payment-requested}",
-            groupId = "debit-card-consumer-group",
-            containerFactory = "kafkaListenerContainerFactory"
-    )
-    public void consume(ConsumerRecord<String, DebitCardPaymentRequested> record) {
+    @Value("${kafka.topics.debit-card-payment-requested}")
+    private String topicName;
+
+    @Override
+    public String topic() {
+        return topicName;
+    }
+
+    @Override
+    public String handlerName() {
+        return DebitCardPaymentHandler.class.getSimpleName();
+    }
+
+    @Override
+    public String groupId() {
+        return "debit-card-consumer-group";
+    }
+
+    @Override
+    public Mono<Void> consume(ConsumerRecord<String, DebitCardPaymentRequested> record) {
         DebitCardPaymentRequested event = record.value();
         log.info("Evento recibido: topic=debit.card.payment.requested | key={} | partition={} | offset={} | payload={}",
                 record.key(), record.partition(), record.offset(), event);
 
-        try {
-            handler.process(event);
-        } catch (Exception ex) {
-            log.error("❌ Error al procesar pago con tarjeta {}: {}", event.getPaymentId(), ex.getMessage());
-        }
+        return Mono.defer(() -> handler.process(event))
+                .doOnError(ex -> log.error("❌ Error al procesar pago con tarjeta {}: {}", event.getPaymentId(), ex.getMessage()));
     }
-}
\ No newline at end of file
+}
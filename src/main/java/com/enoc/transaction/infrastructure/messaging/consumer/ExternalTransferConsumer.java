@@ -5,30 +5,42 @@ import com.enoc.transaction.events.ExternalTransferRequested;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class ExternalTransferConsumer {
+public class ExternalTransferConsumer extends ReactiveEventConsumer<ExternalTransferRequested> {
 
     private final ExternalTransferHandler handler;
 
-    @KafkaListener(
-            topics = "${kafka.topics.external-transfer-requested}",
-            groupId = "external-transfer-consumer-group",
-            containerFactory = "kafkaListenerContainerFactory"
-    )
-    public void consume(ConsumerRecord<String, ExternalTransferRequested> record) {
+    @Value("${kafka.topics.external-transfer-requested}")
+    private String topicName;
+
+    @Override
+    public String topic() {
+        return topicName;
+    }
+
+    @Override
+    public String handlerName() {
+        return ExternalTransferHandler.class.getSimpleName();
+    }
+
+    @Override
+    public String groupId() {
+        return "external-transfer-consumer-group";
+    }
+
+    @Override
+    public Mono<Void> consume(ConsumerRecord<String, ExternalTransferRequested> record) {
         ExternalTransferRequested event = record.value();
         log.info("Evento recibido: topic=external.transfer.requested | key={} | partition={} | offset={} | payload={}",
                 record.key(), record.partition(), record.offset(), event);
 
-        try {
-            handler.process(event);
-        } catch (Exception ex) {
-            log.error("❌ Error al procesar transferencia externa {}: {}", event.getTransferId(), ex.getMessage());
-        }
+        return Mono.defer(() -> handler.process(event))
+                .doOnError(ex -> log.error("❌ Error al procesar transferencia externa {}: {}", event.getTransferId(), ex.getMessage()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package com.enoc.transaction.infrastructure.messaging.consumer;
+
+import com.enoc.transaction.infrastructure.messaging.retry.RetryTopicRouter;
+import io.micrometer.core.instrument.Tag;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.MicrometerConsumerListener;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaIngestionEngine implements SmartLifecycle {
+
+    // groupBy exige suscribir todos sus grupos: con menos concurrencia que particiones asignadas el receptor se traba.
+    private static final int ALL_PARTITIONS = Integer.MAX_VALUE;
+
+    private final KafkaProperties kafkaProperties;
+    private final List<ReactiveEventConsumer<?>> consumers;
+    private final RetryTopicRouter retryTopicRouter;
+    private final ConsumerMetrics consumerMetrics;
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    @Value("${kafka.consumer.reactive.key-ordered-lanes}")
+    private int keyOrderedLanes;
+
+    @Value("${kafka.consumer.reactive.max-deferred-commits}")
+    private int maxDeferredCommits;
+
+    @Value("${kafka.consumer.reactive.commit-interval-ms}")
+    private long commitIntervalMs;
+
+    @Value("${kafka.consumer.reactive.commit-batch-size}")
+    private int commitBatchSize;
+
+    private volatile boolean running;
+
+    /*
+      Starts one KafkaReceiver per topic. Every assigned partition runs concurrently and the records of each partition
+      are processed in order; demand only flows back to the poll loop as handlers complete, so a slow Mongo pauses
+      fetching instead of buffering records on the heap. With key-ordered-lanes > 1 each partition is further split
+      into key-ordered lanes and out-of-order acknowledgements are enabled.
+      Inicia un KafkaReceiver por tópico. Todas las particiones asignadas se procesan en paralelo y los registros de
+      cada partición en orden; la demanda vuelve al poll solo cuando los handlers terminan, así un Mongo lento pausa
+      la lectura en lugar de acumular registros en memoria. Con key-ordered-lanes > 1 cada partición se divide además
+      en carriles ordenados por clave y se habilitan las confirmaciones en desorden.
+     */
+    @Override
+    public void start() {
+        for (ReactiveEventConsumer<?> consumer : consumers) {
+            subscriptions.add(subscribe(consumer));
+            subscriptions.add(subscribeRetries(consumer));
+        }
+        running = true;
+    }
+
+    private <V> Disposable subscribe(ReactiveEventConsumer<V> consumer) {
+        ReceiverOptions<String, V> options = receiverOptions(consumer, consumer.groupId(), List.of(consumer.topic()))
+                .maxDeferredCommits(keyOrderedLanes > 1 ? maxDeferredCommits : 0);
+
+        return receive(options)
+                .groupBy(record -> record.receiverOffset().topicPartition())
+                .flatMap(partition -> consumer.processPartition(partition, keyOrderedLanes), ALL_PARTITIONS)
+                .doOnError(ex -> log.error("Receptor detenido: topic={} | {}", consumer.topic(), ex.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    /*
+      Retry topics are consumed by a separate group: each record waits for its due time (only its retry partition
+      waits) and is then handled again; a new failure moves it to the next retry topic or to the DLT.
+      Los tópicos de reintento se consumen con un grupo aparte: cada registro espera su vencimiento (solo espera su
+      partición de reintento) y se procesa de nuevo; un nuevo fallo lo mueve al siguiente reintento o al DLT.
+     */
+    private <V> Disposable subscribeRetries(ReactiveEventConsumer<V> consumer) {
+        List<String> retryTopics = retryTopicRouter.retryTopics(consumer.topic());
+        ReceiverOptions<String, V> options = receiverOptions(consumer, consumer.groupId() + "-retry", retryTopics);
+
+        return receive(options)
+                .groupBy(record -> record.receiverOffset().topicPartition())
+                .flatMap(partition -> partition.concatMap(record -> retryTopicRouter.awaitDue(record)
+                        .then(consumer.handle(record))
+                        .then(Mono.fromRunnable(record.receiverOffset()::acknowledge))), ALL_PARTITIONS)
+                .doOnError(ex -> log.error("Receptor de reintentos detenido: topics={} | {}", retryTopics, ex.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    protected <V> Flux<ReceiverRecord<String, V>> receive(ReceiverOptions<String, V> options) {
+        return KafkaReceiver.create(options).receive();
+    }
+
+    private <V> ReceiverOptions<String, V> receiverOptions(ReactiveEventConsumer<V> consumer, String groupId,
+                                                          List<String> topics) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties();
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.putAll(consumer.consumerProperties());
+
+        // Métricas del cliente Kafka (records-lag por partición, fetch-rate, ...) etiquetadas por handler
+        MicrometerConsumerListener metricsListener = new MicrometerConsumerListener(consumerMetrics.registry(),
+                List.of(Tag.of("handler", consumer.handlerName()), Tag.of("group", groupId)));
+
+        return ReceiverOptions.<String, V>create(props)
+                .commitInterval(Duration.ofMillis(commitIntervalMs))
+                .commitBatchSize(commitBatchSize)
+                .consumerListener(metricsListener)
+                .addAssignListener(partitions -> log.info("Particiones asignadas: topics={} | {}", topics, partitions))
+                .subscription(topics);
+    }
+
+    @Override
+    public void stop() {
+        subscriptions.forEach(Disposable::dispose);
+        subscriptions.clear();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
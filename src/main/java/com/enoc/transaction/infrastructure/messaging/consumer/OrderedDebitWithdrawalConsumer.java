@@ -5,30 +5,42 @@ import com.enoc.transaction.events.OrderedDebitWithdrawalRequested;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class OrderedDebitWithdrawalConsumer {
+public class OrderedDebitWithdrawalConsumer extends ReactiveEventConsumer<OrderedDebitWithdrawalRequested> {
 
     private final OrderedDebitWithdrawalHandler handler;
 
-    @KafkaListener(
-            topics = "${kafka.topics.ordered-debit-withdrawal-requested}",
-            groupId = "ordered-debit-consumer-group",
-            containerFactory = "kafkaListenerContainerFactory"
-    )
-    public void consume(ConsumerRecord<String, OrderedDebitWithdrawalRequested> record) {
+    @Value("${kafka.topics.ordered-debit-withdrawal-requested}")
+    private String topicName;
+
+    @Override
+    public String topic() {
+        return topicName;
+    }
+
+    @Override
+    public String handlerName() {
+        return OrderedDebitWithdrawalHandler.class.getSimpleName();
+    }
+
+    @Override
+    public String groupId() {
+        return "ordered-debit-consumer-group";
+    }
+
+    @Override
+    public Mono<Void> consume(ConsumerRecord<String, OrderedDebitWithdrawalRequested> record) {
         OrderedDebitWithdrawalRequested event = record.value();
         log.info("Evento recibido: topic=ordered.debit.withdrawal.requested | key={} | partition={} | offset={} | payload={}",
                 record.key(), record.partition(), record.offset(), event);
 
-        try {
-            handler.process(event);
-        } catch (Exception ex) {
-            log.error("❌ Error al procesar retiro programado {}: {}", event.getWithdrawalId(), ex.getMessage());
-        }
+        return Mono.defer(() -> handler.process(event))
+                .doOnError(ex -> log.error("❌ Error al procesar retiro programado {}: {}", event.getWithdrawalId(), ex.getMessage()));
     }
-}
\ No newline at end of file
+}
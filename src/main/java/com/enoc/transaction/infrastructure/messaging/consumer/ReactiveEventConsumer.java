@@ -0,0 +1,123 @@
+package com.enoc.transaction.infrastructure.messaging.consumer;
+
+import com.enoc.transaction.infrastructure.messaging.consumer.ConsumerMetrics.ConsumerMeters;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverRecord;
+
+@Slf4j
+public abstract class ReactiveEventConsumer<V> {
+
+    private RecordFailureHandler failureHandler = RecordFailureHandler.SKIP;
+    private ConsumerMetrics metrics = ConsumerMetrics.NOOP;
+    private volatile ConsumerMeters meters;
+
+    @Autowired
+    public void setFailureHandler(RecordFailureHandler failureHandler) {
+        this.failureHandler = failureHandler;
+    }
+
+    @Autowired
+    public void setMetrics(ConsumerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public abstract String topic();
+
+    public abstract String groupId();
+
+    /*
+      Use-case handler class, used to tag the consumer metrics.
+      Clase del handler de caso de uso, usada como etiqueta de las métricas del consumidor.
+     */
+    public abstract String handlerName();
+
+    protected ConsumerMeters meters() {
+        if (meters == null) {
+            meters = metrics.forConsumer(topic(), handlerName());
+        }
+        return meters;
+    }
+
+    /*
+      Meters of the topic a record was read from: the main topic, or the retry topic the engine re-drives it from.
+      Medidores del tópico del que se leyó un registro: el principal, o el tópico de reintento desde el que el motor
+      lo vuelve a procesar.
+     */
+    protected ConsumerMeters meters(String recordTopic) {
+        return topic().equals(recordTopic) ? meters() : metrics.forConsumer(recordTopic, handlerName());
+    }
+
+    /*
+      Handles one record; the returned Mono must complete only once the event is persisted.
+      Procesa un registro; el Mono devuelto debe completar solo cuando el evento está persistido.
+     */
+    public abstract Mono<Void> consume(ConsumerRecord<String, V> record);
+
+    /*
+      Runs the handler and hands failures to the failure handler (retry topics / DLT), so a failing record never
+      blocks its partition. Records without payload (undeserializable) are skipped and counted apart.
+      Ejecuta el handler y entrega los fallos al failure handler (tópicos de reintento / DLT), así un registro que
+      falla nunca bloquea su partición. Los registros sin payload (no deserializables) se omiten y se cuentan aparte.
+     */
+    public Mono<Void> handle(ConsumerRecord<String, V> record) {
+        ConsumerMeters meters = meters(record.topic());
+        if (record.value() == null) {
+            meters.skipped();
+            log.warn("Registro sin payload omitido: topic={} | partition={} | offset={}",
+                    record.topic(), record.partition(), record.offset());
+            return Mono.empty();
+        }
+        return meters.time(Mono.defer(() -> consume(record)), 1)
+                .doOnSuccess(ignored -> meters.persisted(record.value()))
+                .onErrorResume(ex -> onFailure(record, ex));
+    }
+
+    protected Mono<Void> onFailure(ConsumerRecord<String, V> record, Throwable error) {
+        return failureHandler.onFailure(record, topic(), error);
+    }
+
+    /*
+      Consumer properties that override the shared spring.kafka.consumer configuration for this topic.
+      Propiedades del consumidor que sobrescriben la configuración compartida spring.kafka.consumer para este tópico.
+     */
+    public Map<String, Object> consumerProperties() {
+        return Map.of();
+    }
+
+    /*
+      Processes the records of one partition. With more than one lane, records are spread across lanes by message key:
+      each lane runs in order, lanes run concurrently, so records with the same key keep their partition order.
+      Offsets may then complete out of order; the receiver only commits the highest contiguous acknowledged offset.
+      Procesa los registros de una partición. Con más de un carril los registros se reparten por clave del mensaje:
+      cada carril es secuencial y los carriles corren en paralelo, así los registros con la misma clave mantienen el
+      orden de la partición. Los offsets pueden completarse en desorden; el receptor solo confirma el mayor offset
+      contiguo reconocido.
+     */
+    public Flux<Void> processPartition(Flux<ReceiverRecord<String, V>> partition, int lanes) {
+        if (lanes <= 1) {
+            return processLane(partition);
+        }
+        return partition
+                .groupBy(record -> laneOf(record, lanes))
+                .flatMap(this::processLane, lanes);
+    }
+
+    /*
+      Processes one lane in order and acknowledges each offset after its handler completes.
+      Procesa un carril en orden y confirma cada offset cuando su handler termina.
+     */
+    protected Flux<Void> processLane(Flux<ReceiverRecord<String, V>> lane) {
+        return lane.concatMap(record -> handle(record)
+                .then(Mono.fromRunnable(record.receiverOffset()::acknowledge)));
+    }
+
+    static int laneOf(ConsumerRecord<String, ?> record, int lanes) {
+        int hash = record.key() != null ? record.key().hashCode() : Long.hashCode(record.offset());
+        return Math.floorMod(hash, lanes);
+    }
+}
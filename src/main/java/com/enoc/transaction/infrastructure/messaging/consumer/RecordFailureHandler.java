@@ -0,0 +1,18 @@
+package com.enoc.transaction.infrastructure.messaging.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import reactor.core.publisher.Mono;
+
+@FunctionalInterface
+public interface RecordFailureHandler {
+
+    // Default behaviour: the error was already logged by the consumer, the record is skipped.
+    // Comportamiento por defecto: el consumidor ya registró el error y el registro se omite.
+    RecordFailureHandler SKIP = (record, mainTopic, error) -> Mono.empty();
+
+    /*
+      Called when the handler of a record fails; the record offset is acknowledged once the returned Mono completes.
+      Se invoca cuando falla el handler de un registro; el offset se confirma cuando el Mono devuelto termina.
+     */
+    Mono<Void> onFailure(ConsumerRecord<String, ?> record, String mainTopic, Throwable error);
+}
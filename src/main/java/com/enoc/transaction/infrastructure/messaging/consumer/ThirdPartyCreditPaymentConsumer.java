@@ -5,30 +5,42 @@ import com.enoc.transaction.events.ThirdPartyCreditPaymentRequested;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class ThirdPartyCreditPaymentConsumer {
+public class ThirdPartyCreditPaymentConsumer extends ReactiveEventConsumer<ThirdPartyCreditPaymentRequested> {
 
     private final ThirdPartyCreditPaymentHandler handler;
 
-    @KafkaListener(
-            topics = "${kafka.topics.third-party-credit-payment-requested}",
-            groupId = "third-party-credit-consumer-group",
-            containerFactory = "kafkaListenerContainerFactory"
-    )
-    public void consume(ConsumerRecord<String, ThirdPartyCreditPaymentRequested> record) {
+    @Value("${kafka.topics.third-party-credit-payment-requested}")
+    private String topicName;
+
+    @Override
+    public String topic() {
+        return topicName;
+    }
+
+    @Override
+    public String handlerName() {
+        return ThirdPartyCreditPaymentHandler.class.getSimpleName();
+    }
+
+    @Override
+    public String groupId() {
+        return "third-party-credit-consumer-group";
+    }
+
+    @Override
+    public Mono<Void> consume(ConsumerRecord<String, ThirdPartyCreditPaymentRequested> record) {
         ThirdPartyCreditPaymentRequested event = record.value();
         log.info("Evento recibido: topic=third.party.credit.payment.requested | key={} | partition={} | offset={} | payload={}",
                 record.key(), record.partition(), record.offset(), event);
 
-        try {
-            handler.process(event);
-        } catch (Exception ex) {
-            log.error("❌ Error al procesar pago de tercero {}: {}", event.getPaymentId(), ex.getMessage());
-        }
+        return Mono.defer(() -> handler.process(event))
+                .doOnError(ex -> log.error("❌ Error al procesar pago de tercero {}: {}", event.getPaymentId(), ex.getMessage()));
     }
-}
\ No newline at end of file
+}
@@ -2,33 +2,119 @@ package com.enoc.transaction.infrastructure.messaging.consumer;
 
 import com.enoc.transaction.application.usecase.TransactionCreatedHandler;
 import com.enoc.transaction.events.TransactionCreated;
+import com.enoc.transaction.infrastructure.messaging.consumer.ConsumerMetrics.ConsumerMeters;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverRecord;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class TransactionCreatedConsumer {
+public class TransactionCreatedConsumer extends ReactiveEventConsumer<TransactionCreated> {
 
     private final TransactionCreatedHandler handler;
 
-    @KafkaListener(
-            topics = "${kafka.topics.transaction-created}",
-            groupId = "transaction-created-consumer-group",
-            containerFactory = "kafkaListenerContainerFactory"
-    )
-    public void consume(ConsumerRecord<String, TransactionCreated> record) {
-        TransactionCreated event = record.value();
-        log.info("Evento recibido: topic=transaction.created | key={} | partition={} | offset={} | payload={}",
-                record.key(), record.partition(), record.offset(), event);
-
-        try {
-            handler.process(event); // delega al caso de uso
-        } catch (Exception ex) {
-            log.error("Error al procesar evento {}: {}", event.getTransactionId(), ex.getMessage());
+    @Value("${kafka.topics.transaction-created}")
+    private String topicName;
+
+    @Value("${kafka.consumer.batch.max-records}")
+    private int batchMaxRecords;
+
+    @Value("${kafka.consumer.batch.max-wait-ms}")
+    private int batchMaxWaitMs;
+
+    @Value("${kafka.consumer.batch.min-bytes}")
+    private int batchMinBytes;
+
+    @Value("${kafka.consumer.batch.write-timeout-ms}")
+    private long writeTimeoutMs;
+
+    @Override
+    public String topic() {
+        return topicName;
+    }
+
+    @Override
+    public String handlerName() {
+        return TransactionCreatedHandler.class.getSimpleName();
+    }
+
+    @Override
+    public String groupId() {
+        return "transaction-created-consumer-group";
+    }
+
+    @Override
+    public Map<String, Object> consumerProperties() {
+        return Map.of(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxRecords,
+                ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchMaxWaitMs,
+                ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchMinBytes);
+    }
+
+    @Override
+    public Mono<Void> consume(ConsumerRecord<String, TransactionCreated> record) {
+        return consumeBatch(List.of(record));
+    }
+
+    /*
+      Batch mode: records of each lane are grouped (max-records or max-wait, whichever comes first) and the offsets
+      of the batch are acknowledged only after Mongo confirms the bulk insert. If the write fails, every record of
+      the batch is parked in the retry topics before its offset is acknowledged. The windows honour backpressure
+      (bufferTimeout fails when max-wait closes a batch while the previous write is still running), so a slow Mongo
+      still pauses the poll loop.
+      Modo por lotes: los registros de cada carril se agrupan (max-records o max-wait, lo que ocurra primero) y los
+      offsets del lote se confirman solo cuando Mongo acepta la inserción masiva. Si la escritura falla, cada
+      registro del lote se deriva a los tópicos de reintento antes de confirmar su offset. Las ventanas respetan la
+      contrapresión (bufferTimeout falla si max-wait cierra un lote mientras la escritura anterior sigue en curso),
+      así un Mongo lento sigue pausando el poll.
+     */
+    @Override
+    protected Flux<Void> processLane(Flux<ReceiverRecord<String, TransactionCreated>> lane) {
+        return lane
+                .windowTimeout(batchMaxRecords, Duration.ofMillis(batchMaxWaitMs), true)
+                .concatMap(window -> window.collectList()
+                        .filter(records -> !records.isEmpty())
+                        .flatMap(this::processBatch));
+    }
+
+    private Mono<Void> processBatch(List<ReceiverRecord<String, TransactionCreated>> records) {
+        ConsumerMeters meters = meters(records.get(0).topic());
+        return meters.time(Mono.defer(() -> consumeBatch(records)), records.size())
+                .doOnSuccess(ignored -> records.forEach(record -> meters.persisted(record.value())))
+                .onErrorResume(ex -> Flux.fromIterable(records)
+                        .concatMap(record -> onFailure(record, ex))
+                        .then())
+                .then(Mono.fromRunnable(() -> records.forEach(record -> record.receiverOffset().acknowledge())));
+    }
+
+    private Mono<Void> consumeBatch(List<? extends ConsumerRecord<String, TransactionCreated>> records) {
+        ConsumerMeters meters = meters(records.get(0).topic());
+        meters.batch(records.size());
+        log.info("Lote recibido: topic={} | registros={} | partition={} | offsets={}..{}", records.get(0).topic(),
+                records.size(), records.get(0).partition(), records.get(0).offset(), records.get(records.size() - 1).offset());
+
+        List<TransactionCreated> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, TransactionCreated> record : records) {
+            if (record.value() != null) {
+                events.add(record.value());
+            } else {
+                meters.skipped();
+            }
         }
+
+        return handler.processBatch(events) // delega al caso de uso
+                .timeout(Duration.ofMillis(writeTimeoutMs))
+                .then();
     }
 }
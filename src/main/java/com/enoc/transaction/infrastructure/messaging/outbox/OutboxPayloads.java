@@ -0,0 +1,54 @@
+package com.enoc.transaction.infrastructure.messaging.outbox;
+
+import com.enoc.transaction.events.ExternalTransferRequested;
+import com.enoc.transaction.events.TransactionCreated;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+
+public final class OutboxPayloads {
+
+    // Esquemas de los eventos que pasan por el outbox, por nombre completo.
+    private static final Map<String, Schema> SCHEMAS = Stream.of(
+                    TransactionCreated.getClassSchema(),
+                    ExternalTransferRequested.getClassSchema())
+            .collect(Collectors.toUnmodifiableMap(Schema::getFullName, Function.identity()));
+
+    private OutboxPayloads() {
+    }
+
+    public static byte[] encode(SpecificRecord event) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            new SpecificDatumWriter<SpecificRecord>(event.getSchema()).write(event, encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo serializar el evento " + event.getSchema().getFullName(), ex);
+        }
+    }
+
+    public static SpecificRecord decode(String eventType, byte[] payload) {
+        Schema schema = SCHEMAS.get(eventType);
+        if (schema == null) {
+            throw new IllegalArgumentException("Tipo de evento no registrado en el outbox: " + eventType);
+        }
+        try {
+            return new SpecificDatumReader<SpecificRecord>(schema).read(null, DecoderFactory.get().binaryDecoder(payload, null));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo deserializar el evento " + eventType, ex);
+        }
+    }
+}
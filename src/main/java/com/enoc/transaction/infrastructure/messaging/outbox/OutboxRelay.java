@@ -0,0 +1,237 @@
+package com.enoc.transaction.infrastructure.messaging.outbox;
+
+import com.enoc.transaction.domain.model.OutboxEvent;
+import com.enoc.transaction.domain.model.enums.OutboxStatus;
+import com.enoc.transaction.infrastructure.messaging.producer.ReactiveEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.SenderRecord;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Component
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveEventPublisher publisher;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${kafka.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${kafka.outbox.poll-interval-ms}")
+    private long pollIntervalMs;
+
+    @Value("${kafka.outbox.lease-ms}")
+    private long leaseMs;
+
+    @Value("${kafka.outbox.retry-backoff-ms}")
+    private long retryBackoffMs;
+
+    private volatile Disposable subscription;
+
+    public OutboxRelay(ReactiveMongoTemplate mongoTemplate, ReactiveEventPublisher publisher, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.publisher = publisher;
+        this.publishedCounter = meterRegistry.counter("transaction.outbox.events", "result", "published");
+        this.failedCounter = meterRegistry.counter("transaction.outbox.events", "result", "failed");
+        this.rejectedCounter = meterRegistry.counter("transaction.outbox.events", "result", "rejected");
+    }
+
+    /*
+      Polls the outbox in _id (insertion) order. A full batch is followed immediately by the next one; otherwise the
+      relay waits poll-interval-ms. Errors never stop the loop.
+      Consulta el outbox en orden de _id (inserción). Tras un lote completo sigue de inmediato con el siguiente; si no,
+      espera poll-interval-ms. Los errores nunca detienen el ciclo.
+     */
+    @Override
+    public void start() {
+        subscription = Mono.defer(this::relayBatch)
+                .onErrorResume(ex -> {
+                    log.error("Error en el relay del outbox: {}", ex.getMessage());
+                    return Mono.just(0);
+                })
+                .flatMap(relayed -> relayed >= batchSize
+                        ? Mono.just(relayed)
+                        : Mono.delay(Duration.ofMillis(pollIntervalMs)).thenReturn(relayed))
+                .repeat()
+                .subscribe();
+    }
+
+    /*
+      Claims up to batch-size pending events with a lease (so several instances can run the relay), publishes them
+      as one batch and marks the ones Kafka acknowledged as published; failed events are retried after
+      retry-backoff-ms. Keys that still have a leased or postponed pending event are skipped, so a newer event of the
+      key is never claimed ahead of an older one waiting for its retry.
+      Reclama hasta batch-size eventos pendientes con un lease (así varias instancias pueden ejecutar el relay), los
+      publica en un solo lote y marca como publicados los que Kafka confirmó; los fallidos se reintentan tras
+      retry-backoff-ms. Se omiten las claves que aún tienen un evento pendiente con lease o pospuesto, así nunca se
+      reclama un evento nuevo de la clave antes que uno anterior que espera su reintento.
+     */
+    Mono<Integer> relayBatch() {
+        OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        OffsetDateTime leaseUntil = now.plus(Duration.ofMillis(leaseMs));
+
+        return mongoTemplate.findDistinct(query(where("status").is(OutboxStatus.PENDING).and("leaseUntil").gte(now)),
+                        "messageKey", OutboxEvent.class, String.class)
+                .collectList()
+                .flatMapMany(blockedKeys -> {
+                    Query candidates = query(claimable(now).and("messageKey").nin(blockedKeys)).with(Sort.by("id")).limit(batchSize);
+                    candidates.fields().include("id");
+                    return mongoTemplate.find(candidates, OutboxEvent.class);
+                })
+                .map(OutboxEvent::getId)
+                .collectList()
+                .filter(ids -> !ids.isEmpty())
+                .flatMap(ids -> mongoTemplate.updateMulti(query(where("id").in(ids).andOperator(claimable(now))),
+                                new Update().set("leaseOwner", owner).set("leaseUntil", leaseUntil), OutboxEvent.class)
+                        .thenMany(mongoTemplate.find(query(where("id").in(ids)
+                                        .and("leaseOwner").is(owner)
+                                        .and("leaseUntil").is(leaseUntil)).with(Sort.by("id")), OutboxEvent.class))
+                        .collectList())
+                .filter(claimed -> !claimed.isEmpty())
+                .flatMap(this::publish)
+                .defaultIfEmpty(0);
+    }
+
+    private Mono<Integer> publish(List<OutboxEvent> events) {
+        Set<String> rejected = ConcurrentHashMap.newKeySet();
+        Flux<SenderRecord<String, Object, OutboxEvent>> records = Flux.fromIterable(events)
+                .concatMap(event -> Mono.fromCallable(() -> SenderRecord.<String, Object, OutboxEvent>create(
+                                new ProducerRecord<>(event.getTopic(), event.getMessageKey(),
+                                        OutboxPayloads.decode(event.getEventType(), event.getPayload())), event))
+                        .onErrorResume(ex -> {
+                            log.error("Evento del outbox no decodificable {}: {}", event.getId(), ex.getMessage());
+                            rejected.add(event.getId());
+                            return Mono.empty();
+                        }));
+
+        return publisher.sendBatch(records)
+                .doOnNext(result -> {
+                    if (result.exception() != null) {
+                        log.error("Error al publicar desde el outbox: {} | topic={} | {}", result.correlationMetadata().getId(),
+                                result.correlationMetadata().getTopic(), result.exception().getMessage());
+                    }
+                })
+                .filter(result -> result.exception() == null)
+                .map(result -> result.correlationMetadata().getId())
+                .collect(Collectors.toSet())
+                .flatMap(acknowledged -> {
+                    Set<String> published = inKeyOrder(events, acknowledged, rejected);
+                    Set<String> failed = events.stream()
+                            .map(OutboxEvent::getId)
+                            .filter(id -> !published.contains(id) && !rejected.contains(id))
+                            .collect(Collectors.toSet());
+                    publishedCounter.increment(published.size());
+                    failedCounter.increment(failed.size());
+                    rejectedCounter.increment(rejected.size());
+                    return markPublished(published)
+                            .then(markRejected(rejected))
+                            .then(postpone(failed))
+                            .thenReturn(events.size());
+                });
+    }
+
+    /*
+      An event only counts as published when every earlier event with its key was acknowledged too; the rest of the
+      key is sent again later, keeping per-key order at the cost of duplicates the consumers already discard. A
+      rejected (undecodable) event will never be sent, so it does not hold its key back.
+      Un evento solo cuenta como publicado si todos los anteriores de su clave también fueron confirmados; el resto de
+      la clave se reenvía después, conservando el orden por clave a costa de duplicados que los consumidores ya
+      descartan. Un evento rechazado (no decodificable) nunca se enviará, así que no retiene a su clave.
+     */
+    private static Set<String> inKeyOrder(List<OutboxEvent> events, Set<String> acknowledged, Set<String> rejected) {
+        Set<String> blockedKeys = new HashSet<>();
+        Set<String> published = new HashSet<>();
+        for (OutboxEvent event : events) {
+            if (rejected.contains(event.getId())) {
+                continue;
+            }
+            if (!blockedKeys.contains(event.getMessageKey()) && acknowledged.contains(event.getId())) {
+                published.add(event.getId());
+            } else {
+                blockedKeys.add(event.getMessageKey());
+            }
+        }
+        return published;
+    }
+
+    private Mono<Void> markPublished(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.updateMulti(query(where("id").in(ids)),
+                        new Update().set("status", OutboxStatus.PUBLISHED)
+                                .set("publishedAt", OffsetDateTime.now())
+                                .unset("leaseOwner")
+                                .unset("leaseUntil"),
+                        OutboxEvent.class)
+                .then();
+    }
+
+    private Mono<Void> markRejected(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.updateMulti(query(where("id").in(ids)),
+                        new Update().set("status", OutboxStatus.FAILED)
+                                .unset("leaseOwner")
+                                .unset("leaseUntil"),
+                        OutboxEvent.class)
+                .then();
+    }
+
+    private Mono<Void> postpone(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.updateMulti(query(where("id").in(ids)),
+                        new Update().set("leaseUntil", OffsetDateTime.now().plus(Duration.ofMillis(retryBackoffMs))),
+                        OutboxEvent.class)
+                .then();
+    }
+
+    private static Criteria claimable(OffsetDateTime now) {
+        return where("status").is(OutboxStatus.PENDING)
+                .orOperator(where("leaseUntil").is(null), where("leaseUntil").lt(now));
+    }
+
+    @Override
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+}
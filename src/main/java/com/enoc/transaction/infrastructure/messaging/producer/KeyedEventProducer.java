@@ -0,0 +1,86 @@
+package com.enoc.transaction.infrastructure.messaging.producer;
+
+import com.enoc.transaction.events.CreditPaymentRequested;
+import com.enoc.transaction.events.DebitCardPaymentRequested;
+import com.enoc.transaction.events.ExternalTransferRequested;
+import com.enoc.transaction.events.OrderedDebitWithdrawalRequested;
+import com.enoc.transaction.events.ThirdPartyCreditPaymentRequested;
+import com.enoc.transaction.events.TransactionCreated;
+import java.util.Map;
+import java.util.function.Function;
+import org.apache.avro.specific.SpecificRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class KeyedEventProducer {
+
+    private final Map<Class<?>, Route<?>> routes;
+
+    /*
+      One route per event type: its topic and the partition key. Events are keyed by the account (or product) they
+      affect, so every event of an account lands in the same partition and keeps its order; the event id is only the
+      fallback when that field is missing.
+      Una ruta por tipo de evento: su tópico y la clave de partición. Los eventos se particionan por la cuenta (o
+      producto) que afectan, así todos los eventos de una cuenta caen en la misma partición y conservan su orden; el
+      id del evento es solo el respaldo cuando falta ese campo.
+     */
+    public KeyedEventProducer(@Value("${kafka.topics.transaction-created}") String transactionCreatedTopic,
+                              @Value("${kafka.topics.external-transfer-requested}") String externalTransferTopic,
+                              @Value("${kafka.topics.credit-payment-requested}") String creditPaymentTopic,
+                              @Value("${kafka.topics.debit-card-payment-requested}") String debitCardPaymentTopic,
+                              @Value("${kafka.topics.ordered-debit-withdrawal-requested}") String orderedDebitWithdrawalTopic,
+                              @Value("${kafka.topics.third-party-credit-payment-requested}") String thirdPartyCreditPaymentTopic) {
+        this.routes = Map.of(
+                TransactionCreated.class, new Route<>(transactionCreatedTopic,
+                        TransactionCreated::getAccountId, TransactionCreated::getTransactionId),
+                ExternalTransferRequested.class, new Route<>(externalTransferTopic,
+                        ExternalTransferRequested::getOriginAccountId, ExternalTransferRequested::getTransferId),
+                CreditPaymentRequested.class, new Route<>(creditPaymentTopic,
+                        CreditPaymentRequested::getCreditProductId, CreditPaymentRequested::getPaymentId),
+                DebitCardPaymentRequested.class, new Route<>(debitCardPaymentTopic,
+                        DebitCardPaymentRequested::getCardNumber, DebitCardPaymentRequested::getPaymentId),
+                OrderedDebitWithdrawalRequested.class, new Route<>(orderedDebitWithdrawalTopic,
+                        OrderedDebitWithdrawalRequested::getAccountId, OrderedDebitWithdrawalRequested::getWithdrawalId),
+                ThirdPartyCreditPaymentRequested.class, new Route<>(thirdPartyCreditPaymentTopic,
+                        ThirdPartyCreditPaymentRequested::getThirdPartyProductId, ThirdPartyCreditPaymentRequested::getPaymentId));
+    }
+
+    public String topicOf(SpecificRecord event) {
+        return route(event).topic;
+    }
+
+    public String keyOf(SpecificRecord event) {
+        return route(event).keyOf(event);
+    }
+
+    private Route<?> route(SpecificRecord event) {
+        Route<?> route = routes.get(event.getClass());
+        if (route == null) {
+            throw new IllegalArgumentException("Tipo de evento sin ruta de publicación: " + event.getSchema().getFullName());
+        }
+        return route;
+    }
+
+    private static final class Route<E> {
+
+        private final String topic;
+        private final Function<E, CharSequence> affinityKey;
+        private final Function<E, CharSequence> fallbackKey;
+
+        private Route(String topic, Function<E, CharSequence> affinityKey, Function<E, CharSequence> fallbackKey) {
+            this.topic = topic;
+            this.affinityKey = affinityKey;
+            this.fallbackKey = fallbackKey;
+        }
+
+        @SuppressWarnings("unchecked")
+        private String keyOf(Object event) {
+            CharSequence key = affinityKey.apply((E) event);
+            if (key == null || key.length() == 0) {
+                key = fallbackKey.apply((E) event);
+            }
+            return key.toString();
+        }
+    }
+}
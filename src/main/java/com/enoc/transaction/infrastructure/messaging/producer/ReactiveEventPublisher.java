@@ -0,0 +1,63 @@
+package com.enoc.transaction.infrastructure.messaging.producer;
+
+import javax.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+@Component
+public class ReactiveEventPublisher {
+
+    private final KafkaSender<String, Object> sender;
+
+    /*
+      One KafkaSender shared by every publishing path. max-in-flight bounds the sends awaiting a broker
+      acknowledgement, so a slow broker pushes back on the callers instead of piling records up in memory.
+      Un único KafkaSender compartido por todas las rutas de publicación. max-in-flight limita los envíos pendientes
+      de confirmación, así un broker lento frena a los llamadores en lugar de acumular registros en memoria.
+     */
+    @Autowired
+    public ReactiveEventPublisher(KafkaProperties kafkaProperties,
+                                  @Value("${kafka.producer.reactive.max-in-flight}") int maxInFlight) {
+        this(KafkaSender.create(SenderOptions.<String, Object>create(kafkaProperties.buildProducerProperties())
+                .maxInFlight(maxInFlight)
+                .stopOnError(false)));
+    }
+
+    protected ReactiveEventPublisher(KafkaSender<String, Object> sender) {
+        this.sender = sender;
+    }
+
+    /*
+      Sends one event; the Mono fails when the broker rejects it, so it can be composed into a request chain.
+      Envía un evento; el Mono falla si el broker lo rechaza, así puede componerse en la cadena de una petición.
+     */
+    public Mono<SenderResult<String>> send(String topic, String key, Object event) {
+        return sender.send(Mono.just(SenderRecord.create(new ProducerRecord<>(topic, key, event), key)))
+                .next()
+                .flatMap(result -> result.exception() == null ? Mono.just(result) : Mono.error(result.exception()));
+    }
+
+    /*
+      Sends a stream of records for bulk flows. Failures do not stop the stream: each SenderResult carries its own
+      exception and the caller's correlation metadata.
+      Envía un flujo de registros para procesos masivos. Los fallos no detienen el flujo: cada SenderResult trae su
+      propia excepción y los metadatos de correlación del llamador.
+     */
+    public <T> Flux<SenderResult<T>> sendBatch(Flux<SenderRecord<String, Object, T>> records) {
+        return sender.send(records);
+    }
+
+    @PreDestroy
+    public void close() {
+        sender.close();
+    }
+}
@@ -0,0 +1,97 @@
+package com.enoc.transaction.infrastructure.messaging.retry;
+
+import com.enoc.transaction.infrastructure.messaging.consumer.ReactiveEventConsumer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterReplayService {
+
+    private final KafkaProperties kafkaProperties;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final RetryTopicRouter router;
+    private final List<ReactiveEventConsumer<?>> consumers;
+
+    // Tópicos principales con un reenvío en curso: comparten el grupo del DLT, así que solo puede haber uno a la vez.
+    private final Set<String> replaying = ConcurrentHashMap.newKeySet();
+
+    @Value("${kafka.retry.replay-idle-timeout-ms}")
+    private long replayIdleTimeoutMs;
+
+    public boolean isKnownTopic(String mainTopic) {
+        return consumers.stream().anyMatch(consumer -> consumer.topic().equals(mainTopic));
+    }
+
+    /*
+      Re-drives up to maxRecords parked records from the DLT of mainTopic back to mainTopic and returns how many were
+      replayed. Replay stops at maxRecords or when the DLT stays idle for replay-idle-timeout-ms, counted from the
+      first partition assignment so a slow group join does not end it empty. The replay group keeps its offsets
+      between runs, so a replay requested while another runs for the same topic completes empty.
+      Reenvía hasta maxRecords registros del DLT de mainTopic al tópico principal y devuelve cuántos se reenviaron.
+      El reenvío termina al llegar a maxRecords o cuando el DLT queda inactivo replay-idle-timeout-ms, contados desde
+      la primera asignación de particiones para que una unión lenta al grupo no lo termine vacío. El grupo de reenvío
+      conserva sus offsets entre corridas, así un reenvío pedido mientras otro corre para el mismo tópico termina vacío.
+     */
+    public Mono<Long> replay(String mainTopic, int maxRecords) {
+        return Mono.defer(() -> {
+            if (!replaying.add(mainTopic)) {
+                log.warn("Ya hay un reenvío en curso desde el DLT de {}", mainTopic);
+                return Mono.empty();
+            }
+            return redrive(mainTopic, maxRecords)
+                    .doFinally(signal -> replaying.remove(mainTopic));
+        });
+    }
+
+    protected Flux<ReceiverRecord<String, Object>> receive(ReceiverOptions<String, Object> options) {
+        return KafkaReceiver.create(options).receive();
+    }
+
+    private Mono<Long> redrive(String mainTopic, int maxRecords) {
+        String dltTopic = router.dltTopic(mainTopic);
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties();
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, dltTopic + "-replay");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(maxRecords, 500));
+
+        Sinks.Empty<Void> assigned = Sinks.empty(); // la espera por inactividad empieza con la primera asignación
+        ReceiverOptions<String, Object> options = ReceiverOptions.<String, Object>create(props)
+                .commitInterval(Duration.ofSeconds(1))
+                .commitBatchSize(100)
+                .subscription(List.of(dltTopic))
+                .addAssignListener(partitions -> assigned.tryEmitEmpty());
+
+        Duration idle = Duration.ofMillis(replayIdleTimeoutMs);
+        return receive(options)
+                .timeout(assigned.asMono().then(Mono.delay(idle)), record -> Mono.delay(idle), Flux.empty())
+                .concatMap(record -> Mono.fromFuture(kafkaTemplate
+                                .send(new ProducerRecord<>(mainTopic, record.key(), record.value()))
+                                .completable())
+                        .thenReturn(record))
+                .doOnNext(record -> record.receiverOffset().acknowledge())
+                .take(maxRecords) // al cancelar, el receptor confirma los offsets reconocidos antes de cerrarse
+                .count()
+                .doOnSuccess(count -> log.info("Registros reenviados desde {}: {}", dltTopic, count));
+    }
+}
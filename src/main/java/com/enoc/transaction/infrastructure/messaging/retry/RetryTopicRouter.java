@@ -0,0 +1,104 @@
+package com.enoc.transaction.infrastructure.messaging.retry;
+
+import com.enoc.transaction.infrastructure.messaging.consumer.RecordFailureHandler;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@Slf4j
+public class RetryTopicRouter implements RecordFailureHandler {
+
+    public static final String HEADER_ATTEMPT = "retry-attempt";
+    public static final String HEADER_DUE_AT = "retry-due-at";
+    public static final String HEADER_ORIGINAL_TOPIC = "original-topic";
+    public static final String HEADER_EXCEPTION = "exception-message";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final int attempts;
+    private final long initialDelayMs;
+    private final double multiplier;
+
+    public RetryTopicRouter(KafkaTemplate<String, Object> kafkaTemplate,
+                            @Value("${kafka.retry.attempts}") int attempts,
+                            @Value("${kafka.retry.initial-delay-ms}") long initialDelayMs,
+                            @Value("${kafka.retry.multiplier}") double multiplier) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.attempts = attempts;
+        this.initialDelayMs = initialDelayMs;
+        this.multiplier = multiplier;
+    }
+
+    /*
+      Parks the failed record in the next retry topic (exponential delay) or, when attempts are exhausted or the
+      error is not transient, in the DLT. The main partition keeps flowing while the record waits.
+      Deriva el registro fallido al siguiente tópico de reintento (espera exponencial) o, si se agotaron los intentos
+      o el error no es transitorio, al DLT. La partición principal sigue avanzando mientras el registro espera.
+     */
+    @Override
+    public Mono<Void> onFailure(ConsumerRecord<String, ?> record, String mainTopic, Throwable error) {
+        int attempt = intHeader(record, HEADER_ATTEMPT);
+        boolean retryable = !(error instanceof IllegalArgumentException);
+
+        String target = retryable && attempt < attempts ? retryTopic(mainTopic, attempt) : dltTopic(mainTopic);
+        ProducerRecord<String, Object> routed = new ProducerRecord<>(target, record.key(), record.value());
+        routed.headers().add(HEADER_ORIGINAL_TOPIC, mainTopic.getBytes(StandardCharsets.UTF_8));
+        routed.headers().add(HEADER_ATTEMPT, ByteBuffer.allocate(Integer.BYTES).putInt(attempt + 1).array());
+        routed.headers().add(HEADER_DUE_AT, ByteBuffer.allocate(Long.BYTES)
+                .putLong(System.currentTimeMillis() + delayFor(attempt).toMillis()).array());
+        routed.headers().add(HEADER_EXCEPTION, String.valueOf(error.getMessage()).getBytes(StandardCharsets.UTF_8));
+
+        return Mono.fromFuture(kafkaTemplate.send(routed).completable())
+                .doOnSuccess(result -> log.warn("Registro derivado a {}: key={} | intento={} | causa={}",
+                        target, record.key(), attempt + 1, error.getMessage()))
+                .then();
+    }
+
+    /*
+      Delays a record read from a retry topic until its due time; only the retry partition waits.
+      Retrasa un registro leído de un tópico de reintento hasta su vencimiento; solo espera la partición de reintento.
+     */
+    public Mono<Void> awaitDue(ConsumerRecord<String, ?> record) {
+        Header header = record.headers().lastHeader(HEADER_DUE_AT);
+        if (header == null) {
+            return Mono.empty();
+        }
+        long waitMs = ByteBuffer.wrap(header.value()).getLong() - System.currentTimeMillis();
+        return waitMs > 0 ? Mono.delay(Duration.ofMillis(waitMs)).then() : Mono.empty();
+    }
+
+    public List<String> retryTopics(String mainTopic) {
+        List<String> topics = new ArrayList<>(attempts);
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            topics.add(retryTopic(mainTopic, attempt));
+        }
+        return topics;
+    }
+
+    public String retryTopic(String mainTopic, int attempt) {
+        return mainTopic + "-retry-" + attempt;
+    }
+
+    public String dltTopic(String mainTopic) {
+        return mainTopic + "-dlt";
+    }
+
+    private Duration delayFor(int attempt) {
+        return Duration.ofMillis((long) (initialDelayMs * Math.pow(multiplier, attempt)));
+    }
+
+    private static int intHeader(ConsumerRecord<String, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? 0 : ByteBuffer.wrap(header.value()).getInt();
+    }
+}
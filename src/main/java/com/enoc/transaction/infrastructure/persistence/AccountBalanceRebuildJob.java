@@ -0,0 +1,74 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.application.usecase.AccountBalanceProjection;
+import com.enoc.transaction.domain.repository.AccountBalanceRepository;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@Endpoint(id = "accountbalances")
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBalanceRebuildJob implements ApplicationRunner {
+
+    private final AccountBalanceProjection projection;
+    private final AccountBalanceRepository repository;
+
+    private volatile OffsetDateTime lastRebuild;
+
+    /*
+      Builds the projection on the first start (empty account_balances) so balance checks work on existing data. It runs
+      as an ApplicationRunner, which Spring Boot completes before the node reports itself ready, so no withdrawal or
+      increment reaches this node while $out replaces the collection; a failed build stops the start.
+      Construye la proyección en el primer arranque (account_balances vacía) para que las verificaciones de saldo
+      funcionen con los datos existentes. Corre como ApplicationRunner, que Spring Boot completa antes de declarar el
+      nodo listo, así ningún retiro ni incremento llega a este nodo mientras $out reemplaza la colección; si la
+      construcción falla el arranque se detiene.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuildIfEmpty().block();
+    }
+
+    public Mono<Void> rebuildIfEmpty() {
+        return repository.count()
+                .filter(accounts -> accounts == 0)
+                .flatMap(empty -> rebuild())
+                .doOnError(ex -> log.error("No se pudo construir la proyección de saldos: {}", ex.getMessage()))
+                .then();
+    }
+
+    @ReadOperation
+    public Mono<Map<String, Object>> status() {
+        return repository.count()
+                .map(accounts -> {
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("accounts", accounts);
+                    body.put("lastRebuild", lastRebuild);
+                    return body;
+                });
+    }
+
+    /*
+      Recomputes account_balances from the transactions collection (POST /actuator/accountbalances). Increments applied
+      while it runs are lost, so pause writes on every node first.
+      Recalcula account_balances a partir de la colección de transacciones (POST /actuator/accountbalances). Los
+      incrementos aplicados mientras corre se pierden, pausar antes las escrituras en todos los nodos.
+     */
+    @WriteOperation
+    public Mono<Map<String, Object>> rebuild() {
+        return projection.rebuild()
+                .doOnNext(accounts -> lastRebuild = OffsetDateTime.now())
+                .then(status());
+    }
+}
@@ -0,0 +1,90 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.model.AccountBalance;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.TransactionBucket;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.repository.AccountBalanceUpdates;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class AccountBalanceUpdatesImpl implements AccountBalanceUpdates {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> increment(String accountId, String productId, BigDecimal delta, OffsetDateTime at) {
+        return mongoTemplate.upsert(query(where("accountId").is(accountId)), change(productId, delta, at), AccountBalance.class)
+                .then();
+    }
+
+    /*
+      Single findAndModify guarded by balance >= amount: the check and the decrement are one atomic document update,
+      so concurrent withdrawals cannot overdraw the account.
+      Un único findAndModify con la condición balance >= amount: la verificación y el descuento son una sola
+      actualización atómica del documento, así los retiros concurrentes no pueden dejar la cuenta en negativo.
+     */
+    @Override
+    public Mono<AccountBalance> decrementIfSufficient(String accountId, String productId, BigDecimal amount, OffsetDateTime at) {
+        return mongoTemplate.findAndModify(
+                query(where("accountId").is(accountId).and("balance").gte(new Decimal128(amount))),
+                change(productId, amount.negate(), at),
+                FindAndModifyOptions.options().returnNew(true),
+                AccountBalance.class);
+    }
+
+    /*
+      Groups ACTIVE transactions per account on the server, archived ones included, and swaps the result in with $out,
+      which keeps the collection's indexes. Buckets contribute their summary (sum of ACTIVE amounts) instead of being
+      unwound. Increments applied while it runs are overwritten, so run it with writes paused.
+      Agrupa las transacciones ACTIVE por cuenta en el servidor, incluidas las archivadas, y reemplaza el resultado con
+      $out, que conserva los índices de la colección. Los buckets aportan su resumen (suma de los montos ACTIVE) en vez
+      de desenrollarse. Los incrementos aplicados mientras corre se sobrescriben, ejecutar con escrituras pausadas.
+     */
+    @Override
+    public Mono<Long> rebuildFromTransactions() {
+        String target = mongoTemplate.getCollectionName(AccountBalance.class);
+        Document active = new Document("state", TransactionState.ACTIVE.name()).append("accountId", new Document("$ne", null));
+        List<Document> pipeline = List.of(
+                new Document("$match", active),
+                new Document("$unionWith", new Document("coll", TransactionArchiveImpl.ARCHIVE_COLLECTION)
+                        .append("pipeline", List.of(new Document("$match", active)))),
+                new Document("$unionWith", new Document("coll", mongoTemplate.getCollectionName(TransactionBucket.class))
+                        .append("pipeline", List.of(new Document("$project", new Document("accountId", 1)
+                                .append("productId", 1)
+                                .append("amount", "$sum")
+                                .append("createdAt", "$maxCreatedAt"))))),
+                new Document("$group", new Document("_id", "$accountId")
+                        .append("productId", new Document("$first", "$productId"))
+                        .append("balance", new Document("$sum", new Document("$toDecimal", "$amount")))
+                        .append("lastActivity", new Document("$max", "$createdAt"))),
+                new Document("$out", target));
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class))
+                .flatMap(collection -> Mono.from(collection.aggregate(pipeline).allowDiskUse(true).toCollection()))
+                .then(mongoTemplate.getCollection(target))
+                .flatMap(collection -> Mono.from(collection.countDocuments()));
+    }
+
+    private static Update change(String productId, BigDecimal delta, OffsetDateTime at) {
+        Update update = new Update().inc("balance", new Decimal128(delta));
+        if (at != null) {
+            update.max("lastActivity", at);
+        }
+        if (productId != null) {
+            update.set("productId", productId);
+        }
+        return update;
+    }
+}
@@ -0,0 +1,52 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class BatchDrainRunner {
+
+    private final Counter processed;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /*
+      Runs the batch until it reports zero documents, counting each one, and hands the total and the elapsed time to
+      onDrained before the guard is released. A drain started while another is running completes empty without
+      touching the batch; a failed batch releases the guard too.
+      Ejecuta el lote hasta que informa cero documentos, contando cada uno, y entrega el total y el tiempo transcurrido
+      a onDrained antes de liberar la guarda. Un vaciado iniciado mientras otro corre termina vacío sin tocar el lote;
+      un lote fallido también libera la guarda.
+     */
+    public Mono<Void> drain(Supplier<Mono<Long>> batch, BiConsumer<Long, Duration> onDrained) {
+        return Mono.defer(() -> {
+            if (!running.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            AtomicLong total = new AtomicLong();
+            long started = System.nanoTime();
+
+            return Mono.defer(batch)
+                    .repeat()
+                    .takeWhile(count -> count > 0)
+                    .doOnNext(count -> {
+                        total.addAndGet(count);
+                        processed.increment(count);
+                    })
+                    .then(Mono.<Void>fromRunnable(() -> {
+                        onDrained.accept(total.get(), Duration.ofNanos(System.nanoTime() - started));
+                        running.set(false);
+                    }))
+                    .doFinally(signal -> running.set(false));
+        });
+    }
+}
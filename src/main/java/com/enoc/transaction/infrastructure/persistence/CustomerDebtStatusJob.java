@@ -0,0 +1,47 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.application.usecase.CustomerDebtProjection;
+import com.enoc.transaction.domain.repository.CustomerDebtStatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerDebtStatusJob implements ApplicationRunner {
+
+    private final CustomerDebtProjection projection;
+    private final CustomerDebtStatusRepository repository;
+
+    // Construye la proyección en el primer arranque (customer_debt_status vacía), antes de que el nodo se declare listo.
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuildIfEmpty().block();
+    }
+
+    public Mono<Void> rebuildIfEmpty() {
+        return repository.count()
+                .filter(customers -> customers == 0)
+                .flatMap(empty -> projection.rebuild())
+                .doOnError(ex -> log.error("No se pudo construir la proyección de deudas: {}", ex.getMessage()))
+                .then();
+    }
+
+    /*
+      Flips customers to overdue as their earliest due date passes, so the stored flag stays queryable.
+      Marca en mora a los clientes cuando pasa su vencimiento más antiguo, para que la marca guardada siga siendo
+      consultable.
+     */
+    @Scheduled(fixedDelayString = "${transaction.debt-status.sweep-interval-ms}")
+    public void sweep() {
+        projection.markOverdue()
+                .subscribe(
+                        flagged -> { },
+                        ex -> log.error("Error en el barrido de deudas vencidas: {}", ex.getMessage()));
+    }
+}
@@ -0,0 +1,160 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.model.CustomerDebtStatus;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.CustomerDebtStatusUpdates;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.UpdateResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class CustomerDebtStatusUpdatesImpl implements CustomerDebtStatusUpdates {
+
+    private static final String CHARGE = TransactionType.CREDIT_CHARGE.name();
+    private static final String PAYMENT = TransactionType.CREDIT_PAYMENT.name();
+    private static final Decimal128 ZERO = new Decimal128(BigDecimal.ZERO);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /*
+      Pipeline updates ($set with expressions) so each write is one atomic upsert of the customer's document.
+      Actualizaciones con pipeline ($set con expresiones) para que cada escritura sea un único upsert atómico del
+      documento del cliente.
+     */
+    @Override
+    public Mono<Void> charge(String customerId, BigDecimal amount, OffsetDateTime dueDate) {
+        Date now = new Date();
+        boolean pastDue = dueDate != null && dueDate.toInstant().isBefore(now.toInstant());
+        Document set = new Document("outstanding", new Document("$add", List.of(outstandingOrZero(), new Decimal128(amount))))
+                .append("earliestDueDate", new Document("$min", Arrays.asList("$earliestDueDate", toDate(dueDate))))
+                .append("overdue", new Document("$or", List.of(new Document("$ifNull", List.of("$overdue", false)), pastDue)))
+                .append("updatedAt", now);
+        return upsert(customerId, List.of(new Document("$set", set)));
+    }
+
+    @Override
+    public Mono<Void> pay(String customerId, BigDecimal amount) {
+        Document owes = new Document("$gt", List.of("$outstanding", ZERO));
+        Document subtract = new Document("$set", new Document("outstanding",
+                new Document("$subtract", List.of(outstandingOrZero(), new Decimal128(amount)))));
+        Document settle = new Document("$set", new Document("earliestDueDate",
+                new Document("$cond", Arrays.asList(owes, "$earliestDueDate", null)))
+                .append("overdue", new Document("$and", List.of(owes, new Document("$ifNull", List.of("$overdue", false)))))
+                .append("updatedAt", new Date()));
+        return upsert(customerId, List.of(subtract, settle));
+    }
+
+    /*
+      Aggregates the customer's charges and payments and replaces its document; read and write go through the template
+      so they join the caller's Mongo transaction ($merge is not allowed inside transactions).
+      Agrega los cargos y pagos del cliente y reemplaza su documento; lectura y escritura pasan por el template para
+      unirse a la transacción de Mongo de quien llama ($merge no está permitido dentro de transacciones).
+     */
+    @Override
+    public Mono<Void> recompute(String customerId) {
+        Document match = activeCreditMovements()
+                .append("$or", List.of(new Document("customerId", customerId), new Document("debtorDni", customerId)));
+        List<Document> pipeline = new ArrayList<>(statusPipeline(match, new Date()));
+        pipeline.add(2, new Document("$match", new Document("_id", customerId)));
+
+        Mono<Document> status = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class))
+                .flatMap(transactions -> Mono.from(transactions.aggregate(pipeline).first()));
+        Document id = new Document("_id", customerId);
+
+        return debtStatusCollection()
+                .flatMap(collection -> status
+                        .flatMap(document -> Mono.from(collection.replaceOne(id, document, new ReplaceOptions().upsert(true)))
+                                .thenReturn(true))
+                        .switchIfEmpty(Mono.from(collection.deleteOne(id)).thenReturn(false)))
+                .then();
+    }
+
+    @Override
+    public Mono<Long> markOverdue(OffsetDateTime now) {
+        Document filter = new Document("overdue", false)
+                .append("earliestDueDate", new Document("$lt", toDate(now)))
+                .append("outstanding", new Document("$gt", ZERO));
+        return debtStatusCollection()
+                .flatMap(collection -> Mono.from(collection.updateMany(filter,
+                        new Document("$set", new Document("overdue", true).append("updatedAt", new Date())))))
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Long> rebuildFromTransactions() {
+        String target = mongoTemplate.getCollectionName(CustomerDebtStatus.class);
+        List<Document> pipeline = new ArrayList<>(statusPipeline(activeCreditMovements(), new Date()));
+        pipeline.add(new Document("$out", target));
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class))
+                .flatMap(transactions -> Mono.from(transactions.aggregate(pipeline).allowDiskUse(true).toCollection()))
+                .then(debtStatusCollection())
+                .flatMap(collection -> Mono.from(collection.countDocuments()));
+    }
+
+    /*
+      Charges belong to customerId; payments to debtorDni when a third party pays, otherwise to customerId — the same
+      keys hasOverdueCreditTransactions is called with.
+      Los cargos pertenecen a customerId; los pagos a debtorDni cuando paga un tercero, si no a customerId — las mismas
+      claves con las que se llama a hasOverdueCreditTransactions.
+     */
+    private static List<Document> statusPipeline(Document match, Date now) {
+        Document isCharge = new Document("$eq", List.of("$type", CHARGE));
+        Document amount = new Document("$toDecimal", "$amount");
+        Document owner = new Document("$cond", List.of(isCharge, "$customerId",
+                new Document("$ifNull", List.of("$debtorDni", "$customerId"))));
+        Document signedAmount = new Document("$cond", List.of(isCharge, amount, new Document("$multiply", List.of(amount, -1))));
+        Document chargeDueDate = new Document("$cond", Arrays.asList(isCharge, "$date", null));
+        Document owes = new Document("$gt", List.of("$outstanding", ZERO));
+
+        return List.of(
+                new Document("$match", match),
+                new Document("$group", new Document("_id", owner)
+                        .append("outstanding", new Document("$sum", signedAmount))
+                        .append("earliestDueDate", new Document("$min", chargeDueDate))),
+                new Document("$set", new Document("earliestDueDate",
+                        new Document("$cond", Arrays.asList(owes, "$earliestDueDate", null)))
+                        .append("overdue", new Document("$and", List.of(owes,
+                                new Document("$ne", Arrays.asList("$earliestDueDate", null)),
+                                new Document("$lt", List.of("$earliestDueDate", now)))))
+                        .append("updatedAt", now)));
+    }
+
+    private static Document activeCreditMovements() {
+        return new Document("state", TransactionState.ACTIVE.name())
+                .append("type", new Document("$in", List.of(CHARGE, PAYMENT)));
+    }
+
+    private static Document outstandingOrZero() {
+        return new Document("$ifNull", List.of("$outstanding", ZERO));
+    }
+
+    private static Date toDate(OffsetDateTime dateTime) {
+        return dateTime != null ? Date.from(dateTime.toInstant()) : null;
+    }
+
+    private Mono<Void> upsert(String customerId, List<Document> pipeline) {
+        return debtStatusCollection()
+                .flatMap(collection -> Mono.from(collection.updateOne(
+                        new Document("_id", customerId), pipeline, new UpdateOptions().upsert(true))))
+                .then();
+    }
+
+    private Mono<MongoCollection<Document>> debtStatusCollection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(CustomerDebtStatus.class));
+    }
+}
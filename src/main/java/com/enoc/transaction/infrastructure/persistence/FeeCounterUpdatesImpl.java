@@ -0,0 +1,36 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.model.FeeCounter;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.FeeCounterUpdates;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class FeeCounterUpdatesImpl implements FeeCounterUpdates {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /*
+      Upsert with $inc on the bucket's _id: concurrent creations of the same account and type never lose a count.
+      Upsert con $inc sobre el _id del tramo: las creaciones concurrentes de la misma cuenta y tipo nunca pierden un
+      conteo.
+     */
+    @Override
+    public Mono<Void> increment(String accountId, TransactionType type, YearMonth period, long by) {
+        Update update = new Update()
+                .inc("count", by)
+                .setOnInsert("accountId", accountId)
+                .setOnInsert("type", type)
+                .setOnInsert("period", period.toString())
+                .set("updatedAt", OffsetDateTime.now());
+        return mongoTemplate.upsert(query(where("_id").is(FeeCounter.idOf(accountId, type, period))), update, FeeCounter.class)
+                .then();
+    }
+}
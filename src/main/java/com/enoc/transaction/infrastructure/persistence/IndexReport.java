@@ -0,0 +1,19 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class IndexReport {
+
+    private final String collection;
+    private final List<String> existing;
+    private final List<String> missing;    // declarados en la entidad pero ausentes en la colección
+    private final List<String> redundant;  // no declarados, o cuyo patrón es prefijo de otro índice
+
+    public boolean isClean() {
+        return missing.isEmpty() && redundant.isEmpty();
+    }
+}
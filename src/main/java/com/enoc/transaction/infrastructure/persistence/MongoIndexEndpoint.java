@@ -0,0 +1,62 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "mongoindexes")
+@RequiredArgsConstructor
+public class MongoIndexEndpoint {
+
+    // Índice que debe atender cada consulta de TransactionRepository (nombres de @CompoundIndex en Transaction).
+    private static final Map<String, String> EXPECTED_INDEXES = expectedIndexes();
+
+    private final MongoIndexInitializer indexInitializer;
+
+    /*
+      Lists the index each repository method is expected to use, whether it exists, and the reconciliation reports.
+      Lista el índice que debe usar cada método del repositorio, si existe, y los reportes de conciliación.
+     */
+    @ReadOperation
+    public Map<String, Object> indexes() {
+        Map<String, IndexReport> reports = indexInitializer.reports();
+        IndexReport transactions = reports.get("transactions");
+
+        Map<String, Map<String, Object>> queries = new LinkedHashMap<>();
+        EXPECTED_INDEXES.forEach((method, index) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("index", index);
+            entry.put("present", transactions != null && transactions.getExisting().contains(index));
+            queries.put(method, entry);
+        });
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("queries", queries);
+        body.put("reports", reports);
+        return body;
+    }
+
+    private static Map<String, String> expectedIndexes() {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        indexes.put("countByAccountIdAndTypeIn", "account_type");
+        indexes.put("findByIdAndState", "_id_");
+        indexes.put("existsByCustomerIdAndTypeAndDateBeforeAndState", "customer_type_state_date");
+        indexes.put("findByProductIdAndStateOrderByCreatedAtDesc", "product_state_createdAt_id");
+        indexes.put("findTop10ByCustomerIdAndStateOrderByCreatedAtDesc", "customer_state_createdAt_id");
+        indexes.put("findByCustomerIdAndState", "customer_state_createdAt_id");
+        indexes.put("findByProductIdAndState", "product_state_createdAt_id");
+        indexes.put("findTopByCustomerIdAndStateOrderByCreatedAtDesc", "customer_state_createdAt_id");
+        indexes.put("findByCreatedAtBetweenAndState", "state_createdAt_id");
+        indexes.put("findByCustomerIdAndStateAndCreatedAtBetween", "customer_state_createdAt_id");
+        indexes.put("findPage(all)", "createdAt_id");
+        indexes.put("findPage(customerId, state)", "customer_state_createdAt_id");
+        indexes.put("findPage(productId, state)", "product_state_createdAt_id");
+        indexes.put("findPage(state, createdAt range)", "state_createdAt_id");
+        return Collections.unmodifiableMap(indexes);
+    }
+}
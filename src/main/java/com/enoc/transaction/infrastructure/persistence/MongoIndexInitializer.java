@@ -0,0 +1,129 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.model.AccountBalance;
+import com.enoc.transaction.domain.model.CustomerDebtStatus;
+import com.enoc.transaction.domain.model.FeeCounter;
+import com.enoc.transaction.domain.model.OutboxEvent;
+import com.enoc.transaction.domain.model.ProcessedEvent;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.TransactionBucket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexInitializer {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Transaction.class, ProcessedEvent.class, OutboxEvent.class,
+            AccountBalance.class, CustomerDebtStatus.class, FeeCounter.class, TransactionBucket.class);
+    private static final String ID_INDEX = "_id_";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Map<String, IndexReport> reports = new ConcurrentHashMap<>();
+
+    /*
+      Creates the indexes declared on the entities through the reactive IndexOperations, then reconciles each
+      collection against its declaration.
+      Crea los índices declarados en las entidades mediante las IndexOperations reactivas y luego concilia cada
+      colección con su declaración.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        Flux.fromIterable(INDEXED_ENTITIES)
+                .concatMap(type -> {
+                    List<IndexDefinition> declared = StreamSupport.stream(resolver.resolveIndexFor(type).spliterator(), false)
+                            .collect(Collectors.toList());
+                    return Flux.fromIterable(declared)
+                            .concatMap(index -> mongoTemplate.indexOps(type).ensureIndex(index))
+                            .doOnNext(name -> log.info("Índice verificado: {}", name))
+                            .then(reconcile(type, declared));
+                })
+                .subscribe(
+                        this::publish,
+                        ex -> log.error("Error al crear índices: {}", ex.getMessage()));
+    }
+
+    public Map<String, IndexReport> reports() {
+        return Map.copyOf(reports);
+    }
+
+    /*
+      Missing: declared but absent. Redundant: present but undeclared, or whose key pattern is a prefix of another
+      index (the longer one already serves its queries). Nothing is dropped automatically.
+      Faltante: declarado pero ausente. Redundante: presente pero no declarado, o cuyo patrón de claves es prefijo de
+      otro índice (el más largo ya atiende sus consultas). No se elimina nada automáticamente.
+     */
+    private Mono<IndexReport> reconcile(Class<?> type, List<IndexDefinition> declared) {
+        String collection = mongoTemplate.getCollectionName(type);
+        Set<String> declaredNames = declared.stream()
+                .map(index -> index.getIndexOptions().getString("name"))
+                .collect(Collectors.toSet());
+
+        return mongoTemplate.indexOps(type).getIndexInfo()
+                .collectList()
+                .map(existing -> {
+                    Set<String> existingNames = existing.stream().map(IndexInfo::getName).collect(Collectors.toSet());
+                    List<String> missing = declaredNames.stream()
+                            .filter(name -> !existingNames.contains(name))
+                            .sorted()
+                            .collect(Collectors.toList());
+                    List<String> redundant = new ArrayList<>();
+                    for (IndexInfo info : existing) {
+                        if (ID_INDEX.equals(info.getName())) {
+                            continue;
+                        }
+                        if (!declaredNames.contains(info.getName())) {
+                            redundant.add(info.getName() + " (no declarado)");
+                        } else if (existing.stream().anyMatch(other -> other != info && isPrefix(info, other))) {
+                            redundant.add(info.getName() + " (prefijo de otro índice)");
+                        }
+                    }
+                    return new IndexReport(collection, existingNames.stream().sorted().collect(Collectors.toList()),
+                            missing, redundant);
+                });
+    }
+
+    private void publish(IndexReport report) {
+        reports.put(report.getCollection(), report);
+        if (report.isClean()) {
+            log.info("Índices conciliados: colección={} | índices={}", report.getCollection(), report.getExisting());
+        } else {
+            log.warn("Índices no conciliados: colección={} | faltantes={} | redundantes={}",
+                    report.getCollection(), report.getMissing(), report.getRedundant());
+        }
+    }
+
+    private static boolean isPrefix(IndexInfo candidate, IndexInfo other) {
+        List<String> keys = keyPattern(candidate);
+        List<String> otherKeys = keyPattern(other);
+        return candidate.getPartialFilterExpression() == null && !candidate.isUnique()
+                && !candidate.getExpireAfter().isPresent()
+                && keys.size() < otherKeys.size() && otherKeys.subList(0, keys.size()).equals(keys);
+    }
+
+    private static List<String> keyPattern(IndexInfo info) {
+        return info.getIndexFields().stream()
+                .map(field -> field.getKey() + ":" + field.getDirection())
+                .collect(Collectors.toList());
+    }
+}
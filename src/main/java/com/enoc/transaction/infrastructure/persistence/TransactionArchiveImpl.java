@@ -0,0 +1,142 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.PageCursor;
+import com.enoc.transaction.domain.repository.TransactionArchive;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class TransactionArchiveImpl implements TransactionArchive {
+
+    static final String ARCHIVE_COLLECTION = "transactions_archive";
+
+    private static final List<String> DISCARDED_STATES = List.of(TransactionState.INACTIVE.name(), TransactionState.ARCHIVED.name());
+    // Los movimientos de crédito ACTIVE se quedan en caliente: la proyección de deudas los recalcula dentro de
+    // transacciones de Mongo, donde $unionWith no está permitido.
+    private static final List<String> HOT_LEDGER_TYPES = List.of(TransactionType.CREDIT_CHARGE.name(),
+            TransactionType.CREDIT_PAYMENT.name());
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /*
+      Discarded transactions go first; old ACTIVE ones only once none are left, so a run frees index space early.
+      Primero las transacciones descartadas; las ACTIVE antiguas solo cuando no quedan, así una corrida libera espacio
+      de índices cuanto antes.
+     */
+    @Override
+    public Mono<Long> archiveBatch(OffsetDateTime activeCutoff, int batchSize) {
+        Document discarded = new Document("state", new Document("$in", DISCARDED_STATES));
+        Document aged = new Document("state", TransactionState.ACTIVE.name())
+                .append("createdAt", new Document("$lt", Date.from(activeCutoff.toInstant())))
+                .append("type", new Document("$nin", HOT_LEDGER_TYPES));
+        return move(discarded, batchSize)
+                .flatMap(moved -> moved > 0 ? Mono.just(moved) : move(aged, batchSize));
+    }
+
+    @Override
+    public Mono<Transaction> findArchivedById(String id) {
+        return mongoTemplate.findById(id, Transaction.class, ARCHIVE_COLLECTION);
+    }
+
+    /*
+      Reads one page from each collection with the same cursor and merges them; a document caught between the copy and
+      the delete of a batch shows up in both and is emitted once.
+      Lee una página de cada colección con el mismo cursor y las combina; un documento sorprendido entre la copia y el
+      borrado de un lote aparece en ambas y se emite una sola vez.
+     */
+    @Override
+    public Flux<Transaction> findPageIncludingArchive(Criteria filter, PageCursor after, int limit) {
+        return Flux.mergeComparing(PageCursor.NEWEST_FIRST,
+                        mongoTemplate.find(TransactionKeysetQueriesImpl.pageQuery(filter, after, limit), Transaction.class),
+                        mongoTemplate.find(TransactionKeysetQueriesImpl.pageQuery(filter, after, limit), Transaction.class,
+                                ARCHIVE_COLLECTION))
+                .distinctUntilChanged(Transaction::getId)
+                .take(limit);
+    }
+
+    @Override
+    public Mono<Void> ensureArchiveIndexes() {
+        return mongoTemplate.indexOps(ARCHIVE_COLLECTION)
+                .ensureIndex(new Index()
+                        .on("state", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named("state_createdAt_id"))
+                .then();
+    }
+
+    /*
+      Copy then delete, both as unordered bulk writes of raw documents. The copy is a replace-upsert by _id and the
+      delete only matches the version that was copied, so a run interrupted between the two steps, or a document
+      updated meanwhile, is picked up again by a later batch. A document updated so that it no longer matches the
+      filter stays hot, and its stale copy is dropped from the archive.
+      Copiar y luego borrar, ambos como escrituras masivas no ordenadas de documentos crudos. La copia es un
+      reemplazo con upsert por _id y el borrado solo coincide con la versión copiada, así una corrida interrumpida entre
+      los dos pasos, o un documento actualizado mientras tanto, lo retoma un lote posterior. Un documento actualizado
+      de forma que ya no cumple el filtro se queda en caliente, y su copia desactualizada se borra del archivo.
+     */
+    private Mono<Long> move(Document filter, int batchSize) {
+        return collection(mongoTemplate.getCollectionName(Transaction.class))
+                .flatMap(hot -> Flux.from(hot.find(filter).limit(batchSize)).collectList()
+                        .flatMap(documents -> documents.isEmpty()
+                                ? Mono.just(0L)
+                                : collection(ARCHIVE_COLLECTION)
+                                        .flatMap(archive -> Mono.from(archive.bulkWrite(copies(documents), UNORDERED)))
+                                        .then(Mono.from(hot.bulkWrite(deletions(documents), UNORDERED)))
+                                        .flatMap(result -> result.getDeletedCount() == documents.size()
+                                                ? Mono.just((long) result.getDeletedCount())
+                                                : dropStaleCopies(hot, filter, documents)
+                                                        .thenReturn((long) result.getDeletedCount()))));
+    }
+
+    // Copias de documentos que cambiaron tras copiarse y ya no cumplen el filtro: el original sigue en caliente.
+    private Mono<Void> dropStaleCopies(MongoCollection<Document> hot, Document filter, List<Document> documents) {
+        List<Object> ids = documents.stream().map(document -> document.get("_id")).collect(Collectors.toList());
+        return Flux.from(hot.find(new Document("_id", new Document("$in", ids)).append("$nor", List.of(filter)))
+                        .projection(new Document("_id", 1)))
+                .map(document -> document.get("_id"))
+                .collectList()
+                .filter(stale -> !stale.isEmpty())
+                .flatMap(stale -> collection(ARCHIVE_COLLECTION)
+                        .flatMap(archive -> Mono.from(archive.deleteMany(new Document("_id", new Document("$in", stale))))))
+                .then();
+    }
+
+    private static List<WriteModel<Document>> copies(List<Document> documents) {
+        return documents.stream()
+                .<WriteModel<Document>>map(document -> new ReplaceOneModel<>(new Document("_id", document.get("_id")), document,
+                        new ReplaceOptions().upsert(true)))
+                .collect(Collectors.toList());
+    }
+
+    private static List<WriteModel<Document>> deletions(List<Document> documents) {
+        return documents.stream()
+                .<WriteModel<Document>>map(document -> new DeleteOneModel<>(new Document("_id", document.get("_id"))
+                        .append("version", document.get("version"))))
+                .collect(Collectors.toList());
+    }
+
+    private Mono<MongoCollection<Document>> collection(String name) {
+        return mongoTemplate.getCollection(name);
+    }
+}
@@ -0,0 +1,98 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@Endpoint(id = "transactionarchive")
+@Slf4j
+public class TransactionArchiveJob {
+
+    private final TransactionRepository repository;
+    private final int activeRetentionDays;
+    private final int batchSize;
+    private final BatchDrainRunner drainer;
+
+    private volatile Map<String, Object> lastRun = Collections.emptyMap();
+
+    public TransactionArchiveJob(TransactionRepository repository,
+                                 MeterRegistry registry,
+                                 @Value("${transaction.archive.active-retention-days}") int activeRetentionDays,
+                                 @Value("${transaction.archive.batch-size}") int batchSize) {
+        this.repository = repository;
+        this.activeRetentionDays = activeRetentionDays;
+        this.batchSize = batchSize;
+        this.drainer = new BatchDrainRunner(Counter.builder("transaction.archive.moved")
+                .description("Transacciones movidas a transactions_archive")
+                .register(registry));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        repository.ensureArchiveIndexes()
+                .subscribe(
+                        done -> { },
+                        ex -> log.error("No se pudieron crear los índices del archivo: {}", ex.getMessage()));
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.archive.interval-ms}", initialDelayString = "${transaction.archive.interval-ms}")
+    public void archive() {
+        run().subscribe(
+                report -> { },
+                ex -> log.error("Error en el archivado de transacciones: {}", ex.getMessage()));
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("running", drainer.isRunning());
+        body.put("lastRun", lastRun);
+        return body;
+    }
+
+    /*
+      Moves batches until none is left (POST /actuator/transactionarchive). Each batch commits on its own, so a
+      stopped run resumes where it was on the next one; overlapping runs are skipped.
+      Mueve lotes hasta que no quede ninguno (POST /actuator/transactionarchive). Cada lote se confirma por separado,
+      así una corrida detenida se retoma donde quedó en la siguiente; las corridas superpuestas se omiten.
+     */
+    @WriteOperation
+    public Mono<Map<String, Object>> run() {
+        return Mono.defer(() -> {
+            OffsetDateTime cutoff = OffsetDateTime.now().minusDays(activeRetentionDays);
+            return drainer.drain(() -> repository.archiveBatch(cutoff, batchSize),
+                            (total, elapsed) -> lastRun = report(cutoff, total, elapsed))
+                    .then(Mono.fromCallable(this::status));
+        });
+    }
+
+    private static Map<String, Object> report(OffsetDateTime cutoff, long total, Duration elapsed) {
+        double perSecond = elapsed.isZero() ? 0.0 : total * 1_000_000_000.0 / elapsed.toNanos();
+        log.info("Archivado completado: {} transacciones en {} ms ({} doc/s)", total, elapsed.toMillis(),
+                String.format("%.1f", perSecond));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("activeCutoff", cutoff);
+        body.put("moved", total);
+        body.put("elapsedMs", elapsed.toMillis());
+        body.put("documentsPerSecond", perSecond);
+        body.put("finishedAt", OffsetDateTime.now());
+        return body;
+    }
+}
@@ -0,0 +1,88 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@Endpoint(id = "transactionbuckets")
+@Slf4j
+public class TransactionBucketJob {
+
+    private final TransactionRepository repository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPerBucket;
+    private final BatchDrainRunner drainer;
+
+    private volatile Map<String, Object> lastRun = Collections.emptyMap();
+
+    public TransactionBucketJob(TransactionRepository repository,
+                                MeterRegistry registry,
+                                @Value("${transaction.buckets.enabled}") boolean enabled,
+                                @Value("${transaction.buckets.batch-size}") int batchSize,
+                                @Value("${transaction.buckets.max-transactions}") int maxPerBucket) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxPerBucket = maxPerBucket;
+        this.drainer = new BatchDrainRunner(Counter.builder("transaction.buckets.compacted")
+                .description("Transacciones archivadas procesadas por la compactación en buckets")
+                .register(registry));
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.buckets.interval-ms}", initialDelayString = "${transaction.buckets.interval-ms}")
+    public void compact() {
+        run().subscribe(
+                report -> { },
+                ex -> log.error("Error en la compactación de buckets: {}", ex.getMessage()));
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", enabled);
+        body.put("running", drainer.isRunning());
+        body.put("lastRun", lastRun);
+        return body;
+    }
+
+    /*
+      Packs the archive into buckets until it is drained (POST /actuator/transactionbuckets). Disabled unless
+      transaction.buckets.enabled is set, because only then do history reads look into the buckets.
+      Empaqueta el archivo en buckets hasta vaciarlo (POST /actuator/transactionbuckets). Desactivado salvo que
+      transaction.buckets.enabled esté activo, porque solo entonces las lecturas de historia consultan los buckets.
+     */
+    @WriteOperation
+    public Mono<Map<String, Object>> run() {
+        if (!enabled) {
+            return Mono.fromCallable(this::status);
+        }
+        return drainer.drain(() -> repository.compactBatch(batchSize, maxPerBucket),
+                        (total, elapsed) -> lastRun = report(total, elapsed))
+                .then(Mono.fromCallable(this::status));
+    }
+
+    private static Map<String, Object> report(long total, Duration elapsed) {
+        log.info("Compactación en buckets completada: {} transacciones en {} ms", total, elapsed.toMillis());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("compacted", total);
+        body.put("elapsedMs", elapsed.toMillis());
+        body.put("finishedAt", OffsetDateTime.now());
+        return body;
+    }
+}
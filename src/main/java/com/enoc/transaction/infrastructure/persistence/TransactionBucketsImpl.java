@@ -0,0 +1,236 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.TransactionBucket;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.repository.PageCursor;
+import com.enoc.transaction.domain.repository.TransactionBuckets;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class TransactionBucketsImpl implements TransactionBuckets {
+
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+    // Marca en el archivo de las transacciones cuyo bucket ya está lleno: se quedan ahí y no se vuelven a leer.
+    private static final String OVERFLOW = "bucketOverflow";
+    private static final Document PENDING = new Document("accountId", new Document("$ne", null))
+            .append("createdAt", new Document("$type", "date"))
+            .append(OVERFLOW, new Document("$ne", true));
+    // Mismo orden que PageCursor.NEWEST_FIRST y que los índices de la colección caliente.
+    private static final Document PAGE_ORDER = new Document("createdAt", -1).append("_id", -1);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /*
+      Appends one batch of archived documents to their buckets with one pipeline upsert per bucket: the append skips ids
+      already present and stops at maxPerBucket, and the summary is recomputed from the array, so a batch replayed
+      after a crash leaves the bucket unchanged. Only the ids that ended up in a bucket are deleted from the archive;
+      the rest are flagged and stay there.
+      Agrega un lote de documentos archivados a sus buckets con un upsert de pipeline por bucket: la agregación omite
+      los ids ya presentes y se detiene en maxPerBucket, y el resumen se recalcula desde el arreglo, así un lote repetido
+      tras una caída deja el bucket igual. Del archivo solo se borran los ids que quedaron en un bucket; el resto se
+      marca y se queda ahí.
+     */
+    @Override
+    public Mono<Long> compactBatch(int batchSize, int maxPerBucket) {
+        return archive()
+                .flatMap(archive -> Flux.from(archive.find(PENDING).limit(batchSize)).collectList()
+                        .flatMap(documents -> {
+                            if (documents.isEmpty()) {
+                                return Mono.just(0L);
+                            }
+                            Map<String, List<Document>> byBucket = groupByBucket(documents);
+                            List<Object> ids = documents.stream().map(document -> document.get("_id")).collect(Collectors.toList());
+                            return buckets()
+                                    .flatMap(buckets -> Mono.from(buckets.bulkWrite(appends(byBucket, maxPerBucket), UNORDERED))
+                                            .then(packedIds(buckets, byBucket.keySet(), ids)))
+                                    .flatMap(packed -> {
+                                        List<Object> overflow = new ArrayList<>(ids);
+                                        overflow.removeAll(packed);
+                                        return Mono.from(archive.deleteMany(new Document("_id", new Document("$in", packed))))
+                                                .then(overflow.isEmpty()
+                                                        ? Mono.empty()
+                                                        : Mono.from(archive.updateMany(
+                                                                new Document("_id", new Document("$in", overflow)),
+                                                                new Document("$set", new Document(OVERFLOW, true)))));
+                                    })
+                                    .thenReturn((long) documents.size());
+                        }));
+    }
+
+    @Override
+    public Mono<Transaction> findBucketedById(String id) {
+        Object key = ObjectId.isValid(id) ? new ObjectId(id) : id;
+        return buckets()
+                .flatMap(buckets -> Mono.from(buckets.find(new Document("transactions._id", key))
+                        .projection(new Document("transactions.$", 1))
+                        .first()))
+                .flatMap(bucket -> Mono.justOrEmpty(bucket.getList("transactions", Document.class)))
+                .filter(matched -> !matched.isEmpty())
+                .map(matched -> TransactionCodec.INSTANCE.fromDocument(matched.get(0)));
+    }
+
+    /*
+      Buckets are unwound on the server, the page filter applies to the unwound transactions and the server sorts
+      them in page order with the limit, so only the page itself crosses the wire and nothing is buffered here.
+      Los buckets se desenrollan en el servidor, el filtro de la página se aplica a las transacciones desenrolladas y
+      el servidor las ordena en el orden de la página con el límite, así solo viaja la página y aquí no se acumula nada.
+     */
+    @Override
+    public Flux<Transaction> findPageInBuckets(Criteria filter, PageCursor after, int limit) {
+        if (after != null && after.getCreatedAt() == null) {
+            return Flux.empty(); // los buckets solo guardan transacciones con createdAt: un cursor sin fecha ya los dejó atrás
+        }
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Transaction.class);
+        Document transactionFilter = queryMapper.getMappedObject(filter.getCriteriaObject(), entity);
+        Document pageFilter = queryMapper.getMappedObject(
+                TransactionKeysetQueriesImpl.pageQuery(filter, after, limit).getQueryObject(), entity);
+        List<Document> pipeline = List.of(
+                new Document("$match", bucketFilter(transactionFilter, after)),
+                new Document("$unwind", "$transactions"),
+                new Document("$replaceRoot", new Document("newRoot", "$transactions")),
+                new Document("$match", pageFilter),
+                new Document("$sort", PAGE_ORDER),
+                new Document("$limit", limit));
+
+        return buckets()
+                .flatMapMany(buckets -> buckets.withDocumentClass(Transaction.class)
+                        .withCodecRegistry(TransactionCodec.REGISTRY)
+                        .aggregate(pipeline, Transaction.class)
+                        .batchSize(limit));
+    }
+
+    /*
+      Bucket-level filter derived from the page filter: equality on customer, product or account selects the buckets
+      through their indexes, and a createdAt range discards buckets whose summary does not overlap it.
+      Filtro a nivel de bucket derivado del filtro de la página: la igualdad por cliente, producto o cuenta selecciona
+      los buckets por sus índices, y un rango de createdAt descarta los buckets cuyo resumen no lo intersecta.
+     */
+    static Document bucketFilter(Document transactionFilter, PageCursor after) {
+        Document filter = new Document();
+        copyEquality(transactionFilter, "customerId", filter, "customerIds");
+        copyEquality(transactionFilter, "productId", filter, "productId");
+        copyEquality(transactionFilter, "accountId", filter, "accountId");
+        Document minCreatedAt = new Document();
+        Document maxCreatedAt = new Document();
+        Object createdAt = transactionFilter.get("createdAt");
+        if (createdAt instanceof Document) {
+            Document range = (Document) createdAt;
+            copyOperator(range, "$lt", minCreatedAt);
+            copyOperator(range, "$lte", minCreatedAt);
+            copyOperator(range, "$gt", maxCreatedAt);
+            copyOperator(range, "$gte", maxCreatedAt);
+        }
+        if (after != null) {
+            minCreatedAt.append("$lte", Date.from(after.getCreatedAt().toInstant()));
+        }
+        if (!minCreatedAt.isEmpty()) {
+            filter.append("minCreatedAt", minCreatedAt);
+        }
+        if (!maxCreatedAt.isEmpty()) {
+            filter.append("maxCreatedAt", maxCreatedAt);
+        }
+        return filter;
+    }
+
+    private static void copyEquality(Document from, String field, Document to, String target) {
+        Object value = from.get(field);
+        if (value != null && !(value instanceof Document)) {
+            to.append(target, value);
+        }
+    }
+
+    private static void copyOperator(Document range, String operator, Document to) {
+        if (range.containsKey(operator)) {
+            to.append(operator, range.get(operator));
+        }
+    }
+
+    private static Map<String, List<Document>> groupByBucket(List<Document> documents) {
+        Map<String, List<Document>> byBucket = new LinkedHashMap<>();
+        for (Document document : documents) {
+            document.remove("_class");
+            YearMonth period = YearMonth.from(document.getDate("createdAt").toInstant().atOffset(ZoneOffset.UTC));
+            byBucket.computeIfAbsent(TransactionBucket.idOf(document.getString("accountId"), period), id -> new ArrayList<>())
+                    .add(document);
+        }
+        return byBucket;
+    }
+
+    private static List<WriteModel<Document>> appends(Map<String, List<Document>> byBucket, int maxPerBucket) {
+        List<WriteModel<Document>> models = new ArrayList<>(byBucket.size());
+        byBucket.forEach((id, documents) -> models.add(new UpdateOneModel<>(new Document("_id", id),
+                append(documents, maxPerBucket), UPSERT)));
+        return models;
+    }
+
+    private static List<Document> append(List<Document> documents, int maxPerBucket) {
+        Document first = documents.get(0);
+        Document current = new Document("$ifNull", List.of("$transactions", List.of()));
+        Document fresh = new Document("$filter", new Document("input", new Document("$literal", documents))
+                .append("cond", new Document("$not", List.of(new Document("$in", List.of("$$this._id",
+                        new Document("$ifNull", List.of("$transactions._id", List.of()))))))));
+        Document active = new Document("$filter", new Document("input", "$transactions")
+                .append("cond", new Document("$eq", List.of("$$this.state", TransactionState.ACTIVE.name()))));
+        YearMonth period = YearMonth.from(first.getDate("createdAt").toInstant().atOffset(ZoneOffset.UTC));
+        return List.of(
+                new Document("$set", new Document("accountId", new Document("$literal", first.getString("accountId")))
+                        .append("period", period.toString())
+                        .append("productId", new Document("$ifNull", List.of("$productId",
+                                new Document("$literal", first.get("productId")))))
+                        .append("transactions", new Document("$slice", List.of(
+                                new Document("$concatArrays", List.of(current, fresh)), maxPerBucket)))),
+                new Document("$set", new Document("count", new Document("$size", "$transactions"))
+                        .append("sum", new Document("$sum", new Document("$map", new Document("input", active)
+                                .append("in", new Document("$toDecimal", "$$this.amount")))))
+                        .append("minCreatedAt", new Document("$min", "$transactions.createdAt"))
+                        .append("maxCreatedAt", new Document("$max", "$transactions.createdAt"))
+                        .append("customerIds", new Document("$setUnion", List.of("$transactions.customerId")))));
+    }
+
+    // Ids del lote que quedaron dentro de algún bucket, tras el upsert.
+    private static Mono<List<Object>> packedIds(MongoCollection<Document> buckets, Collection<String> bucketIds, List<Object> ids) {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("_id", new Document("$in", new ArrayList<>(bucketIds)))),
+                new Document("$project", new Document("ids", new Document("$filter",
+                        new Document("input", "$transactions._id")
+                                .append("cond", new Document("$in", List.of("$$this", new Document("$literal", ids))))))),
+                new Document("$unwind", "$ids"));
+        return Flux.from(buckets.aggregate(pipeline))
+                .map(document -> document.get("ids"))
+                .collectList();
+    }
+
+    private Mono<MongoCollection<Document>> archive() {
+        return mongoTemplate.getCollection(TransactionArchiveImpl.ARCHIVE_COLLECTION);
+    }
+
+    private Mono<MongoCollection<Document>> buckets() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(TransactionBucket.class));
+    }
+}
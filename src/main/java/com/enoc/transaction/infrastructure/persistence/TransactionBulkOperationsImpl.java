@@ -0,0 +1,73 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.repository.TransactionBulkOperations;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionBulkOperationsImpl implements TransactionBulkOperations {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /*
+      Unordered insertMany: one round trip per batch; documents already stored (redeliveries) are ignored. The
+      collection is typed as Transaction, so TransactionCodec encodes straight into the wire buffer with no
+      intermediate Document.
+      insertMany no ordenado: un viaje a la base por lote; los documentos ya almacenados (reentregas) se ignoran. La
+      colección está tipada como Transaction, así TransactionCodec codifica directo al buffer de red sin un Document
+      intermedio.
+     */
+    @Override
+    public Mono<Long> insertAllUnordered(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        for (Transaction tx : transactions) {
+            if (tx.getVersion() == null) {
+                tx.setVersion(0); // misma versión inicial que asigna ReactiveMongoRepository.save
+            }
+        }
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class))
+                .map(collection -> collection.withDocumentClass(Transaction.class).withCodecRegistry(TransactionCodec.REGISTRY))
+                .flatMap(collection -> Mono.from(collection.insertMany(transactions, new InsertManyOptions().ordered(false))))
+                .map(result -> (long) result.getInsertedIds().size())
+                .onErrorResume(MongoBulkWriteException.class, this::ignoreDuplicates);
+    }
+
+    @Override
+    public Flux<String> findExistingIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Query query = new Query(where("_id").in(ids));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Transaction.class).map(Transaction::getId);
+    }
+
+    private Mono<Long> ignoreDuplicates(MongoBulkWriteException ex) {
+        for (BulkWriteError error : ex.getWriteErrors()) {
+            if (error.getCode() != DUPLICATE_KEY) {
+                return Mono.error(ex);
+            }
+        }
+        log.warn("Documentos duplicados ignorados en inserción masiva: {}", ex.getWriteErrors().size());
+        return Mono.just((long) ex.getWriteResult().getInsertedCount());
+    }
+}
@@ -0,0 +1,365 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import com.enoc.transaction.domain.model.enums.TransactionOrigin;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.mongodb.MongoClientSettings;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Map;
+import org.bson.BsonObjectId;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+/*
+  Hand-written mapping of Transaction: amounts as Decimal128, dates as BSON dates, enums by name, nulls omitted and
+  the id as ObjectId when it is one (the same layout MappingMongoConverter produced, minus _class). Each field is a
+  branch of a switch, so neither direction goes through reflection or the converter lookup. Amounts stored as text
+  or double by earlier versions are still read and are rewritten as Decimal128 on the next save.
+  Mapeo escrito a mano de Transaction: montos como Decimal128, fechas como fechas BSON, enums por nombre, nulos
+  omitidos y el id como ObjectId cuando lo es (la misma forma que producía MappingMongoConverter, sin _class). Cada
+  campo es una rama de un switch, así ninguna dirección pasa por reflexión ni por la búsqueda de convertidores. Los
+  montos guardados como texto o double por versiones anteriores se siguen leyendo y se reescriben como Decimal128 en
+  el siguiente guardado.
+ */
+public final class TransactionCodec implements CollectibleCodec<Transaction> {
+
+    public static final TransactionCodec INSTANCE = new TransactionCodec();
+    // Registro del driver con el codec delante de los predeterminados, para colecciones tipadas como Transaction.
+    public static final CodecRegistry REGISTRY = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(INSTANCE), MongoClientSettings.getDefaultCodecRegistry());
+
+    static final String ID = "_id";
+    static final String CUSTOMER_ID = "customerId";
+    static final String DEBTOR_DNI = "debtorDni";
+    static final String PAYER_DNI = "payerDni";
+    static final String PRODUCT_ID = "productId";
+    static final String ACCOUNT_ID = "accountId";
+    static final String OPERATION_TYPE_ID = "operationTypeId";
+    static final String EVENT_DATE = "eventDate";
+    static final String DESTINATION_ACCOUNT_ID = "destinationAccountId";
+    static final String TYPE = "type";
+    static final String ORIGIN = "origin";
+    static final String STATE = "state";
+    static final String AMOUNT = "amount";
+    static final String COMMISSION_APPLIED = "commissionApplied";
+    static final String DATE = "date";
+    static final String DESCRIPTION = "description";
+    static final String STATUS = "status";
+    static final String CREATED_AT = "createdAt";
+    static final String UPDATED_AT = "updatedAt";
+    static final String VERSION = "version";
+
+    private TransactionCodec() {
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Transaction tx, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (tx.getId() != null) {
+            writer.writeName(ID);
+            if (ObjectId.isValid(tx.getId())) {
+                writer.writeObjectId(new ObjectId(tx.getId()));
+            } else {
+                writer.writeString(tx.getId());
+            }
+        }
+        writeString(writer, CUSTOMER_ID, tx.getCustomerId());
+        writeString(writer, DEBTOR_DNI, tx.getDebtorDni());
+        writeString(writer, PAYER_DNI, tx.getPayerDni());
+        writeString(writer, PRODUCT_ID, tx.getProductId());
+        writeString(writer, ACCOUNT_ID, tx.getAccountId());
+        writeString(writer, OPERATION_TYPE_ID, tx.getOperationTypeId());
+        writeDate(writer, EVENT_DATE, tx.getEventDate());
+        writeString(writer, DESTINATION_ACCOUNT_ID, tx.getDestinationAccountId());
+        writeEnum(writer, TYPE, tx.getType());
+        writeEnum(writer, ORIGIN, tx.getOrigin());
+        writeEnum(writer, STATE, tx.getState());
+        writeDecimal(writer, AMOUNT, tx.getAmount());
+        writeDecimal(writer, COMMISSION_APPLIED, tx.getCommissionApplied());
+        writeDate(writer, DATE, tx.getDate());
+        writeString(writer, DESCRIPTION, tx.getDescription());
+        writeEnum(writer, STATUS, tx.getStatus());
+        writeDate(writer, CREATED_AT, tx.getCreatedAt());
+        writeDate(writer, UPDATED_AT, tx.getUpdatedAt());
+        if (tx.getVersion() != null) {
+            writer.writeInt32(VERSION, tx.getVersion());
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Transaction decode(BsonReader reader, DecoderContext decoderContext) {
+        Transaction tx = new Transaction();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            assign(tx, reader.readName(), readValue(reader));
+        }
+        reader.readEndDocument();
+        return tx;
+    }
+
+    @Override
+    public Class<Transaction> getEncoderClass() {
+        return Transaction.class;
+    }
+
+    // Mismo criterio que Spring Data al insertar: un ObjectId nuevo en forma hexadecimal.
+    @Override
+    public Transaction generateIdIfAbsentFromDocument(Transaction tx) {
+        if (tx.getId() == null) {
+            tx.setId(new ObjectId().toHexString());
+        }
+        return tx;
+    }
+
+    @Override
+    public boolean documentHasId(Transaction tx) {
+        return tx.getId() != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(Transaction tx) {
+        if (tx.getId() == null) {
+            throw new IllegalStateException("La transacción no tiene id");
+        }
+        return ObjectId.isValid(tx.getId()) ? new BsonObjectId(new ObjectId(tx.getId())) : new BsonString(tx.getId());
+    }
+
+    /*
+      Same layout as encode, as the Document that MappingMongoConverter hands to the driver.
+      La misma forma que encode, como el Document que MappingMongoConverter entrega al driver.
+     */
+    public Document toDocument(Transaction tx) {
+        Document document = new Document();
+        if (tx.getId() != null) {
+            document.put(ID, ObjectId.isValid(tx.getId()) ? new ObjectId(tx.getId()) : tx.getId());
+        }
+        putIfPresent(document, CUSTOMER_ID, tx.getCustomerId());
+        putIfPresent(document, DEBTOR_DNI, tx.getDebtorDni());
+        putIfPresent(document, PAYER_DNI, tx.getPayerDni());
+        putIfPresent(document, PRODUCT_ID, tx.getProductId());
+        putIfPresent(document, ACCOUNT_ID, tx.getAccountId());
+        putIfPresent(document, OPERATION_TYPE_ID, tx.getOperationTypeId());
+        putIfPresent(document, EVENT_DATE, toDate(tx.getEventDate()));
+        putIfPresent(document, DESTINATION_ACCOUNT_ID, tx.getDestinationAccountId());
+        putIfPresent(document, TYPE, nameOf(tx.getType()));
+        putIfPresent(document, ORIGIN, nameOf(tx.getOrigin()));
+        putIfPresent(document, STATE, nameOf(tx.getState()));
+        putIfPresent(document, AMOUNT, toDecimal128(tx.getAmount()));
+        putIfPresent(document, COMMISSION_APPLIED, toDecimal128(tx.getCommissionApplied()));
+        putIfPresent(document, DATE, toDate(tx.getDate()));
+        putIfPresent(document, DESCRIPTION, tx.getDescription());
+        putIfPresent(document, STATUS, nameOf(tx.getStatus()));
+        putIfPresent(document, CREATED_AT, toDate(tx.getCreatedAt()));
+        putIfPresent(document, UPDATED_AT, toDate(tx.getUpdatedAt()));
+        putIfPresent(document, VERSION, tx.getVersion());
+        return document;
+    }
+
+    public Transaction fromDocument(Document document) {
+        Transaction tx = new Transaction();
+        for (Map.Entry<String, Object> field : document.entrySet()) {
+            assign(tx, field.getKey(), field.getValue());
+        }
+        return tx;
+    }
+
+    // Un campo ausente conserva el valor por defecto de la entidad (state = ACTIVE); uno desconocido, como _class, se ignora.
+    private static void assign(Transaction tx, String name, Object value) {
+        switch (name) {
+            case ID:
+                tx.setId(value instanceof ObjectId ? ((ObjectId) value).toHexString() : (String) value);
+                break;
+            case CUSTOMER_ID:
+                tx.setCustomerId((String) value);
+                break;
+            case DEBTOR_DNI:
+                tx.setDebtorDni((String) value);
+                break;
+            case PAYER_DNI:
+                tx.setPayerDni((String) value);
+                break;
+            case PRODUCT_ID:
+                tx.setProductId((String) value);
+                break;
+            case ACCOUNT_ID:
+                tx.setAccountId((String) value);
+                break;
+            case OPERATION_TYPE_ID:
+                tx.setOperationTypeId((String) value);
+                break;
+            case EVENT_DATE:
+                tx.setEventDate(toOffsetDateTime(value));
+                break;
+            case DESTINATION_ACCOUNT_ID:
+                tx.setDestinationAccountId((String) value);
+                break;
+            case TYPE:
+                tx.setType(value == null ? null : TransactionType.valueOf((String) value));
+                break;
+            case ORIGIN:
+                tx.setOrigin(value == null ? null : TransactionOrigin.valueOf((String) value));
+                break;
+            case STATE:
+                tx.setState(value == null ? null : TransactionState.valueOf((String) value));
+                break;
+            case AMOUNT:
+                tx.setAmount(toBigDecimal(value));
+                break;
+            case COMMISSION_APPLIED:
+                tx.setCommissionApplied(toBigDecimal(value));
+                break;
+            case DATE:
+                tx.setDate(toOffsetDateTime(value));
+                break;
+            case DESCRIPTION:
+                tx.setDescription((String) value);
+                break;
+            case STATUS:
+                tx.setStatus(value == null ? null : StatusEnum.valueOf((String) value));
+                break;
+            case CREATED_AT:
+                tx.setCreatedAt(toOffsetDateTime(value));
+                break;
+            case UPDATED_AT:
+                tx.setUpdatedAt(toOffsetDateTime(value));
+                break;
+            case VERSION:
+                tx.setVersion(value == null ? null : ((Number) value).intValue());
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Solo los tipos BSON que aparecen en una transacción; el resto se salta sin materializarlo.
+    private static Object readValue(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case STRING:
+                return reader.readString();
+            case OBJECT_ID:
+                return reader.readObjectId();
+            case DATE_TIME:
+                return reader.readDateTime();
+            case DECIMAL128:
+                return reader.readDecimal128();
+            case DOUBLE:
+                return reader.readDouble();
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            case NULL:
+                reader.readNull();
+                return null;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    private static void writeEnum(BsonWriter writer, String name, Enum<?> value) {
+        if (value != null) {
+            writer.writeString(name, value.name());
+        }
+    }
+
+    private static void writeDate(BsonWriter writer, String name, OffsetDateTime value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.toInstant().toEpochMilli());
+        }
+    }
+
+    private static void writeDecimal(BsonWriter writer, String name, BigDecimal value) {
+        if (value != null) {
+            writer.writeDecimal128(name, new Decimal128(value));
+        }
+    }
+
+    private static void putIfPresent(Document document, String name, Object value) {
+        if (value != null) {
+            document.put(name, value);
+        }
+    }
+
+    private static String nameOf(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    private static Date toDate(OffsetDateTime value) {
+        return value == null ? null : Date.from(value.toInstant());
+    }
+
+    private static Decimal128 toDecimal128(BigDecimal value) {
+        return value == null ? null : new Decimal128(value);
+    }
+
+    // El lector entrega las fechas como milisegundos y el Document como Date; ambas se leen en UTC, como MongoConfig.
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        if (value == null) {
+            return null;
+        }
+        long millis = value instanceof Date ? ((Date) value).getTime() : ((Number) value).longValue();
+        return Instant.ofEpochMilli(millis).atOffset(ZoneOffset.UTC);
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Decimal128) {
+            return ((Decimal128) value).bigDecimalValue();
+        }
+        if (value instanceof String) {
+            return new BigDecimal((String) value);
+        }
+        if (value instanceof Double) {
+            return BigDecimal.valueOf((Double) value);
+        }
+        return BigDecimal.valueOf(((Number) value).longValue());
+    }
+
+    @WritingConverter
+    public static final class Writer implements Converter<Transaction, Document> {
+
+        @Override
+        public Document convert(Transaction source) {
+            return INSTANCE.toDocument(source);
+        }
+    }
+
+    @ReadingConverter
+    public static final class Reader implements Converter<Document, Transaction> {
+
+        @Override
+        public Transaction convert(Document source) {
+            return INSTANCE.fromDocument(source);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.enoc.transaction.infrastructure.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.repository.PageCursor;
+import com.enoc.transaction.domain.repository.TransactionKeysetQueries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class TransactionKeysetQueriesImpl implements TransactionKeysetQueries {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /*
+      Range query on (createdAt, id) instead of skip: the index seeks straight to the cursor, so every page costs the
+      same. Documents without createdAt sort last in descending order and are paged by id alone.
+      Consulta por rango sobre (createdAt, id) en lugar de skip: el índice salta directo al cursor, así cada página
+      cuesta lo mismo. Los documentos sin createdAt quedan al final en orden descendente y se paginan solo por id.
+     */
+    @Override
+    public Flux<Transaction> findPage(Criteria filter, PageCursor after, int limit) {
+        return mongoTemplate.find(pageQuery(filter, after, limit), Transaction.class);
+    }
+
+    // El cursor se combina con $and: un filtro sin clave (new Criteria()) no admite un segundo criterio sin clave.
+    static Query pageQuery(Criteria filter, PageCursor after, int limit) {
+        Criteria criteria = filter;
+        if (after != null) {
+            criteria = filter.getCriteriaObject().isEmpty() ? after(after) : new Criteria().andOperator(filter, after(after));
+        }
+        return new Query(criteria).with(NEWEST_FIRST).limit(limit);
+    }
+
+    private static Criteria after(PageCursor cursor) {
+        if (cursor.getCreatedAt() == null) {
+            return new Criteria().andOperator(where("createdAt").is(null), where("id").lt(cursor.getId()));
+        }
+        return new Criteria().orOperator(
+                where("createdAt").lt(cursor.getCreatedAt()),
+                new Criteria().andOperator(where("createdAt").is(cursor.getCreatedAt()), where("id").lt(cursor.getId())),
+                where("createdAt").is(null));
+    }
+}
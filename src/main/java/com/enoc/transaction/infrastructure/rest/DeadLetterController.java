@@ -0,0 +1,31 @@
+package com.enoc.transaction.infrastructure.rest;
+
+import com.enoc.transaction.infrastructure.messaging.retry.DeadLetterReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/transactions/dead-letters")
+public class DeadLetterController {
+
+    private final DeadLetterReplayService replayService;
+
+    /*
+      Re-drive the records parked in the DLT of a topic back to the topic; 409 while another replay of the topic runs.
+      Reenviar al tópico los registros estacionados en su DLT; 409 mientras corre otro reenvío del mismo tópico.
+     */
+    @PostMapping("/{topic}/replay")
+    public Mono<ResponseEntity<Long>> replay(@PathVariable String topic,
+                                             @RequestParam(defaultValue = "1000") int max) {
+        if (!replayService.isKnownTopic(topic)) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return replayService.replay(topic, max)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+}
@@ -4,11 +4,14 @@ import com.enoc.transaction.application.service.TransactionService;
 import com.enoc.transaction.application.service.cache.ReactiveCachedTransactionService;
 import com.enoc.transaction.domain.model.enums.TransactionType;
 import com.enoc.transaction.dto.request.TransactionRequestDTO;
+import com.enoc.transaction.dto.response.BatchItemResult;
+import com.enoc.transaction.dto.response.TransactionPage;
 import com.enoc.transaction.dto.response.TransactionResponseDto;
 import java.time.OffsetDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
@@ -19,6 +22,8 @@ import reactor.core.publisher.Mono;
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    public static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
     private final TransactionService transactionService;
     private final ReactiveCachedTransactionService cachedService;
 
@@ -29,6 +34,18 @@ public class TransactionController {
         return request.flatMap(transactionService::create);
     }
 
+    /*
+      Create transactions in bulk from a JSON array or an NDJSON stream; per-item results stream back as they are stored.
+      Crear transacciones en lote desde un arreglo JSON o un flujo NDJSON; los resultados por elemento se devuelven a
+      medida que se almacenan.
+     */
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<BatchItemResult> createBatch(@RequestBody Flux<TransactionRequestDTO> requests) {
+        return transactionService.createBatch(requests);
+    }
+
     @GetMapping("/{id}")
     public Mono<ResponseEntity<TransactionResponseDto>> getTransactionById(@PathVariable String id) {
         return cachedService.getByIdCached(id)
@@ -37,9 +54,15 @@ public class TransactionController {
     }
 
 
+    /*
+      List transactions one page at a time; the next page token travels in the X-Next-Page-Token header.
+      Listar transacciones página a página; el token de la siguiente página viaja en la cabecera X-Next-Page-Token.
+     */
     @GetMapping
-    public Flux<TransactionResponseDto> getAll() {
-        return transactionService.findAll();
+    public Mono<ResponseEntity<List<TransactionResponseDto>>> getAll(
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer size) {
+        return toResponse(transactionService.findAll(pageToken, size));
     }
 
     @PutMapping("/{id}")
@@ -72,8 +95,11 @@ public class TransactionController {
       Obtener transacciones para un producto específico.
      */
     @GetMapping("/product/{productId}")
-    public Flux<TransactionResponseDto> getTransactionsByProductId(@PathVariable String productId) {
-        return transactionService.getTransactionsByProductId(productId);
+    public Mono<ResponseEntity<List<TransactionResponseDto>>> getTransactionsByProductId(
+            @PathVariable String productId,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer size) {
+        return toResponse(transactionService.getTransactionsByProductId(productId, pageToken, size));
     }
 
     /*
@@ -81,14 +107,28 @@ public class TransactionController {
       Obtener transacciones dentro de un rango de fechas especificado.
      */
     @GetMapping("/date-range")
-    public Flux<TransactionResponseDto> getTransactionsByDateRange(
+    public Mono<ResponseEntity<List<TransactionResponseDto>>> getTransactionsByDateRange(
             @RequestParam String start,
-            @RequestParam String end) {
+            @RequestParam String end,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer size) {
 
         OffsetDateTime startDateTime = OffsetDateTime.parse(start);
         OffsetDateTime endDateTime = OffsetDateTime.parse(end);
 
-        return transactionService.getTransactionsByDateRange(startDateTime, endDateTime);
+        return toResponse(transactionService.getTransactionsByDateRange(startDateTime, endDateTime, pageToken, size));
+    }
+
+    private static Mono<ResponseEntity<List<TransactionResponseDto>>> toResponse(Mono<TransactionPage> page) {
+        return page
+                .map(p -> {
+                    ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+                    if (p.getNextPageToken() != null) {
+                        ok.header(NEXT_PAGE_TOKEN_HEADER, p.getNextPageToken());
+                    }
+                    return ok.body(p.getItems());
+                })
+                .onErrorReturn(IllegalArgumentException.class, ResponseEntity.badRequest().build());
     }
 
 
@@ -3,24 +3,30 @@ package com.enoc.transaction.infrastructure.service;
 import com.enoc.transaction.application.event.TransactionEventPublisher;
 import com.enoc.transaction.application.service.TransactionService;
 import com.enoc.transaction.application.service.cache.ReactiveCachedTransactionService;
+import com.enoc.transaction.application.usecase.AccountBalanceProjection;
+import com.enoc.transaction.application.usecase.CustomerDebtProjection;
+import com.enoc.transaction.application.usecase.FeeCounterProjection;
+import com.enoc.transaction.application.usecase.TransactionBatchCreator;
 import com.enoc.transaction.domain.exception.BusinessException;
 import com.enoc.transaction.domain.model.Transaction;
 import com.enoc.transaction.domain.model.enums.TransactionOrigin;
 import com.enoc.transaction.domain.model.enums.TransactionState;
 import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.PageCursor;
+import com.enoc.transaction.domain.repository.TransactionKeysetQueries;
 import com.enoc.transaction.domain.repository.TransactionRepository;
+import com.enoc.transaction.domain.service.FeeSchedule;
 import com.enoc.transaction.domain.service.TransactionValidator;
 import com.enoc.transaction.dto.request.TransactionRequestDTO;
+import com.enoc.transaction.dto.response.BatchItemResult;
+import com.enoc.transaction.dto.response.TransactionPage;
 import com.enoc.transaction.dto.response.TransactionResponseDto;
 import com.enoc.transaction.events.ExternalTransferRequested;
 import com.enoc.transaction.infrastructure.mapper.TransactionMapper;
-import com.enoc.transaction.infrastructure.messaging.producer.ExternalTransferProducer;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javassist.NotFoundException;
@@ -29,9 +35,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @RequiredArgsConstructor
 @Service
@@ -42,13 +51,26 @@ public class TransactionServiceImpl implements TransactionService {
     private final TransactionRepository repository;
     private final TransactionMapper mapper;
     private final TransactionValidator validator;
-    private final ExternalTransferProducer externalTransferProducer;
     private final TransactionEventPublisher transactionEventPublisher;
+    private final TransactionalOperator transactionalOperator;
+    private final AccountBalanceProjection balanceProjection;
+    private final CustomerDebtProjection debtProjection;
+    private final FeeCounterProjection feeCounters;
+    private final FeeSchedule feeSchedule;
+    private final TransactionBatchCreator batchCreator;
     private static final Logger log = LoggerFactory.getLogger(TransactionServiceImpl.class);
 
+    @Value("${transaction.pagination.default-size}")
+    private int defaultPageSize;
 
-    @Value("${transaction.free-limit}")
-    private Double transactionLimit;
+    @Value("${transaction.pagination.max-size}")
+    private int maxPageSize;
+
+    @Value("${transaction.archive.active-retention-days}")
+    private int activeRetentionDays;
+
+    @Value("${transaction.buckets.enabled}")
+    private boolean bucketsEnabled;
 
 
     /*
@@ -81,6 +103,15 @@ public class TransactionServiceImpl implements TransactionService {
         }
     }
 
+    /*
+      Method to create many transactions at once; one result per item, in arrival order.
+      Método para crear muchas transacciones a la vez; un resultado por elemento, en orden de llegada.
+     */
+    @Override
+    public Flux<BatchItemResult> createBatch(Flux<TransactionRequestDTO> requests) {
+        return batchCreator.create(requests);
+    }
+
     @Override
     public Mono<TransactionResponseDto> createDeposit(TransactionRequestDTO request) {
         return validator.validarMontoPositivo(request)
@@ -93,10 +124,7 @@ public class TransactionServiceImpl implements TransactionService {
                     tx.setType(TransactionType.DEPOSIT);
                     tx.setState(TransactionState.ACTIVE);
                     tx.setCreatedAt(OffsetDateTime.now());
-                    return repository.save(tx)
-                            .doOnSuccess(transactionEventPublisher::publishCreated)
-                            .map(mapper::toDto)
-                            ;
+                    return saveAndPublish(tx);
                 });
     }
 
@@ -114,9 +142,7 @@ public class TransactionServiceImpl implements TransactionService {
                     tx.setAmount(request.getAmount().negate());
                     tx.setState(TransactionState.ACTIVE);
                     tx.setCreatedAt(OffsetDateTime.now());
-                    return repository.save(tx)
-                            .doOnSuccess(transactionEventPublisher::publishCreated)
-                            .map(mapper::toDto);
+                    return saveAndPublish(tx);
                 });
     }
 
@@ -127,9 +153,7 @@ public class TransactionServiceImpl implements TransactionService {
         tx.setType(TransactionType.CREDIT_CHARGE);
         tx.setState(TransactionState.ACTIVE);
         tx.setCreatedAt(OffsetDateTime.now());
-        return repository.save(tx)
-                .doOnSuccess(transactionEventPublisher::publishCreated)
-                .map(mapper::toDto);
+        return saveAndPublish(tx);
     }
 
 
@@ -166,9 +190,7 @@ public class TransactionServiceImpl implements TransactionService {
                     tx.setState(TransactionState.ACTIVE);
                     tx.setCreatedAt(OffsetDateTime.now());
 
-                    return repository.save(tx)
-                            .doOnSuccess(transactionEventPublisher::publishCreated)
-                            .map(mapper::toDto);
+                    return saveAndPublish(tx);
                 });
     }
 
@@ -179,9 +201,7 @@ public class TransactionServiceImpl implements TransactionService {
         tx.setType(TransactionType.TRANSFER_INTERNAL);
         tx.setState(TransactionState.ACTIVE);
         tx.setCreatedAt(OffsetDateTime.now());
-        return repository.save(tx)
-                .doOnSuccess(transactionEventPublisher::publishCreated)
-                .map(mapper::toDto);
+        return saveAndPublish(tx);
     }
 
     /*
@@ -203,7 +223,8 @@ public class TransactionServiceImpl implements TransactionService {
         tx.setCreatedAt(OffsetDateTime.now());
 
         return repository.save(tx)
-                .doOnNext(savedTx -> {
+                .flatMap(feeCounters::record)
+                .flatMap(savedTx -> {
                     ExternalTransferRequested event = new ExternalTransferRequested(
                             savedTx.getId(),
                             request.getAccountId(),
@@ -212,10 +233,11 @@ public class TransactionServiceImpl implements TransactionService {
                             savedTx.getAmount().doubleValue(),
                             OffsetDateTime.now().toString()
                     );
-                    externalTransferProducer.publish(event);
-                    transactionEventPublisher.publishCreated(savedTx);
-
+                    return transactionEventPublisher.publishExternalTransferRequested(savedTx, event);
                 })
+                .as(transactionalOperator::transactional)
+                .delayUntil(feeCounters::evict)
+                .delayUntil(cachedService::onCreated)
                 .map(mapper::toDto);
     }
 
@@ -227,9 +249,7 @@ public class TransactionServiceImpl implements TransactionService {
         tx.setOrigin(TransactionOrigin.DEBIT_CARD);
         tx.setState(TransactionState.ACTIVE);
         tx.setCreatedAt(OffsetDateTime.now());
-        return repository.save(tx)
-                .doOnSuccess(transactionEventPublisher::publishCreated)
-                .map(mapper::toDto);
+        return saveAndPublish(tx);
     }
 
 
@@ -244,56 +264,70 @@ public class TransactionServiceImpl implements TransactionService {
             tx.setOrigin(TransactionOrigin.DEBIT_CARD);
             tx.setState(TransactionState.ACTIVE);
             tx.setCreatedAt(OffsetDateTime.now());
-            return repository.save(tx)
-                    .doOnSuccess(transactionEventPublisher::publishCreated)
-                    .map(mapper::toDto);
+            return saveAndPublish(tx);
         }));
     }
 
 
+    /*
+      Ordered debit withdrawal: the first account (by latest activity) whose projected balance covers the amount.
+      Retiro de débito ordenado: la primera cuenta (por actividad más reciente) cuyo saldo proyectado cubre el monto.
+     */
     @Override
     public Mono<TransactionResponseDto> createDebitWithdrawalOrdered(TransactionRequestDTO request) {
-        return repository.findByProductIdAndStateOrderByCreatedAtDesc(request.getProductId(), TransactionState.ACTIVE)
-                .collectList()
-                .flatMap(transactions -> {
-                    // Agrupar por accountId y calcular saldo acumulado
-                    Map<String, BigDecimal> saldos = new LinkedHashMap<>();
-                    for (Transaction tx : transactions) {
-                        saldos.merge(tx.getAccountId(), tx.getAmount(), BigDecimal::add);
-                    }
-
-                    // Buscar la primera cuenta con saldo suficiente
-                    Optional<Map.Entry<String, BigDecimal>> cuentaValida = saldos.entrySet().stream()
-                            .filter(entry -> entry.getValue().compareTo(request.getAmount()) >= 0)
-                            .findFirst();
-
-                    if (cuentaValida.isEmpty()) {
-                        return Mono.error(new BusinessException("Saldo insuficiente en cuentas asociadas"));
-                    }
-
+        return balanceProjection.accountsOf(request.getProductId())
+                .filter(saldo -> saldo.getBalance().compareTo(request.getAmount()) >= 0)
+                .next()
+                .switchIfEmpty(Mono.error(new BusinessException("Saldo insuficiente en cuentas asociadas")))
+                .flatMap(cuentaValida -> {
                     // Crear la transacción de retiro
                     Transaction tx = mapper.mapToEntity(request);
-                    tx.setAccountId(cuentaValida.get().getKey());
+                    tx.setAccountId(cuentaValida.getAccountId());
                     tx.setAmount(request.getAmount().negate());
                     tx.setType(TransactionType.DEBIT_WITHDRAWAL);
                     tx.setState(TransactionState.ACTIVE);
                     tx.setCreatedAt(OffsetDateTime.now());
 
-                    return repository.save(tx)
-                            .doOnSuccess(transactionEventPublisher::publishCreated)
-                            .map(mapper::toDto);
+                    return saveAndPublish(tx);
                 });
     }
 
 
+    /*
+      Save, balance projection and outbox event in one Mongo transaction: a rejected debit leaves nothing behind.
+      Guardado, proyección de saldos y evento del outbox en una sola transacción de Mongo: un débito rechazado no deja
+      rastro.
+     */
+    private Mono<TransactionResponseDto> saveAndPublish(Transaction tx) {
+        return saveAndProject(tx)
+                .flatMap(transactionEventPublisher::publishCreated)
+                .as(transactionalOperator::transactional)
+                .delayUntil(debtProjection::evict)
+                .delayUntil(feeCounters::evict)
+                .delayUntil(cachedService::onCreated)
+                .map(mapper::toDto);
+    }
+
+    /*
+      Persists a new transaction and applies it to the balance, debt and fee-counter projections; callers wrap it in
+      the Mongo transaction and evict the projection caches after commit.
+      Persiste una transacción nueva y la aplica a las proyecciones de saldos, deudas y contadores de comisión; quien
+      llama la envuelve en la transacción de Mongo y desaloja las cachés de las proyecciones tras el commit.
+     */
+    private Mono<Transaction> saveAndProject(Transaction tx) {
+        return repository.save(tx)
+                .flatMap(balanceProjection::apply)
+                .flatMap(debtProjection::apply)
+                .flatMap(feeCounters::record);
+    }
+
     /*
       Method to get all transactions.
       Método para obtener todas las transacciones.
      */
     @Override
-    public Flux<TransactionResponseDto> findAll() {
-        return repository.findAll()
-                .map(mapper::toDto);
+    public Mono<TransactionPage> findAll(String pageToken, Integer size) {
+        return page(new Criteria(), pageToken, size);
     }
 
     /*
@@ -319,6 +353,7 @@ public class TransactionServiceImpl implements TransactionService {
                     }
                     // Si no tiene deuda vencida, proceder con la actualización
                     return repository.findById(id)
+                            .flatMap(balanceProjection::revert)
                             .flatMap(existing -> {
                                 existing.setAmount(request.getAmount());
                                 existing.setType(TransactionType.TRANSFER_INTERNAL);
@@ -326,6 +361,11 @@ public class TransactionServiceImpl implements TransactionService {
                                 existing.setDescription(request.getDescription());
                                 return repository.save(existing);
                             })
+                            .flatMap(balanceProjection::apply)
+                            .flatMap(debtProjection::refresh)
+                            .as(transactionalOperator::transactional)
+                            .delayUntil(debtProjection::evict)
+                            .delayUntil(cachedService::onUpdated)
                             .map(mapper::toDto);
                 });
     }
@@ -348,12 +388,7 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public Mono<Boolean> hasOverdueCreditTransactions(String customerId) {
-        return repository.existsByCustomerIdAndTypeAndDateBeforeAndState(
-                customerId,
-                TransactionType.CREDIT_CHARGE,
-                OffsetDateTime.now(),
-                TransactionState.ACTIVE
-        );
+        return debtProjection.isOverdue(customerId);
     }
 /*
     @Override
@@ -393,6 +428,11 @@ public class TransactionServiceImpl implements TransactionService {
                         transaction.setCreatedAt(OffsetDateTime.now());
 
                         return repository.save(transaction)
+                                .flatMap(balanceProjection::apply)
+                                .flatMap(debtProjection::apply)
+                                .as(transactionalOperator::transactional)
+                                .delayUntil(debtProjection::evict)
+                                .delayUntil(cachedService::onCreated)
                                 .map(mapper::toDto);
                     } else {
                         return Mono.error(new IllegalArgumentException("Debt not found or insufficient to make payment"));
@@ -432,7 +472,11 @@ public class TransactionServiceImpl implements TransactionService {
         tx.setState(TransactionState.ACTIVE);
         tx.setCreatedAt(OffsetDateTime.now(ZoneOffset.UTC));
 
-        return repository.save(tx)
+        return saveAndProject(tx)
+                .as(transactionalOperator::transactional)
+                .delayUntil(debtProjection::evict)
+                .delayUntil(feeCounters::evict)
+                .delayUntil(cachedService::onCreated)
                 .map(mapper::toDto);
     }
     /*
@@ -464,24 +508,23 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public Mono<TransactionResponseDto> processOrderedDebitWithdrawal(TransactionRequestDTO dto) {
-        return repository.findByProductIdAndStateOrderByCreatedAtDesc(dto.getProductId(), TransactionState.ACTIVE)
-                .next()
-                .flatMap(transaction -> {
-                    BigDecimal availableAmount = transaction.getAmount();
-
-                    if (availableAmount.compareTo(dto.getAmount()) < 0) {
-                        return Mono.error(new BusinessException("Insufficient funds"));
-                    }
-
-                    // Crea la transacción de retiro
+        return balanceProjection.latestAccountOf(dto.getProductId())
+                .switchIfEmpty(Mono.error(new BusinessException("Insufficient funds")))
+                .flatMap(account -> {
+                    // Crea la transacción de retiro sobre la cuenta con actividad más reciente
                     Transaction tx = mapper.mapToEntity(dto);
+                    tx.setAccountId(account.getAccountId());
                     tx.setAmount(dto.getAmount().negate()); // El monto se resta de la cuenta
                     tx.setType(TransactionType.DEBIT_WITHDRAWAL);
                     tx.setState(TransactionState.ACTIVE);
                     tx.setCreatedAt(OffsetDateTime.now(ZoneOffset.UTC));
 
-                    // Guarda la nueva transacción de retiro
-                    return repository.save(tx)
+                    // El descuento condicional de la proyección rechaza el retiro si el saldo no alcanza
+                    return saveAndProject(tx)
+                            .as(transactionalOperator::transactional)
+                            .delayUntil(debtProjection::evict)
+                            .delayUntil(feeCounters::evict)
+                            .delayUntil(cachedService::onCreated)
                             .map(mapper::toDto); // Devuelve la transacción como DTO
                 });
     }
@@ -540,32 +583,39 @@ public class TransactionServiceImpl implements TransactionService {
     public Mono<TransactionResponseDto> deleteTransactionByLogicalState(String id) {
         return repository.findByIdAndState(id, TransactionState.ACTIVE)
                 .switchIfEmpty(Mono.error(new NotFoundException("Transaction not found or already deleted")))
+                .flatMap(balanceProjection::revert)
                 .flatMap(tx -> {
                     tx.setState(TransactionState.INACTIVE);
                     return repository.save(tx);
                 })
+                .flatMap(debtProjection::refresh)
+                .as(transactionalOperator::transactional)
+                .delayUntil(debtProjection::evict)
+                .delayUntil(cachedService::onUpdated)
                 .map(mapper::toDto);
     }
 
 
     /*
-      Method to get transactions by customer ID.
-      Método para obtener las transacciones de un cliente.
+      Method to get transactions by customer ID; the pages go on into the archive, and into the buckets when enabled.
+      Método para obtener las transacciones de un cliente; las páginas siguen por el archivo y, con los buckets
+      activos, por los buckets.
      */
     @Override
-    public Flux<TransactionResponseDto> getTransactionsByCustomerId(String customerId) {
-        return repository.findByCustomerIdAndState(customerId, TransactionState.ACTIVE)
-                .map(mapper::toDto);
+    public Mono<TransactionPage> getTransactionsByCustomerId(String customerId, String pageToken, Integer size) {
+        return page(where("customerId").is(customerId).and("state").is(TransactionState.ACTIVE), pageToken, size,
+                archiveQueries());
     }
 
     /*
-      Method to get transactions by product ID.
-      Método para obtener las transacciones de un producto específico.
+      Method to get transactions by product ID; the pages go on into the archive, and into the buckets when enabled.
+      Método para obtener las transacciones de un producto específico; las páginas siguen por el archivo y, con los
+      buckets activos, por los buckets.
      */
     @Override
-    public Flux<TransactionResponseDto> getTransactionsByProductId(String productId) {
-        return repository.findByProductIdAndState(productId, TransactionState.ACTIVE)
-                .map(mapper::toDto);
+    public Mono<TransactionPage> getTransactionsByProductId(String productId, String pageToken, Integer size) {
+        return page(where("productId").is(productId).and("state").is(TransactionState.ACTIVE), pageToken, size,
+                archiveQueries());
     }
 
     /*
@@ -573,11 +623,58 @@ public class TransactionServiceImpl implements TransactionService {
       Método para obtener las transacciones dentro de un rango de fechas.
      */
     @Override
-    public Flux<TransactionResponseDto> getTransactionsByDateRange(OffsetDateTime start, OffsetDateTime end) {
-        return repository.findByCreatedAtBetweenAndState(start, end, TransactionState.ACTIVE)
-                .map(mapper::toDto);
+    public Mono<TransactionPage> getTransactionsByDateRange(OffsetDateTime start, OffsetDateTime end, String pageToken,
+                                                            Integer size) {
+        Criteria filter = where("state").is(TransactionState.ACTIVE).and("createdAt").gt(start).lt(end);
+        return page(filter, pageToken, size, reachesArchive(start)
+                ? archiveQueries()
+                : repository::findPage);
+    }
+
+    // Solo los rangos que llegan más atrás del horizonte caliente consultan también el archivo (y los buckets).
+    private boolean reachesArchive(OffsetDateTime start) {
+        return start.isBefore(OffsetDateTime.now().minusDays(activeRetentionDays));
+    }
+
+    private TransactionKeysetQueries archiveQueries() {
+        return bucketsEnabled ? repository::findPageIncludingHistory : repository::findPageIncludingArchive;
+    }
+
+    /*
+      Fetches one page ordered by (createdAt, id) descending. One extra row is read to know whether a next page exists
+      without a count query; the token points at the last row actually returned.
+      Obtiene una página ordenada por (createdAt, id) descendente. Se lee una fila extra para saber si hay página
+      siguiente sin una consulta count; el token apunta a la última fila realmente devuelta.
+     */
+    private Mono<TransactionPage> page(Criteria filter, String pageToken, Integer size) {
+        return page(filter, pageToken, size, repository::findPage);
+    }
+
+    private Mono<TransactionPage> page(Criteria filter, String pageToken, Integer size, TransactionKeysetQueries queries) {
+        int limit = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+        if (limit <= 0) {
+            return Mono.error(new IllegalArgumentException("El tamaño de página debe ser mayor que cero"));
+        }
+        return Mono.fromCallable(() -> PageCursor.decode(pageToken))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(cursor -> queries.findPage(filter, cursor.orElse(null), limit + 1).collectList())
+                .map(rows -> {
+                    boolean hasNext = rows.size() > limit;
+                    List<Transaction> items = hasNext ? rows.subList(0, limit) : rows;
+                    String next = hasNext ? PageCursor.after(items.get(limit - 1)).encode() : null;
+                    return new TransactionPage(items.stream().map(mapper::toDto).collect(Collectors.toList()), next);
+                });
     }
 
+    // Recorre todas las páginas del filtro con el cursor, de maxPageSize en maxPageSize.
+    private Flux<Transaction> allPages(Criteria filter, TransactionKeysetQueries queries) {
+        return queries.findPage(filter, null, maxPageSize).collectList()
+                .expand(rows -> rows.size() < maxPageSize
+                        ? Mono.empty()
+                        : queries.findPage(filter, PageCursor.after(rows.get(rows.size() - 1)), maxPageSize).collectList())
+                .flatMapIterable(rows -> rows);
+    }
 
     /*
       Method to get the last transaction of a customer.
@@ -589,29 +686,31 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     /*
-      Method to calculate transaction fee (if the limit of free transactions is exceeded).
-      Método para calcular la comisión de transacciones (si el límite de transacciones sin comisión es superado).
+      Method to calculate transaction fee from this month's counter of the account and type and the configured tiers.
+      Método para calcular la comisión de transacciones a partir del contador del mes de la cuenta y el tipo y de los
+      tramos configurados.
      */
     @Override
     public Mono<Double> calculateTransactionFee(String accountId, TransactionType type) {
-        return repository.countByAccountIdAndTypeIn(accountId, List.of(type.name()))
-                .flatMap(transactionCount -> {
-                    double commission = 0.0;
-                    if (transactionCount > transactionLimit) {
-                        commission = 5.0; // Comisión fija
-                    }
-                    return Mono.just(commission);
-                });
+        return feeCounters.countOf(accountId, type).map(feeSchedule::feeFor);
     }
 
     /*
-      Method to generate a consolidated balance report for a customer over a specified period.
-      Método para generar un reporte consolidado de saldo promedio diario de un cliente en un periodo determinado.
+      Method to generate a consolidated balance report for a customer over a specified period. A period that reaches
+      past the hot horizon is read with the same routing as getTransactionsByDateRange, page by page.
+      Método para generar un reporte consolidado de saldo promedio diario de un cliente en un periodo determinado. Un
+      periodo que llega más atrás del horizonte caliente se lee con el mismo enrutamiento que
+      getTransactionsByDateRange, página por página.
      */
     @Override
     public Mono<TransactionResponseDto> generateCustomerBalanceReport(String customerId, OffsetDateTime startDateTime,
                                                                       OffsetDateTime endDateTime) {
-        return repository.findByCustomerIdAndStateAndCreatedAtBetween(customerId, TransactionState.ACTIVE, startDateTime, endDateTime)
+        Flux<Transaction> transactionsInPeriod = reachesArchive(startDateTime)
+                ? allPages(where("customerId").is(customerId).and("state").is(TransactionState.ACTIVE)
+                        .and("createdAt").gt(startDateTime).lt(endDateTime), archiveQueries())
+                : repository.findByCustomerIdAndStateAndCreatedAtBetween(customerId, TransactionState.ACTIVE, startDateTime,
+                        endDateTime);
+        return transactionsInPeriod
                 .collectList() // Convertir Flux a lista
                 .flatMap(transactions -> {
                     BigDecimal totalAmount = transactions.stream()
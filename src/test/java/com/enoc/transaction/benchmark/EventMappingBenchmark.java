@@ -0,0 +1,92 @@
+package com.enoc.transaction.benchmark;
+
+import com.enoc.transaction.application.usecase.EventMappings;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.events.TransactionCreated;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.util.Utf8;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+  Compares the former per-handler mapping (builder + OffsetDateTime.parse + BigDecimal.valueOf) with the EventMapping
+  descriptors, over events whose fields are Utf8 as the Avro deserializer produces them.
+  Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+  -Dexec.mainClass=com.enoc.transaction.benchmark.EventMappingBenchmark (add -prof gc to the options for allocations).
+  Compara el mapeo anterior de cada handler con los descriptores EventMapping, sobre eventos con campos Utf8 tal como
+  los produce el deserializador Avro.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMappingBenchmark {
+
+    private static final int EVENTS = 1024;
+
+    private final TransactionCreated[] events = new TransactionCreated[EVENTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = TransactionCreated.newBuilder()
+                    .setTransactionId(new Utf8(UUID.randomUUID().toString()))
+                    .setCustomerId(new Utf8(UUID.randomUUID().toString()))
+                    .setAmount(random.nextLong(1, 10_000_000) / 100d)
+                    .setType(new Utf8("DEPOSIT"))
+                    .setTimestamp(new Utf8(OffsetDateTime.now().minusSeconds(random.nextInt(86_400)).toString()))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public Transaction legacyHandlerMapping() {
+        TransactionCreated event = nextEvent();
+        if (event.getTransactionId() == null || event.getAmount() <= 0) {
+            throw new IllegalArgumentException();
+        }
+        return Transaction.builder()
+                .id(event.getTransactionId().toString())
+                .amount(BigDecimal.valueOf(event.getAmount()))
+                .eventDate(OffsetDateTime.parse(event.getTimestamp().toString()))
+                .state(TransactionState.ACTIVE)
+                .status(StatusEnum.PENDING)
+                .build();
+    }
+
+    @Benchmark
+    public Transaction descriptorMapping() {
+        return EventMappings.TRANSACTION_CREATED.toTransaction(nextEvent());
+    }
+
+    private TransactionCreated nextEvent() {
+        TransactionCreated event = events[next];
+        next = (next + 1) & (EVENTS - 1);
+        return event;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventMappingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
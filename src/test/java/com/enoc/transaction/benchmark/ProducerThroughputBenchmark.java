@@ -0,0 +1,106 @@
+package com.enoc.transaction.benchmark;
+
+import com.enoc.transaction.events.TransactionCreated;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/*
+  Records/sec and bytes on the wire for TransactionCreated before (event-id key, client defaults) and after
+  (account key, throughput profile from application.yml) against a Kafka Testcontainer. Values are the Avro binary
+  of the event, without the 5-byte schema-registry header, so no registry is needed.
+  Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+  -Dexec.mainClass=com.enoc.transaction.benchmark.ProducerThroughputBenchmark
+  Registros/seg y bytes enviados de TransactionCreated antes (clave por id de evento, valores por defecto del
+  cliente) y después (clave por cuenta, perfil de throughput de application.yml) contra un Kafka de Testcontainers.
+ */
+public class ProducerThroughputBenchmark {
+
+    private static final int RECORDS = 200_000;
+    private static final int ACCOUNTS = 1_000;
+    private static final String TOPIC = "transaction.created.benchmark";
+
+    public static void main(String[] args) throws Exception {
+        try (KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.2.1"))) {
+            kafka.start();
+            TransactionCreated[] events = events();
+
+            Map<String, Object> baseline = new HashMap<>();
+            run("antes", kafka.getBootstrapServers(), baseline, events, event -> event.getTransactionId().toString());
+
+            Map<String, Object> throughput = new HashMap<>();
+            throughput.put(ProducerConfig.ACKS_CONFIG, "all");
+            throughput.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            throughput.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+            throughput.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, args.length > 0 ? args[0] : "lz4");
+            throughput.put(ProducerConfig.BATCH_SIZE_CONFIG, 131072);
+            throughput.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+            run("después", kafka.getBootstrapServers(), throughput, events, event -> event.getAccountId().toString());
+        }
+    }
+
+    private static void run(String label, String bootstrapServers, Map<String, Object> overrides,
+                            TransactionCreated[] events, Function<TransactionCreated, String> key) throws Exception {
+        Map<String, Object> props = new HashMap<>(overrides);
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+
+        try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(props, new StringSerializer(), new ByteArraySerializer())) {
+            long start = System.nanoTime();
+            for (TransactionCreated event : events) {
+                ByteBuffer value = event.toByteBuffer();
+                byte[] bytes = new byte[value.remaining()];
+                value.get(bytes);
+                producer.send(new ProducerRecord<>(TOPIC, key.apply(event), bytes));
+            }
+            producer.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-8s registros/seg=%,.0f | bytes enviados=%,.0f | compresión=%.3f | tamaño lote=%,.0f%n",
+                    label, events.length / seconds,
+                    metric(producer.metrics(), "outgoing-byte-total"),
+                    metric(producer.metrics(), "compression-rate-avg"),
+                    metric(producer.metrics(), "batch-size-avg"));
+        }
+    }
+
+    private static double metric(Map<MetricName, ? extends Metric> metrics, String name) {
+        return metrics.entrySet().stream()
+                .filter(entry -> entry.getKey().group().equals("producer-metrics") && entry.getKey().name().equals(name))
+                .mapToDouble(entry -> ((Number) entry.getValue().metricValue()).doubleValue())
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    private static TransactionCreated[] events() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] accounts = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = UUID.randomUUID().toString();
+        }
+        TransactionCreated[] events = new TransactionCreated[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            events[i] = TransactionCreated.newBuilder()
+                    .setTransactionId(UUID.randomUUID().toString())
+                    .setCustomerId(UUID.randomUUID().toString())
+                    .setAccountId(accounts[random.nextInt(ACCOUNTS)])
+                    .setAmount(random.nextLong(1, 10_000_000) / 100d)
+                    .setType("DEPOSIT")
+                    .setTimestamp(OffsetDateTime.now().toString())
+                    .build();
+        }
+        return events;
+    }
+}
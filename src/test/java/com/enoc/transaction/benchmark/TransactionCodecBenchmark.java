@@ -0,0 +1,188 @@
+package com.enoc.transaction.benchmark;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import com.enoc.transaction.domain.model.enums.TransactionOrigin;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.infrastructure.config.MongoConfig;
+import com.enoc.transaction.infrastructure.persistence.TransactionCodec;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/*
+  Encode and decode cost of one Transaction: the reflective MappingMongoConverter with the former date-only
+  conversions, the same converter going through TransactionCodec, and the codec alone against BSON bytes (the path of
+  insertAllUnordered).
+  Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+  -Dexec.mainClass=com.enoc.transaction.benchmark.TransactionCodecBenchmark (add -prof gc to the options for allocations).
+  Costo de codificar y decodificar una Transaction: el MappingMongoConverter reflexivo con las conversiones anteriores
+  (solo fechas), el mismo convertidor pasando por TransactionCodec y el codec solo contra bytes BSON (el camino de
+  insertAllUnordered).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionCodecBenchmark {
+
+    private static final int TRANSACTIONS = 1024;
+
+    private final Transaction[] transactions = new Transaction[TRANSACTIONS];
+    private final Document[] reflectiveDocuments = new Document[TRANSACTIONS];
+    private final Document[] codecDocuments = new Document[TRANSACTIONS];
+    private final byte[][] encoded = new byte[TRANSACTIONS][];
+    private MappingMongoConverter reflective;
+    private MappingMongoConverter withCodec;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        reflective = converter(reflectiveConversions());
+        withCodec = converter(new MongoConfig().mongoCustomConversions());
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Transaction tx = new Transaction();
+            tx.setId(UUID.randomUUID().toString());
+            tx.setCustomerId(UUID.randomUUID().toString());
+            tx.setProductId("prod-" + random.nextInt(100));
+            tx.setAccountId("acc-" + random.nextInt(1_000));
+            tx.setOperationTypeId("op-" + random.nextInt(10));
+            tx.setEventDate(now.minusSeconds(random.nextInt(86_400)));
+            tx.setType(TransactionType.DEBIT_CARD_CHARGE);
+            tx.setOrigin(TransactionOrigin.DEBIT_CARD);
+            tx.setState(TransactionState.ACTIVE);
+            tx.setAmount(BigDecimal.valueOf(random.nextLong(-10_000_000, 10_000_000), 2));
+            tx.setCommissionApplied(BigDecimal.valueOf(random.nextLong(0, 1_000), 2));
+            tx.setDescription("Compra con tarjeta");
+            tx.setStatus(StatusEnum.APPROVED);
+            tx.setCreatedAt(now.minusSeconds(random.nextInt(86_400)));
+            tx.setUpdatedAt(tx.getCreatedAt());
+            tx.setVersion(0);
+            transactions[i] = tx;
+
+            reflectiveDocuments[i] = new Document();
+            reflective.write(tx, reflectiveDocuments[i]);
+            codecDocuments[i] = new Document();
+            withCodec.write(tx, codecDocuments[i]);
+            encoded[i] = encode(tx).toByteArray();
+        }
+    }
+
+    @Benchmark
+    public Document reflectiveWrite() {
+        Document document = new Document();
+        reflective.write(transactions[next()], document);
+        return document;
+    }
+
+    @Benchmark
+    public Document codecWrite() {
+        Document document = new Document();
+        withCodec.write(transactions[next()], document);
+        return document;
+    }
+
+    @Benchmark
+    public int codecEncode() {
+        return encode(transactions[next()]).getPosition();
+    }
+
+    @Benchmark
+    public Transaction reflectiveRead() {
+        return reflective.read(Transaction.class, reflectiveDocuments[next()]);
+    }
+
+    @Benchmark
+    public Transaction codecRead() {
+        return withCodec.read(Transaction.class, codecDocuments[next()]);
+    }
+
+    @Benchmark
+    public Transaction codecDecode() {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(encoded[next()]))) {
+            return TransactionCodec.INSTANCE.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    private int next() {
+        int current = next;
+        next = (next + 1) & (TRANSACTIONS - 1);
+        return current;
+    }
+
+    private static BasicOutputBuffer encode(Transaction tx) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            TransactionCodec.INSTANCE.encode(writer, tx, EncoderContext.builder().build());
+        }
+        return buffer;
+    }
+
+    private static MappingMongoConverter converter(MongoCustomConversions conversions) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    // Las conversiones de MongoConfig antes del codec: solo OffsetDateTime <-> Date.
+    private static MongoCustomConversions reflectiveConversions() {
+        return new MongoCustomConversions(List.of(
+                new Converter<OffsetDateTime, Date>() {
+                    @Override
+                    public Date convert(OffsetDateTime source) {
+                        return Date.from(source.toInstant());
+                    }
+                },
+                new Converter<Date, OffsetDateTime>() {
+                    @Override
+                    public OffsetDateTime convert(Date source) {
+                        return source.toInstant().atOffset(ZoneOffset.UTC);
+                    }
+                }
+        ));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransactionCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
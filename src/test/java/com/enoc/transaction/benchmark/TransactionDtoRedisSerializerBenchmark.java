@@ -0,0 +1,112 @@
+package com.enoc.transaction.benchmark;
+
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import com.enoc.transaction.domain.model.enums.TransactionOrigin;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.dto.response.TransactionResponseDto;
+import com.enoc.transaction.infrastructure.config.TransactionDtoRedisSerializer;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+  Encode and decode cost of one cached TransactionResponseDto with the JSON and the binary Redis formats, for a
+  typical description and for a long one (which crosses the LZ4 threshold). The average payload size of each case is
+  printed once per fork, before the measurements.
+  Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+  -Dexec.mainClass=com.enoc.transaction.benchmark.TransactionDtoRedisSerializerBenchmark
+  Costo de codificar y decodificar un TransactionResponseDto cacheado con los formatos JSON y binario de Redis, para
+  una descripción típica y para una larga (que supera el umbral de LZ4). El tamaño medio del valor de cada caso se
+  imprime una vez por fork, antes de las mediciones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionDtoRedisSerializerBenchmark {
+
+    private static final int TRANSACTIONS = 1024;
+
+    @Param({"JSON", "BINARY"})
+    private TransactionDtoRedisSerializer.Format format;
+
+    @Param({"32", "2048"})
+    private int descriptionLength;
+
+    private final TransactionResponseDto[] dtos = new TransactionResponseDto[TRANSACTIONS];
+    private final byte[][] encoded = new byte[TRANSACTIONS][];
+    private TransactionDtoRedisSerializer serializer;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        serializer = new TransactionDtoRedisSerializer(format, 1024);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        String description = "Pago de servicios recurrente ".repeat(descriptionLength / 29 + 1).substring(0, descriptionLength);
+        long bytes = 0;
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            dtos[i] = TransactionResponseDto.builder()
+                    .id(UUID.randomUUID().toString())
+                    .customerId(UUID.randomUUID().toString())
+                    .productId("prod-" + random.nextInt(100))
+                    .accountId("acc-" + random.nextInt(1_000))
+                    .operationTypeId("op-" + random.nextInt(10))
+                    .type(TransactionType.DEBIT_CARD_CHARGE)
+                    .origin(TransactionOrigin.DEBIT_CARD)
+                    .status(StatusEnum.APPROVED)
+                    .state(TransactionState.ACTIVE)
+                    .amount(BigDecimal.valueOf(random.nextLong(-10_000_000, 10_000_000), 2))
+                    .commissionApplied(BigDecimal.valueOf(random.nextLong(0, 1_000), 2))
+                    .date(now.minusSeconds(random.nextInt(86_400)))
+                    .eventDate(now.minusSeconds(random.nextInt(86_400)))
+                    .description(description)
+                    .build();
+            encoded[i] = serializer.serialize(dtos[i]);
+            bytes += encoded[i].length;
+        }
+        System.out.printf("%n%s, descripción de %d caracteres: %d bytes por valor%n", format, descriptionLength,
+                bytes / TRANSACTIONS);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(dtos[next()]);
+    }
+
+    @Benchmark
+    public TransactionResponseDto deserialize() {
+        return serializer.deserialize(encoded[next()]);
+    }
+
+    private int next() {
+        int current = next;
+        next = (next + 1) & (TRANSACTIONS - 1);
+        return current;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransactionDtoRedisSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
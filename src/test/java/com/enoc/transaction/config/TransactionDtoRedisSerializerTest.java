@@ -0,0 +1,84 @@
+package com.enoc.transaction.config;
+
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import com.enoc.transaction.domain.model.enums.TransactionOrigin;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.dto.response.TransactionResponseDto;
+import com.enoc.transaction.infrastructure.config.TransactionDtoRedisSerializer;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionDtoRedisSerializerTest {
+
+    private final TransactionDtoRedisSerializer json =
+            new TransactionDtoRedisSerializer(TransactionDtoRedisSerializer.Format.JSON, 1024);
+    private final TransactionDtoRedisSerializer binary =
+            new TransactionDtoRedisSerializer(TransactionDtoRedisSerializer.Format.BINARY, 1024);
+
+    @Test
+    void binaryShouldRoundTripEveryFieldAndBeSmallerThanJson() {
+        TransactionResponseDto dto = dto("Compra con tarjeta");
+
+        byte[] encoded = binary.serialize(dto);
+        TransactionResponseDto decoded = binary.deserialize(encoded);
+
+        assertThat(decoded).isEqualTo(dto);
+        assertThat(decoded.getDate()).isEqualTo(dto.getDate());
+        assertThat(decoded.getEventDate()).isEqualTo(dto.getEventDate());
+        assertThat(decoded.getAmount()).isEqualTo(new BigDecimal("-1234.56"));
+        assertThat(decoded.getPayerDni()).isNull();
+        assertThat(encoded.length).isLessThan(json.serialize(dto).length / 2);
+    }
+
+    @Test
+    void eachSerializerShouldReadWhatTheOtherWrote() {
+        TransactionResponseDto dto = dto("Transferencia");
+
+        assertThat(binary.deserialize(json.serialize(dto))).isEqualTo(dto);
+        assertThat(json.deserialize(binary.serialize(dto))).isEqualTo(dto);
+    }
+
+    @Test
+    void largeValuesShouldBeCompressedWithLz4() {
+        TransactionResponseDto dto = dto("Pago recurrente de servicios ".repeat(100));
+
+        byte[] encoded = binary.serialize(dto);
+
+        assertThat(encoded.length).isLessThan(dto.getDescription().length() / 4);
+        assertThat(binary.deserialize(encoded)).isEqualTo(dto);
+    }
+
+    @Test
+    void unknownFormatVersionShouldFail() {
+        byte[] encoded = binary.serialize(dto("Compra"));
+        encoded[1] = 99;
+
+        assertThatThrownBy(() -> binary.deserialize(encoded)).isInstanceOf(SerializationException.class);
+    }
+
+    private static TransactionResponseDto dto(String description) {
+        return TransactionResponseDto.builder()
+                .id("6650f0c2a1b2c3d4e5f60718")
+                .customerId("cust-42")
+                .productId("prod-7")
+                .accountId("acc-913")
+                .operationTypeId("op-3")
+                .type(TransactionType.DEBIT_CARD_CHARGE)
+                .origin(TransactionOrigin.DEBIT_CARD)
+                .status(StatusEnum.APPROVED)
+                .state(TransactionState.ACTIVE)
+                .amount(new BigDecimal("-1234.56"))
+                .commissionApplied(new BigDecimal("2.50"))
+                .date(OffsetDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000, ZoneOffset.ofHours(-5)))
+                .eventDate(OffsetDateTime.of(2025, 3, 14, 14, 26, 53, 0, ZoneOffset.UTC))
+                .description(description)
+                .averageBalance(150.25)
+                .build();
+    }
+}
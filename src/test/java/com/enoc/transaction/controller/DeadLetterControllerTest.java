@@ -0,0 +1,64 @@
+package com.enoc.transaction.controller;
+
+import com.enoc.transaction.infrastructure.messaging.retry.DeadLetterReplayService;
+import com.enoc.transaction.infrastructure.rest.DeadLetterController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(DeadLetterController.class)
+@TestPropertySource(properties = {
+        "spring.cloud.config.enabled=false"
+})
+class DeadLetterControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private DeadLetterReplayService replayService;
+
+    @Test
+    void replayShouldReturnHowManyRecordsWereResent() {
+        when(replayService.isKnownTopic("transaction.created")).thenReturn(true);
+        when(replayService.replay("transaction.created", 50)).thenReturn(Mono.just(12L));
+
+        webTestClient.post()
+                .uri("/api/transactions/dead-letters/transaction.created/replay?max=50")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Long.class).isEqualTo(12L);
+    }
+
+    @Test
+    void replayOfAnUnknownTopicShouldReturn404() {
+        when(replayService.isKnownTopic("otro.topico")).thenReturn(false);
+
+        webTestClient.post()
+                .uri("/api/transactions/dead-letters/otro.topico/replay")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        verify(replayService, never()).replay(anyString(), anyInt());
+    }
+
+    @Test
+    void replayWhileAnotherRunsShouldReturn409() {
+        when(replayService.isKnownTopic("transaction.created")).thenReturn(true);
+        when(replayService.replay("transaction.created", 1000)).thenReturn(Mono.empty());
+
+        webTestClient.post()
+                .uri("/api/transactions/dead-letters/transaction.created/replay")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+}
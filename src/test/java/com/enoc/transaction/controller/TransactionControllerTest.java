@@ -6,6 +6,8 @@ import com.enoc.transaction.domain.model.enums.StatusEnum;
 import com.enoc.transaction.domain.model.enums.TransactionOrigin;
 import com.enoc.transaction.domain.model.enums.TransactionType;
 import com.enoc.transaction.dto.request.TransactionRequestDTO;
+import com.enoc.transaction.dto.response.BatchItemResult;
+import com.enoc.transaction.dto.response.TransactionPage;
 import com.enoc.transaction.dto.response.TransactionResponseDto;
 import com.enoc.transaction.infrastructure.rest.TransactionController;
 import java.math.BigDecimal;
@@ -16,10 +18,12 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -117,18 +121,31 @@ public class TransactionControllerTest {
                 .amount(BigDecimal.valueOf(200))
                 .build();
 
-        when(transactionService.findAll()).thenReturn(Flux.just(tx1, tx2));
+        when(transactionService.findAll(null, null)).thenReturn(Mono.just(new TransactionPage(List.of(tx1, tx2), "next")));
 
-        // Act & Assert: Validate the response body
+        // Act & Assert: Validate the response body and the continuation header
         webTestClient.get()
                 .uri("/api/transactions")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals(TransactionController.NEXT_PAGE_TOKEN_HEADER, "next")
                 .expectBodyList(TransactionResponseDto.class)
                 .hasSize(2)
                 .contains(tx1, tx2);
     }
 
+    // 3b. Test: Invalid page token (Token de página inválido)
+    @Test
+    void getAllShouldReturnBadRequestWhenPageTokenIsInvalid() {
+        when(transactionService.findAll("broken", null))
+                .thenReturn(Mono.error(new IllegalArgumentException("Token de página inválido")));
+
+        webTestClient.get()
+                .uri("/api/transactions?pageToken=broken")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     // 4. Test: Update transaction (Actualizar transacción)
     @Test
     void updateShouldReturnUpdatedTransaction() {
@@ -218,7 +235,8 @@ public class TransactionControllerTest {
                 .build();
 
         // Simular la respuesta del servicio
-        when(transactionService.getTransactionsByProductId("P001")).thenReturn(Flux.just(tx1, tx2));
+        when(transactionService.getTransactionsByProductId("P001", null, null))
+                .thenReturn(Mono.just(new TransactionPage(List.of(tx1, tx2), null)));
 
         // Act & Assert: Verificar la respuesta de la API
         webTestClient.get()
@@ -252,8 +270,8 @@ public class TransactionControllerTest {
                 .build();
 
         // Simula la respuesta del servicio
-        when(transactionService.getTransactionsByDateRange(startDate, endDate))
-                .thenReturn(Flux.just(tx1, tx2));
+        when(transactionService.getTransactionsByDateRange(startDate, endDate, null, null))
+                .thenReturn(Mono.just(new TransactionPage(List.of(tx1, tx2), null)));
 
         // Act & Assert: Realizar la solicitud y verificar la respuesta
         webTestClient.get()
@@ -364,7 +382,49 @@ public class TransactionControllerTest {
                 .isEqualTo(expectedResponse);
     }
 
-}
+    @Test
+    void createBatchShouldAcceptNdjsonAndStreamOneResultPerItem() {
+        when(transactionService.createBatch(any())).thenAnswer(invocation -> {
+            Flux<TransactionRequestDTO> requests = invocation.getArgument(0);
+            return requests.index().map(item -> item.getT1() == 0
+                    ? BatchItemResult.approved(0, TransactionResponseDto.builder().id("tx1").build())
+                    : BatchItemResult.rejected(item.getT1(), "Cliente tiene deudas vencidas"));
+        });
 
+        String body = "{\"type\":\"DEPOSIT\",\"amount\":100,\"customerId\":\"C001\"}\n"
+                + "{\"type\":\"DEPOSIT\",\"amount\":50,\"customerId\":\"C002\"}\n";
 
+        webTestClient.post()
+                .uri("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .assertNext(line -> assertThat(line).contains("\"status\":\"APPROVED\"").contains("tx1"))
+                .assertNext(line -> assertThat(line).contains("\"status\":\"REJECTED\"").contains("deudas vencidas"))
+                .verifyComplete();
+    }
 
+    @Test
+    void createBatchShouldAcceptAJsonArray() {
+        when(transactionService.createBatch(any())).thenAnswer(invocation -> {
+            Flux<TransactionRequestDTO> requests = invocation.getArgument(0);
+            return requests.index().map(item -> BatchItemResult.approved(item.getT1(), TransactionResponseDto.builder().build()));
+        });
+
+        webTestClient.post()
+                .uri("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new TransactionRequestDTO(), new TransactionRequestDTO(), new TransactionRequestDTO()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[2].index").isEqualTo(2);
+    }
+}
@@ -0,0 +1,104 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.events.TransactionCreated;
+import com.enoc.transaction.infrastructure.messaging.consumer.ConsumerMetrics;
+import com.enoc.transaction.infrastructure.messaging.consumer.ConsumerMetrics.ConsumerMeters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsumerMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ConsumerMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ConsumerMetrics(registry);
+    }
+
+    @Test
+    void forConsumerShouldReuseTheMetersOfATopicAndHandler() {
+        ConsumerMeters meters = metrics.forConsumer("transaction.created", "Handler");
+
+        assertThat(metrics.forConsumer("transaction.created", "Handler")).isSameAs(meters);
+        assertThat(metrics.forConsumer("transaction.created-retry-0", "Handler")).isNotSameAs(meters);
+    }
+
+    @Test
+    void timeShouldCountTheRecordsOfASuccessfulHandlingAndStartOnSubscription() {
+        ConsumerMeters meters = metrics.forConsumer("transaction.created", "Handler");
+        AtomicBoolean subscribed = new AtomicBoolean();
+
+        Mono<String> timed = meters.time(Mono.fromCallable(() -> {
+            subscribed.set(true);
+            return "ok";
+        }).delayElement(Duration.ofMillis(50)), 3);
+
+        assertThat(subscribed).isFalse();
+        StepVerifier.create(timed).expectNext("ok").verifyComplete();
+        assertThat(counter("transaction.consumer.records")).isEqualTo(3.0);
+        assertThat(counter("transaction.consumer.failures")).isZero();
+        assertThat(registry.get("transaction.consumer.handler.latency").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(50.0);
+    }
+
+    @Test
+    void timeShouldCountTheRecordsOfAFailedHandlingAsFailures() {
+        ConsumerMeters meters = metrics.forConsumer("transaction.created", "Handler");
+
+        StepVerifier.create(meters.time(Mono.error(new IllegalStateException("Mongo no disponible")), 4))
+                .verifyError(IllegalStateException.class);
+
+        assertThat(counter("transaction.consumer.failures")).isEqualTo(4.0);
+        assertThat(counter("transaction.consumer.records")).isZero();
+        assertThat(registry.get("transaction.consumer.handler.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void persistedShouldMeasureFromTheEventTimestampAndIgnoreUnreadableOnes() {
+        ConsumerMeters meters = metrics.forConsumer("transaction.created", "Handler");
+
+        meters.persisted(event(OffsetDateTime.now().minusSeconds(2).toString()));
+        meters.persisted(event("ayer"));
+        meters.persisted("sin esquema");
+
+        assertThat(registry.get("transaction.consumer.end-to-end.latency").timer().count()).isEqualTo(1);
+        assertThat(registry.get("transaction.consumer.end-to-end.latency").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(2000.0);
+    }
+
+    @Test
+    void batchAndSkippedShouldBeRecordedUnderTheConsumerTags() {
+        ConsumerMeters meters = metrics.forConsumer("transaction.created", "Handler");
+
+        meters.batch(25);
+        meters.skipped();
+
+        assertThat(registry.get("transaction.consumer.batch.size").tag("topic", "transaction.created").summary().totalAmount())
+                .isEqualTo(25.0);
+        assertThat(registry.get("transaction.consumer.skipped").tag("handler", "Handler").counter().count()).isEqualTo(1.0);
+    }
+
+    private double counter(String name) {
+        return registry.get(name).tag("topic", "transaction.created").counter().count();
+    }
+
+    private static TransactionCreated event(String timestamp) {
+        return TransactionCreated.newBuilder()
+                .setTransactionId("tx1")
+                .setCustomerId("cust1")
+                .setAmount(10.0)
+                .setType("DEPOSIT")
+                .setTimestamp(timestamp)
+                .build();
+    }
+}
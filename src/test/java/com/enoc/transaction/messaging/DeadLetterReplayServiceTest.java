@@ -0,0 +1,147 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.infrastructure.messaging.consumer.ReactiveEventConsumer;
+import com.enoc.transaction.infrastructure.messaging.retry.DeadLetterReplayService;
+import com.enoc.transaction.infrastructure.messaging.retry.RetryTopicRouter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterReplayServiceTest {
+
+    private static final String TOPIC = "transaction.created";
+    private static final String DLT = TOPIC + "-dlt";
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final Set<Long> acknowledged = ConcurrentHashMap.newKeySet();
+    private Function<ReceiverOptions<String, Object>, Flux<ReceiverRecord<String, Object>>> dlt;
+    private DeadLetterReplayService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        SettableListenableFuture<SendResult<String, Object>> sent = new SettableListenableFuture<>();
+        sent.set(null);
+        lenient().when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sent);
+        ReactiveEventConsumer<?> consumer = mock(ReactiveEventConsumer.class);
+        lenient().when(consumer.topic()).thenReturn(TOPIC);
+        service = new DeadLetterReplayService(new KafkaProperties(), kafkaTemplate, new RetryTopicRouter(kafkaTemplate, 3, 1000, 2.0),
+                List.of(consumer)) {
+            @Override
+            protected Flux<ReceiverRecord<String, Object>> receive(ReceiverOptions<String, Object> options) {
+                return dlt.apply(options);
+            }
+        };
+        ReflectionTestUtils.setField(service, "replayIdleTimeoutMs", 100L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replayShouldResendParkedRecordsToTheMainTopicUpToTheLimit() {
+        dlt = options -> {
+            assertThat(options.subscriptionTopics()).containsExactly(DLT);
+            assertThat(options.groupId()).isEqualTo(DLT + "-replay");
+            return assigned(options).thenMany(Flux.just(record(0), record(1), record(2)));
+        };
+
+        StepVerifier.create(service.replay(TOPIC, 2))
+                .expectNext(2L)
+                .verifyComplete();
+
+        ArgumentCaptor<ProducerRecord<String, Object>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(sent.capture());
+        assertThat(sent.getAllValues()).extracting(ProducerRecord::topic).containsOnly(TOPIC);
+        assertThat(sent.getAllValues()).extracting(ProducerRecord::key).containsExactly("key-0", "key-1");
+        assertThat(acknowledged).containsExactlyInAnyOrder(0L, 1L);
+        assertThat(service.isKnownTopic(TOPIC)).isTrue();
+        assertThat(service.isKnownTopic(DLT)).isFalse();
+    }
+
+    @Test
+    void theIdleTimeoutShouldOnlyStartOnceThePartitionsAreAssigned() {
+        dlt = options -> Mono.delay(Duration.ofMillis(300))
+                .then(assigned(options))
+                .thenMany(Flux.concat(Mono.delay(Duration.ofMillis(50)).thenReturn(record(0)), Flux.never()));
+
+        StepVerifier.create(service.replay(TOPIC, 10))
+                .expectNext(1L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void aReplayRequestedWhileAnotherRunsShouldCompleteEmpty() {
+        dlt = options -> Flux.never();
+        Disposable running = service.replay(TOPIC, 10).subscribe();
+
+        StepVerifier.create(service.replay(TOPIC, 10)).verifyComplete();
+
+        running.dispose();
+        dlt = options -> assigned(options).thenMany(Flux.just(record(0)));
+        StepVerifier.create(service.replay(TOPIC, 10))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    private static Mono<Void> assigned(ReceiverOptions<String, Object> options) {
+        return Mono.fromRunnable(() -> options.assignListeners().forEach(listener -> listener.accept(List.of())));
+    }
+
+    private ReceiverRecord<String, Object> record(long offset) {
+        ConsumerRecord<String, Object> consumerRecord = new ConsumerRecord<>(DLT, 0, offset, "key-" + offset, "value");
+        return new ReceiverRecord<>(consumerRecord, new ReceiverOffset() {
+            @Override
+            public TopicPartition topicPartition() {
+                return new TopicPartition(DLT, 0);
+            }
+
+            @Override
+            public long offset() {
+                return offset;
+            }
+
+            @Override
+            public void acknowledge() {
+                acknowledged.add(offset);
+            }
+
+            @Override
+            public Mono<Void> commit() {
+                acknowledge();
+                return Mono.empty();
+            }
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.infrastructure.messaging.consumer.ConsumerMetrics;
+import com.enoc.transaction.infrastructure.messaging.consumer.KafkaIngestionEngine;
+import com.enoc.transaction.infrastructure.messaging.consumer.ReactiveEventConsumer;
+import com.enoc.transaction.infrastructure.messaging.retry.RetryTopicRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaIngestionEngineTest {
+
+    private static final String TOPIC = "test.topic";
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final Map<Integer, Queue<Long>> processed = new ConcurrentHashMap<>();
+    private final Set<String> acknowledged = ConcurrentHashMap.newKeySet();
+
+    private final ReactiveEventConsumer<String> consumer = new ReactiveEventConsumer<>() {
+        @Override
+        public String topic() {
+            return TOPIC;
+        }
+
+        @Override
+        public String groupId() {
+            return "test-group";
+        }
+
+        @Override
+        public String handlerName() {
+            return "TestHandler";
+        }
+
+        @Override
+        public Mono<Void> consume(ConsumerRecord<String, String> record) {
+            return Mono.delay(Duration.ofMillis(1))
+                    .doOnNext(tick -> processed.computeIfAbsent(record.partition(), partition -> new ConcurrentLinkedQueue<>())
+                            .add(record.offset()))
+                    .then();
+        }
+    };
+
+    private KafkaIngestionEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void moreAssignedPartitionsThanPrefetchedRecordsShouldAllBeConsumedInOrder() {
+        List<ReceiverRecord<String, String>> records = new ArrayList<>();
+        for (long offset = 0; offset < 100; offset++) {
+            for (int partition = 0; partition < 40; partition++) {
+                records.add(record(TOPIC, partition, offset, 0));
+            }
+        }
+        engine = engine(Flux.fromIterable(records), Flux.never());
+
+        engine.start();
+
+        awaitAcknowledged(4000);
+        assertThat(processed).hasSize(40);
+        processed.values().forEach(offsets -> assertThat(new ArrayList<>(offsets)).hasSize(100).isSorted());
+    }
+
+    @Test
+    void retryRecordsShouldWaitUntilDueAndThenBeHandledAgain() {
+        long dueAt = System.currentTimeMillis() + 200;
+        engine = engine(Flux.never(), Flux.just(record(TOPIC + "-retry-0", 0, 7, dueAt)));
+
+        engine.start();
+
+        awaitAcknowledged(1);
+        assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(dueAt);
+        assertThat(processed.get(0)).containsExactly(7L);
+        assertThat(acknowledged).containsExactly(TOPIC + "-retry-0-0@7");
+    }
+
+    private KafkaIngestionEngine engine(Flux<ReceiverRecord<String, String>> main, Flux<ReceiverRecord<String, String>> retries) {
+        KafkaIngestionEngine engine = new KafkaIngestionEngine(new KafkaProperties(), List.of(consumer),
+                new RetryTopicRouter(kafkaTemplate, 1, 100, 2.0), new ConsumerMetrics(new SimpleMeterRegistry())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected <V> Flux<ReceiverRecord<String, V>> receive(ReceiverOptions<String, V> options) {
+                Flux<?> source = options.groupId().endsWith("-retry") ? retries : main;
+                return (Flux<ReceiverRecord<String, V>>) source;
+            }
+        };
+        ReflectionTestUtils.setField(engine, "keyOrderedLanes", 1);
+        ReflectionTestUtils.setField(engine, "commitIntervalMs", 1000L);
+        ReflectionTestUtils.setField(engine, "commitBatchSize", 100);
+        return engine;
+    }
+
+    private void awaitAcknowledged(int expected) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (acknowledged.size() < expected && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(acknowledged).hasSize(expected);
+    }
+
+    private ReceiverRecord<String, String> record(String topic, int partition, long offset, long dueAt) {
+        ConsumerRecord<String, String> consumerRecord = new ConsumerRecord<>(topic, partition, offset, "key-" + partition, "value");
+        if (dueAt > 0) {
+            consumerRecord.headers().add(RetryTopicRouter.HEADER_DUE_AT, ByteBuffer.allocate(Long.BYTES).putLong(dueAt).array());
+        }
+        return new ReceiverRecord<>(consumerRecord, new TestOffset(new TopicPartition(topic, partition), offset));
+    }
+
+    private class TestOffset implements ReceiverOffset {
+
+        private final TopicPartition topicPartition;
+        private final long offset;
+
+        TestOffset(TopicPartition topicPartition, long offset) {
+            this.topicPartition = topicPartition;
+            this.offset = offset;
+        }
+
+        @Override
+        public TopicPartition topicPartition() {
+            return topicPartition;
+        }
+
+        @Override
+        public long offset() {
+            return offset;
+        }
+
+        @Override
+        public void acknowledge() {
+            acknowledged.add(topicPartition + "@" + offset);
+        }
+
+        @Override
+        public Mono<Void> commit() {
+            acknowledge();
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.events.DebitCardPaymentRequested;
+import com.enoc.transaction.events.ExternalTransferRequested;
+import com.enoc.transaction.events.TransactionCreated;
+import com.enoc.transaction.infrastructure.messaging.producer.KeyedEventProducer;
+import org.apache.avro.Schema;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyedEventProducerTest {
+
+    private final KeyedEventProducer producer = new KeyedEventProducer("transaction.created", "transfer.external.requested",
+            "credit.payment.requested", "debit-card.payment.requested", "ordered-debit.withdrawal.requested",
+            "third-party.credit.payment.requested");
+
+    @Test
+    void eachEventTypeShouldGoToItsTopicKeyedByTheAccountOrProductItAffects() {
+        TransactionCreated created = new TransactionCreated("TX1", "CUST1", 150.5, "DEPOSIT", "2024-05-01T10:15:30Z", "ACC1");
+        ExternalTransferRequested transfer = new ExternalTransferRequested("TX2", "ACC2", "DEST1", "BANK1", 99.9,
+                "2024-05-01T10:15:30Z");
+        DebitCardPaymentRequested payment = new DebitCardPaymentRequested("PAY1", "4111", "CUST1", "MERCH1", 20.0, "PEN",
+                "2024-05-01T10:15:30Z");
+
+        assertThat(producer.topicOf(created)).isEqualTo("transaction.created");
+        assertThat(producer.keyOf(created)).isEqualTo("ACC1");
+        assertThat(producer.topicOf(transfer)).isEqualTo("transfer.external.requested");
+        assertThat(producer.keyOf(transfer)).isEqualTo("ACC2");
+        assertThat(producer.topicOf(payment)).isEqualTo("debit-card.payment.requested");
+        assertThat(producer.keyOf(payment)).isEqualTo("4111");
+    }
+
+    @Test
+    void anEventWithoutAccountShouldFallBackToItsOwnId() {
+        TransactionCreated created = new TransactionCreated("TX1", "CUST1", 150.5, "DEPOSIT", "2024-05-01T10:15:30Z", null);
+
+        assertThat(producer.keyOf(created)).isEqualTo("TX1");
+        created.setAccountId("");
+        assertThat(producer.keyOf(created)).isEqualTo("TX1");
+    }
+
+    @Test
+    void anEventTypeWithoutRouteShouldBeRejected() {
+        SpecificRecordBase unknown = new SpecificRecordBase() {
+            @Override
+            public Schema getSchema() {
+                return Schema.createRecord("Unknown", null, "com.enoc.transaction.events", false);
+            }
+
+            @Override
+            public Object get(int field) {
+                return null;
+            }
+
+            @Override
+            public void put(int field, Object value) {
+            }
+        };
+
+        assertThatThrownBy(() -> producer.topicOf(unknown))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("com.enoc.transaction.events.Unknown");
+    }
+}
@@ -0,0 +1,32 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.events.ExternalTransferRequested;
+import com.enoc.transaction.events.TransactionCreated;
+import com.enoc.transaction.infrastructure.messaging.outbox.OutboxPayloads;
+import org.apache.avro.specific.SpecificRecord;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboxPayloadsTest {
+
+    @Test
+    void decodeShouldRestoreTheEncodedEvent() {
+        TransactionCreated created = new TransactionCreated("TX1", "CUST1", 150.5, "DEPOSIT", "2024-05-01T10:15:30Z",
+                "ACC1");
+        ExternalTransferRequested transfer = new ExternalTransferRequested("TX2", "ACC1", "DEST1", "BANK1", 99.9,
+                "2024-05-01T10:15:30Z");
+
+        for (SpecificRecord event : new SpecificRecord[] {created, transfer}) {
+            SpecificRecord decoded = OutboxPayloads.decode(event.getSchema().getFullName(), OutboxPayloads.encode(event));
+
+            assertThat(decoded).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void decodeShouldRejectUnregisteredEventTypes() {
+        assertThatThrownBy(() -> OutboxPayloads.decode("com.enoc.Unknown", new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,155 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.domain.model.OutboxEvent;
+import com.enoc.transaction.domain.model.enums.OutboxStatus;
+import com.enoc.transaction.events.TransactionCreated;
+import com.enoc.transaction.infrastructure.messaging.outbox.OutboxPayloads;
+import com.enoc.transaction.infrastructure.messaging.outbox.OutboxRelay;
+import com.enoc.transaction.infrastructure.messaging.producer.ReactiveEventPublisher;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.SenderRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private ReactiveEventPublisher publisher;
+
+    private SimpleMeterRegistry registry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(mongoTemplate, publisher, registry);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "pollIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(relay, "leaseMs", 30_000L);
+        ReflectionTestUtils.setField(relay, "retryBackoffMs", 5_000L);
+        lenient().when(mongoTemplate.findDistinct(any(Query.class), eq("messageKey"), eq(OutboxEvent.class), eq(String.class)))
+                .thenReturn(Flux.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aFailedEventShouldHoldBackTheLaterEventsOfItsKeyButNotOtherKeys() {
+        List<OutboxEvent> events = List.of(event("e1", "acc1"), event("e2", "acc1"), event("e3", "acc1"), event("e4", "acc2"));
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(Flux.fromIterable(events));
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(OutboxEvent.class)))
+                .thenReturn(Mono.<UpdateResult>empty());
+        when(publisher.sendBatch(any())).thenAnswer(invocation -> invocation
+                .<Flux<SenderRecord<String, Object, OutboxEvent>>>getArgument(0)
+                .map(record -> ReactiveEventPublisherTest.result(record.correlationMetadata(),
+                        "e2".equals(record.correlationMetadata().getId()) ? new TimeoutException("sin confirmación") : null)));
+
+        relay.start();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, timeout(5_000).times(3)).updateMulti(queries.capture(), updates.capture(), eq(OutboxEvent.class));
+        // 0: reclamo del lease, 1: publicados, 2: pospuestos
+        assertThat(((Update) updates.getAllValues().get(1)).getUpdateObject().get("$set", Document.class).get("status"))
+                .isEqualTo(OutboxStatus.PUBLISHED);
+        assertThat(idsOf(queries.getAllValues().get(1))).containsExactlyInAnyOrder("e1", "e4");
+        assertThat(idsOf(queries.getAllValues().get(2))).containsExactlyInAnyOrder("e2", "e3");
+        assertThat(registry.get("transaction.outbox.events").tag("result", "published").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("transaction.outbox.events").tag("result", "failed").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void aKeyWithAPostponedEventShouldNotBeClaimedUntilThatEventIsDue() {
+        when(mongoTemplate.findDistinct(any(Query.class), eq("messageKey"), eq(OutboxEvent.class), eq(String.class)))
+                .thenReturn(Flux.just("acc1"));
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(Flux.just(event("e4", "acc2")), Flux.empty());
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(OutboxEvent.class)))
+                .thenReturn(Mono.<UpdateResult>empty());
+
+        relay.start();
+
+        ArgumentCaptor<Query> blocked = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Query> candidates = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, timeout(5_000)).findDistinct(blocked.capture(), eq("messageKey"), eq(OutboxEvent.class), eq(String.class));
+        verify(mongoTemplate, timeout(5_000).times(2)).find(candidates.capture(), eq(OutboxEvent.class));
+        assertThat(blocked.getValue().getQueryObject().get("status")).isEqualTo(OutboxStatus.PENDING);
+        assertThat(blocked.getValue().getQueryObject().get("leaseUntil", Document.class)).containsKey("$gte");
+        assertThat(candidates.getAllValues().get(0).getQueryObject().get("messageKey"))
+                .isEqualTo(new Document("$nin", List.of("acc1")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void anUndecodablePayloadShouldBeMarkedFailedWithoutHoldingItsKeyBack() {
+        OutboxEvent unknown = event("e1", "acc1");
+        unknown.setEventType("com.enoc.transaction.events.Unknown");
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(Flux.just(unknown, event("e2", "acc1")));
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(OutboxEvent.class)))
+                .thenReturn(Mono.<UpdateResult>empty());
+        when(publisher.sendBatch(any())).thenAnswer(invocation -> invocation
+                .<Flux<SenderRecord<String, Object, OutboxEvent>>>getArgument(0)
+                .map(record -> ReactiveEventPublisherTest.result(record.correlationMetadata(), null)));
+
+        relay.start();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, timeout(5_000).times(3)).updateMulti(queries.capture(), updates.capture(), eq(OutboxEvent.class));
+        // 0: reclamo del lease, 1: publicados, 2: rechazados
+        assertThat(idsOf(queries.getAllValues().get(1))).containsExactly("e2");
+        assertThat(idsOf(queries.getAllValues().get(2))).containsExactly("e1");
+        assertThat(((Update) updates.getAllValues().get(2)).getUpdateObject().get("$set", Document.class).get("status"))
+                .isEqualTo(OutboxStatus.FAILED);
+        assertThat(registry.get("transaction.outbox.events").tag("result", "rejected").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("transaction.outbox.events").tag("result", "failed").counter().count()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> idsOf(Query query) {
+        return Set.copyOf((Collection<String>) query.getQueryObject().get("id", Document.class).get("$in"));
+    }
+
+    private static OutboxEvent event(String id, String key) {
+        TransactionCreated created = new TransactionCreated(id, "cust1", 10.0, "DEPOSIT", "2025-03-14T09:26:53Z", key);
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("transaction.created")
+                .messageKey(key)
+                .eventType(created.getSchema().getFullName())
+                .payload(OutboxPayloads.encode(created))
+                .status(OutboxStatus.PENDING)
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.infrastructure.messaging.consumer.ConsumerMetrics;
+import com.enoc.transaction.infrastructure.messaging.consumer.ReactiveEventConsumer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveEventConsumerTest {
+
+    private final Map<String, Queue<Long>> processedByKey = new ConcurrentHashMap<>();
+    private final Set<Long> acknowledged = ConcurrentHashMap.newKeySet();
+
+    private final ReactiveEventConsumer<String> consumer = new ReactiveEventConsumer<>() {
+        @Override
+        public String topic() {
+            return "test.topic";
+        }
+
+        @Override
+        public String groupId() {
+            return "test-group";
+        }
+
+        @Override
+        public String handlerName() {
+            return "TestHandler";
+        }
+
+        @Override
+        public Mono<Void> consume(ConsumerRecord<String, String> record) {
+            return Mono.delay(Duration.ofMillis(ThreadLocalRandom.current().nextInt(5)))
+                    .doOnNext(tick -> processedByKey
+                            .computeIfAbsent(record.key(), key -> new ConcurrentLinkedQueue<>())
+                            .add(record.offset()))
+                    .then();
+        }
+    };
+
+    @Test
+    void processPartitionShouldKeepOrderPerKeyAndAcknowledgeEveryRecord() {
+        List<ReceiverRecord<String, String>> records = new ArrayList<>();
+        for (long offset = 0; offset < 200; offset++) {
+            records.add(record("payment-" + (offset % 7), offset));
+        }
+
+        StepVerifier.create(consumer.processPartition(Flux.fromIterable(records), 4))
+                .verifyComplete();
+
+        assertThat(acknowledged).hasSize(200);
+        assertThat(processedByKey).hasSize(7);
+        processedByKey.values().forEach(offsets -> assertThat(new ArrayList<>(offsets)).isSorted());
+    }
+
+    @Test
+    void processPartitionWithOneLaneShouldProcessSequentially() {
+        List<ReceiverRecord<String, String>> records = List.of(record("a", 0), record("b", 1), record("a", 2));
+
+        StepVerifier.create(consumer.processPartition(Flux.fromIterable(records), 1))
+                .verifyComplete();
+
+        assertThat(processedByKey.get("a")).containsExactly(0L, 2L);
+        assertThat(acknowledged).containsExactlyInAnyOrder(0L, 1L, 2L);
+    }
+
+    @Test
+    void aRecordReadFromARetryTopicShouldBeMeasuredUnderThatTopic() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        consumer.setMetrics(new ConsumerMetrics(registry));
+
+        StepVerifier.create(consumer.handle(new ConsumerRecord<>("test.topic-retry-0", 0, 7L, "a", "value")))
+                .verifyComplete();
+
+        assertThat(registry.get("transaction.consumer.records").tag("topic", "test.topic-retry-0").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.find("transaction.consumer.records").tag("topic", "test.topic").counter()).isNull();
+    }
+
+    private ReceiverRecord<String, String> record(String key, long offset) {
+        ConsumerRecord<String, String> consumerRecord = new ConsumerRecord<>("test.topic", 0, offset, key, "value");
+        return new ReceiverRecord<>(consumerRecord, new TestOffset(offset));
+    }
+
+    private class TestOffset implements ReceiverOffset {
+
+        private final long offset;
+
+        TestOffset(long offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public TopicPartition topicPartition() {
+            return new TopicPartition("test.topic", 0);
+        }
+
+        @Override
+        public long offset() {
+            return offset;
+        }
+
+        @Override
+        public void acknowledge() {
+            acknowledged.add(offset);
+        }
+
+        @Override
+        public Mono<Void> commit() {
+            acknowledge();
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.infrastructure.messaging.producer.ReactiveEventPublisher;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveEventPublisherTest {
+
+    @Mock
+    private KafkaSender<String, Object> sender;
+
+    private ReactiveEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new ReactiveEventPublisher(sender) { };
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendShouldPublishTheEventKeyedAndCorrelatedByItsKey() {
+        when(sender.send(any(Publisher.class))).thenAnswer(invocation -> Flux
+                .from(invocation.<Publisher<SenderRecord<String, Object, String>>>getArgument(0))
+                .map(record -> result(record.correlationMetadata(), null)));
+
+        StepVerifier.create(publisher.send("transaction.created", "acc1", "evento"))
+                .assertNext(result -> assertThat(result.correlationMetadata()).isEqualTo("acc1"))
+                .verifyComplete();
+
+        ArgumentCaptor<Publisher<SenderRecord<String, Object, String>>> sent = ArgumentCaptor.forClass(Publisher.class);
+        verify(sender).send(sent.capture());
+        StepVerifier.create(sent.getValue())
+                .assertNext(record -> {
+                    assertThat(record.topic()).isEqualTo("transaction.created");
+                    assertThat(record.key()).isEqualTo("acc1");
+                    assertThat(record.value()).isEqualTo("evento");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendShouldFailWhenTheBrokerRejectsTheEvent() {
+        when(sender.send(any(Publisher.class))).thenReturn(Flux.just(result("acc1", new RecordTooLargeException("demasiado grande"))));
+
+        StepVerifier.create(publisher.send("transaction.created", "acc1", "evento"))
+                .verifyError(RecordTooLargeException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendBatchShouldKeepGoingPastRejectedRecords() {
+        when(sender.send(any(Publisher.class))).thenReturn(Flux.just(
+                result("e1", null), result("e2", new RecordTooLargeException("demasiado grande")), result("e3", null)));
+
+        StepVerifier.create(publisher.sendBatch(Flux.<SenderRecord<String, Object, String>>empty()))
+                .assertNext(result -> assertThat(result.exception()).isNull())
+                .assertNext(result -> assertThat(result.exception()).isInstanceOf(RecordTooLargeException.class))
+                .assertNext(result -> assertThat(result.correlationMetadata()).isEqualTo("e3"))
+                .verifyComplete();
+    }
+
+    @Test
+    void closeShouldCloseTheSharedSender() {
+        publisher.close();
+
+        verify(sender).close();
+    }
+
+    static <T> SenderResult<T> result(T correlation, Exception exception) {
+        return new SenderResult<>() {
+            @Override
+            public RecordMetadata recordMetadata() {
+                return null;
+            }
+
+            @Override
+            public Exception exception() {
+                return exception;
+            }
+
+            @Override
+            public T correlationMetadata() {
+                return correlation;
+            }
+        };
+    }
+}
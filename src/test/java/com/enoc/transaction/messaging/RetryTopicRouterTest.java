@@ -0,0 +1,118 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.infrastructure.messaging.retry.RetryTopicRouter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RetryTopicRouterTest {
+
+    private static final String TOPIC = "transaction.created";
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private RetryTopicRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new RetryTopicRouter(kafkaTemplate, 3, 1000, 2.0);
+    }
+
+    @Test
+    void aFirstTransientFailureShouldGoToTheFirstRetryTopicAfterTheInitialDelay() {
+        long before = System.currentTimeMillis();
+
+        ProducerRecord<String, Object> routed = route(record(null), new IllegalStateException("timeout"));
+
+        assertThat(routed.topic()).isEqualTo(TOPIC + "-retry-0");
+        assertThat(routed.key()).isEqualTo("key");
+        assertThat(routed.value()).isEqualTo("value");
+        assertThat(intHeader(routed, RetryTopicRouter.HEADER_ATTEMPT)).isEqualTo(1);
+        assertThat(longHeader(routed, RetryTopicRouter.HEADER_DUE_AT)).isBetween(before + 1000, System.currentTimeMillis() + 1000);
+        assertThat(new String(routed.headers().lastHeader(RetryTopicRouter.HEADER_ORIGINAL_TOPIC).value(), StandardCharsets.UTF_8))
+                .isEqualTo(TOPIC);
+    }
+
+    @Test
+    void laterFailuresShouldMoveToTheNextTierWithAnExponentialDelay() {
+        long before = System.currentTimeMillis();
+
+        ProducerRecord<String, Object> routed = route(record(2), new IllegalStateException("timeout"));
+
+        assertThat(routed.topic()).isEqualTo(TOPIC + "-retry-2");
+        assertThat(intHeader(routed, RetryTopicRouter.HEADER_ATTEMPT)).isEqualTo(3);
+        assertThat(longHeader(routed, RetryTopicRouter.HEADER_DUE_AT)).isBetween(before + 4000, System.currentTimeMillis() + 4000);
+    }
+
+    @Test
+    void exhaustedAttemptsShouldParkTheRecordInTheDlt() {
+        assertThat(route(record(3), new IllegalStateException("timeout")).topic()).isEqualTo(TOPIC + "-dlt");
+    }
+
+    @Test
+    void aNonTransientErrorShouldGoStraightToTheDlt() {
+        ProducerRecord<String, Object> routed = route(record(null), new IllegalArgumentException("monto inválido"));
+
+        assertThat(routed.topic()).isEqualTo(TOPIC + "-dlt");
+        assertThat(new String(routed.headers().lastHeader(RetryTopicRouter.HEADER_EXCEPTION).value(), StandardCharsets.UTF_8))
+                .isEqualTo("monto inválido");
+    }
+
+    @Test
+    void awaitDueShouldWaitUntilTheDueTime() {
+        ConsumerRecord<String, Object> due = record(null);
+        due.headers().add(RetryTopicRouter.HEADER_DUE_AT,
+                ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis() + 200).array());
+
+        StepVerifier.create(router.awaitDue(record(null))).expectComplete().verify(Duration.ofMillis(100));
+        Duration waited = StepVerifier.create(router.awaitDue(due)).verifyComplete();
+        assertThat(waited).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, Object> route(ConsumerRecord<String, Object> record, Throwable error) {
+        SettableListenableFuture<SendResult<String, Object>> sent = new SettableListenableFuture<>();
+        sent.set(null);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sent);
+
+        StepVerifier.create(router.onFailure(record, TOPIC, error)).verifyComplete();
+
+        ArgumentCaptor<ProducerRecord<String, Object>> routed = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(routed.capture());
+        return routed.getValue();
+    }
+
+    private static ConsumerRecord<String, Object> record(Integer attempt) {
+        ConsumerRecord<String, Object> record = new ConsumerRecord<>(TOPIC, 0, 0L, "key", "value");
+        if (attempt != null) {
+            record.headers().add(RetryTopicRouter.HEADER_ATTEMPT, ByteBuffer.allocate(Integer.BYTES).putInt(attempt).array());
+        }
+        return record;
+    }
+
+    private static int intHeader(ProducerRecord<String, Object> record, String name) {
+        return ByteBuffer.wrap(record.headers().lastHeader(name).value()).getInt();
+    }
+
+    private static long longHeader(ProducerRecord<String, Object> record, String name) {
+        return ByteBuffer.wrap(record.headers().lastHeader(name).value()).getLong();
+    }
+}
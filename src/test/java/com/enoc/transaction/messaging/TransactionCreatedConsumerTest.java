@@ -0,0 +1,132 @@
+package com.enoc.transaction.messaging;
+
+import com.enoc.transaction.application.usecase.TransactionCreatedHandler;
+import com.enoc.transaction.events.TransactionCreated;
+import com.enoc.transaction.infrastructure.messaging.consumer.ConsumerMetrics;
+import com.enoc.transaction.infrastructure.messaging.consumer.TransactionCreatedConsumer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionCreatedConsumerTest {
+
+    @Mock
+    private TransactionCreatedHandler handler;
+
+    private final Set<Long> acknowledged = ConcurrentHashMap.newKeySet();
+    private final Queue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+    private TransactionCreatedConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new TransactionCreatedConsumer(handler);
+        ReflectionTestUtils.setField(consumer, "topicName", "transaction.created");
+        ReflectionTestUtils.setField(consumer, "batchMaxRecords", 10);
+        ReflectionTestUtils.setField(consumer, "batchMaxWaitMs", 1);
+        ReflectionTestUtils.setField(consumer, "writeTimeoutMs", 5_000L);
+    }
+
+    @Test
+    void batchesClosedByMaxWaitWhileAWriteIsRunningShouldNotFailTheLane() {
+        when(handler.processBatch(anyList())).thenAnswer(invocation -> {
+            List<?> events = invocation.getArgument(0);
+            return Mono.delay(Duration.ofMillis(5)).doOnNext(tick -> batchSizes.add(events.size())).thenReturn((long) events.size());
+        });
+
+        StepVerifier.create(consumer.processPartition(Flux.range(0, 300).delayElements(Duration.ofMillis(1)).map(this::record), 1))
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+
+        assertThat(acknowledged).hasSize(300);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(300);
+        assertThat(batchSizes).allMatch(size -> size <= 10);
+    }
+
+    @Test
+    void aFailedBatchShouldHandEachRecordToTheFailureHandlerBeforeAcknowledging() {
+        Queue<Long> failed = new ConcurrentLinkedQueue<>();
+        consumer.setFailureHandler((record, mainTopic, error) -> Mono.fromRunnable(() -> {
+            assertThat(acknowledged).doesNotContain(record.offset());
+            failed.add(record.offset());
+        }));
+        when(handler.processBatch(anyList())).thenReturn(Mono.error(new IllegalStateException("Mongo no disponible")));
+
+        StepVerifier.create(consumer.processPartition(Flux.range(0, 3).map(this::record), 1))
+                .verifyComplete();
+
+        assertThat(failed).containsExactly(0L, 1L, 2L);
+        assertThat(acknowledged).containsExactlyInAnyOrder(0L, 1L, 2L);
+    }
+
+    @Test
+    void theBatchLatencyShouldIncludeBuildingTheWrite() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        consumer.setMetrics(new ConsumerMetrics(registry));
+        when(handler.processBatch(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(50); // trabajo síncrono del caso de uso antes de devolver el Mono
+            return Mono.just(1L);
+        });
+
+        StepVerifier.create(consumer.processPartition(Flux.just(record(0)), 1))
+                .verifyComplete();
+
+        assertThat(registry.get("transaction.consumer.handler.latency").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(50.0);
+    }
+
+    private ReceiverRecord<String, TransactionCreated> record(int offset) {
+        TransactionCreated event = TransactionCreated.newBuilder()
+                .setTransactionId("tx" + offset)
+                .setCustomerId("cust1")
+                .setAmount(10.0)
+                .setType("DEPOSIT")
+                .setTimestamp("2025-03-14T09:26:53Z")
+                .build();
+        ConsumerRecord<String, TransactionCreated> consumerRecord =
+                new ConsumerRecord<>("transaction.created", 0, offset, "tx" + offset, event);
+        return new ReceiverRecord<>(consumerRecord, new ReceiverOffset() {
+            @Override
+            public TopicPartition topicPartition() {
+                return new TopicPartition("transaction.created", 0);
+            }
+
+            @Override
+            public long offset() {
+                return offset;
+            }
+
+            @Override
+            public void acknowledge() {
+                acknowledged.add((long) offset);
+            }
+
+            @Override
+            public Mono<Void> commit() {
+                acknowledge();
+                return Mono.empty();
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.infrastructure.persistence.BatchDrainRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchDrainRunnerTest {
+
+    private Counter counter;
+    private BatchDrainRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SimpleMeterRegistry().counter("test.drained");
+        runner = new BatchDrainRunner(counter);
+    }
+
+    @Test
+    void drainShouldRepeatTheBatchUntilItReportsZeroAndCountEachDocument() {
+        Iterator<Long> batches = List.of(100L, 100L, 40L, 0L, 99L).iterator();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicLong reported = new AtomicLong();
+
+        StepVerifier.create(runner.drain(() -> {
+                    calls.incrementAndGet();
+                    return Mono.just(batches.next());
+                }, (total, elapsed) -> {
+                    assertThat(runner.isRunning()).isTrue();
+                    reported.set(total);
+                }))
+                .verifyComplete();
+
+        assertThat(calls).hasValue(4);
+        assertThat(reported).hasValue(240L);
+        assertThat(counter.count()).isEqualTo(240.0);
+        assertThat(runner.isRunning()).isFalse();
+    }
+
+    @Test
+    void aDrainStartedWhileAnotherRunsShouldCompleteWithoutTouchingTheBatch() {
+        Sinks.One<Long> firstBatch = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger drained = new AtomicInteger();
+
+        StepVerifier.create(runner.drain(() -> calls.incrementAndGet() == 1 ? firstBatch.asMono() : Mono.just(0L),
+                        (total, elapsed) -> drained.incrementAndGet()))
+                .then(() -> StepVerifier.create(runner.drain(() -> {
+                            calls.incrementAndGet();
+                            return Mono.just(0L);
+                        }, (total, elapsed) -> drained.incrementAndGet()))
+                        .verifyComplete())
+                .then(() -> {
+                    assertThat(calls).hasValue(1);
+                    assertThat(runner.isRunning()).isTrue();
+                    firstBatch.tryEmitValue(5L);
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(drained).hasValue(1);
+        assertThat(runner.isRunning()).isFalse();
+    }
+
+    @Test
+    void aFailedBatchShouldReleaseTheGuard() {
+        StepVerifier.create(runner.drain(() -> Mono.error(new IllegalStateException("mongo caído")), (total, elapsed) -> { }))
+                .verifyError(IllegalStateException.class);
+
+        assertThat(runner.isRunning()).isFalse();
+        StepVerifier.create(runner.drain(() -> Mono.just(0L), (total, elapsed) -> { })).verifyComplete();
+    }
+}
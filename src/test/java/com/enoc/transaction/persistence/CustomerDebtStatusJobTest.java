@@ -0,0 +1,59 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.application.usecase.CustomerDebtProjection;
+import com.enoc.transaction.domain.repository.CustomerDebtStatusRepository;
+import com.enoc.transaction.infrastructure.persistence.CustomerDebtStatusJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import reactor.core.publisher.Mono;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerDebtStatusJobTest {
+
+    @Mock
+    private CustomerDebtProjection projection;
+    @Mock
+    private CustomerDebtStatusRepository repository;
+
+    private CustomerDebtStatusJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new CustomerDebtStatusJob(projection, repository);
+    }
+
+    @Test
+    void runShouldBuildAnEmptyProjectionBeforeReturning() {
+        when(repository.count()).thenReturn(Mono.just(0L));
+        when(projection.rebuild()).thenReturn(Mono.just(3L));
+
+        job.run(new DefaultApplicationArguments());
+
+        verify(projection).rebuild();
+    }
+
+    @Test
+    void runShouldLeaveAnExistingProjectionAlone() {
+        when(repository.count()).thenReturn(Mono.just(3L));
+
+        job.run(new DefaultApplicationArguments());
+
+        verify(projection, never()).rebuild();
+    }
+
+    @Test
+    void aFailedBuildShouldStopTheStart() {
+        when(repository.count()).thenReturn(Mono.just(0L));
+        when(projection.rebuild()).thenReturn(Mono.error(new IllegalStateException("Mongo no disponible")));
+
+        assertThatThrownBy(() -> job.run(new DefaultApplicationArguments())).isInstanceOf(IllegalStateException.class);
+    }
+}
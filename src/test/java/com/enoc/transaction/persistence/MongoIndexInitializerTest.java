@@ -0,0 +1,136 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.domain.model.ProcessedEvent;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.infrastructure.config.MongoConfig;
+import com.enoc.transaction.infrastructure.persistence.IndexReport;
+import com.enoc.transaction.infrastructure.persistence.MongoIndexInitializer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexInitializerTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private final Map<Class<?>, List<IndexInfo>> existing = new HashMap<>();
+    private final Map<Class<?>, List<Document>> undeclared = new HashMap<>();
+    private final Set<String> absent = new HashSet<>();
+    private MongoIndexInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        initializer = new MongoIndexInitializer(mongoTemplate);
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(any())).thenAnswer(invocation -> invocation.<Class<?>>getArgument(0).getSimpleName());
+        when(mongoTemplate.indexOps(any(Class.class))).thenAnswer(invocation -> indexOps(invocation.getArgument(0)));
+    }
+
+    @Test
+    void aCollectionHoldingExactlyItsDeclaredIndexesShouldBeClean() {
+        initializer.ensureIndexes();
+
+        IndexReport report = initializer.reports().get("Transaction");
+        assertThat(report.isClean()).isTrue();
+        assertThat(report.getExisting()).contains("_id_", "customer_state_createdAt_id", "createdAt_id");
+        assertThat(initializer.reports()).containsKeys("ProcessedEvent", "TransactionBucket");
+    }
+
+    @Test
+    void anAbsentDeclaredIndexShouldBeMissingAndAnUndeclaredOneRedundant() {
+        absent.add("createdAt_id");
+        undeclared.put(Transaction.class, List.of(index("customerId_1", new Document("customerId", 1))));
+
+        initializer.ensureIndexes();
+
+        IndexReport report = initializer.reports().get("Transaction");
+        assertThat(report.getMissing()).containsExactly("createdAt_id");
+        assertThat(report.getRedundant()).containsExactly("customerId_1 (no declarado)");
+    }
+
+    @Test
+    void aDeclaredIndexWhoseKeysLeadAnotherIndexShouldBeRedundant() {
+        undeclared.put(Transaction.class, List.of(index("account_type_amount",
+                new Document("accountId", 1).append("type", 1).append("amount", 1))));
+
+        initializer.ensureIndexes();
+
+        assertThat(initializer.reports().get("Transaction").getRedundant())
+                .containsExactlyInAnyOrder("account_type_amount (no declarado)", "account_type (prefijo de otro índice)");
+    }
+
+    @Test
+    void aDifferentDirectionShouldNotMakeAnIndexAPrefix() {
+        undeclared.put(Transaction.class, List.of(index("createdAt_asc",
+                new Document("createdAt", 1).append("_id", -1).append("amount", 1))));
+
+        initializer.ensureIndexes();
+
+        assertThat(initializer.reports().get("Transaction").getRedundant()).containsExactly("createdAt_asc (no declarado)");
+    }
+
+    @Test
+    void aTtlIndexShouldNotBeRedundantEvenWhenItsKeysLeadAnotherIndex() {
+        undeclared.put(ProcessedEvent.class, List.of(index("processedAt_eventId",
+                new Document("processedAt", 1).append("eventId", 1))));
+
+        initializer.ensureIndexes();
+
+        assertThat(initializer.reports().get("ProcessedEvent").getRedundant()).containsExactly("processedAt_eventId (no declarado)");
+    }
+
+    // Cada índice asegurado pasa a existir salvo los marcados como ausentes; getIndexInfo suma _id_ y los no declarados.
+    private ReactiveIndexOperations indexOps(Class<?> type) {
+        ReactiveIndexOperations operations = mock(ReactiveIndexOperations.class);
+        List<IndexInfo> present = existing.computeIfAbsent(type, ignored -> new ArrayList<>());
+        lenient().when(operations.ensureIndex(any(IndexDefinition.class))).thenAnswer(invocation -> {
+            IndexDefinition definition = invocation.getArgument(0);
+            String name = definition.getIndexOptions().getString("name");
+            if (!absent.contains(name)) {
+                present.add(IndexInfo.indexInfoOf(new Document(definition.getIndexOptions()).append("key", definition.getIndexKeys())));
+            }
+            return Mono.just(name);
+        });
+        IndexInfo id = IndexInfo.indexInfoOf(index("_id_", new Document("_id", 1)));
+        lenient().when(operations.getIndexInfo()).thenAnswer(invocation -> Flux.just(id)
+                .concatWith(Flux.fromIterable(present))
+                .concatWith(Flux.fromIterable(undeclared.getOrDefault(type, List.of())).map(IndexInfo::indexInfoOf)));
+        return operations;
+    }
+
+    private static Document index(String name, Document keys) {
+        return new Document("name", name).append("key", keys);
+    }
+}
@@ -0,0 +1,182 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.infrastructure.persistence.TransactionArchiveImpl;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscriber;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveImplTest {
+
+    private static final OffsetDateTime CUTOFF = OffsetDateTime.of(2024, 6, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private MongoCollection<Document> hot;
+    @Mock
+    private MongoCollection<Document> archive;
+
+    private final List<Document> hotQueries = new ArrayList<>();
+    private TransactionArchiveImpl archiveImpl;
+
+    @BeforeEach
+    void setUp() {
+        archiveImpl = new TransactionArchiveImpl(mongoTemplate);
+        lenient().when(mongoTemplate.getCollectionName(Transaction.class)).thenReturn("transactions");
+        lenient().when(mongoTemplate.getCollection("transactions")).thenReturn(Mono.just(hot));
+        lenient().when(mongoTemplate.getCollection("transactions_archive")).thenReturn(Mono.just(archive));
+        BulkWriteResult copied = deleted(0);
+        lenient().when(archive.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.just(copied));
+    }
+
+    @Test
+    void archiveBatchShouldMoveDiscardedTransactionsBeforeAgedOnes() {
+        stubHot(Map.of("state", List.of(discarded("tx1", 3), discarded("tx2", 1))));
+        BulkWriteResult deletions = deleted(2);
+        when(hot.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.just(deletions));
+
+        StepVerifier.create(archiveImpl.archiveBatch(CUTOFF, 100))
+                .expectNext(2L)
+                .verifyComplete();
+
+        assertThat(hotQueries).containsExactly(new Document("state", new Document("$in", List.of("INACTIVE", "ARCHIVED"))));
+        assertThat(writes(archive)).allMatch(ReplaceOneModel.class::isInstance).hasSize(2);
+        assertThat(writes(hot)).extracting(model -> ((DeleteOneModel<Document>) model).getFilter()).containsExactly(
+                new Document("_id", "tx1").append("version", 3L),
+                new Document("_id", "tx2").append("version", 1L));
+    }
+
+    @Test
+    void archiveBatchShouldMoveAgedActiveTransactionsOnceNoDiscardedAreLeft() {
+        stubHot(Map.of("state", List.of()));
+
+        StepVerifier.create(archiveImpl.archiveBatch(CUTOFF, 100))
+                .expectNext(0L)
+                .verifyComplete();
+
+        assertThat(hotQueries).hasSize(2);
+        assertThat(hotQueries.get(1)).isEqualTo(new Document("state", "ACTIVE")
+                .append("createdAt", new Document("$lt", Date.from(CUTOFF.toInstant())))
+                .append("type", new Document("$nin", List.of("CREDIT_CHARGE", "CREDIT_PAYMENT"))));
+        verify(archive, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void aDocumentUpdatedOutOfTheFilterAfterTheCopyShouldLoseItsArchiveCopy() {
+        stubHot(Map.of(
+                "state", List.of(discarded("tx1", 3), discarded("tx2", 1)),
+                "$nor", List.of(new Document("_id", "tx2"))));
+        BulkWriteResult deletions = deleted(1);
+        when(hot.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.just(deletions));
+        when(archive.deleteMany(any(Bson.class))).thenReturn(Mono.<DeleteResult>empty());
+
+        StepVerifier.create(archiveImpl.archiveBatch(CUTOFF, 100))
+                .expectNext(1L)
+                .verifyComplete();
+
+        assertThat(hotQueries.get(1)).isEqualTo(new Document("_id", new Document("$in", List.of("tx1", "tx2")))
+                .append("$nor", List.of(new Document("state", new Document("$in", List.of("INACTIVE", "ARCHIVED"))))));
+        verify(archive).deleteMany(new Document("_id", new Document("$in", List.of("tx2"))));
+    }
+
+    @Test
+    void findPageIncludingArchiveShouldMergeNewestFirstAndEmitACopiedDocumentOnce() {
+        OffsetDateTime now = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        Transaction newest = transaction("tx9", now);
+        Transaction caught = transaction("tx7", now.minusDays(1));
+        Transaction archived = transaction("tx5", now.minusDays(2));
+        Transaction oldest = transaction("tx2", now.minusDays(3));
+        when(mongoTemplate.find(any(Query.class), eq(Transaction.class))).thenReturn(Flux.just(newest, caught));
+        when(mongoTemplate.find(any(Query.class), eq(Transaction.class), eq("transactions_archive")))
+                .thenReturn(Flux.just(caught, archived, oldest));
+
+        StepVerifier.create(archiveImpl.findPageIncludingArchive(where("customerId").is("cust1"), null, 3))
+                .expectNext(newest, caught, archived)
+                .verifyComplete();
+    }
+
+    // Cada consulta a la colección caliente responde según la primera clave del filtro que figure en respuestas.
+    @SuppressWarnings("unchecked")
+    private void stubHot(Map<String, List<Document>> answers) {
+        when(hot.find(any(Bson.class))).thenAnswer(invocation -> {
+            Document filter = invocation.getArgument(0);
+            hotQueries.add(filter);
+            List<Document> rows = answers.entrySet().stream()
+                    .filter(answer -> filter.containsKey(answer.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(List.of());
+            FindPublisher<Document> publisher = mock(FindPublisher.class);
+            lenient().when(publisher.limit(anyInt())).thenReturn(publisher);
+            lenient().when(publisher.projection(any(Bson.class))).thenReturn(publisher);
+            doAnswer(subscribe -> {
+                Flux.fromIterable(rows).subscribe(subscribe.<Subscriber<Document>>getArgument(0));
+                return null;
+            }).when(publisher).subscribe(any());
+            return publisher;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<WriteModel<Document>> writes(MongoCollection<Document> collection) {
+        ArgumentCaptor<List<WriteModel<Document>>> models = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(models.capture(), any(BulkWriteOptions.class));
+        return models.getValue();
+    }
+
+    private static BulkWriteResult deleted(int count) {
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        lenient().when(result.getDeletedCount()).thenReturn(count);
+        return result;
+    }
+
+    private static Document discarded(String id, long version) {
+        return new Document("_id", id).append("state", "INACTIVE").append("version", version);
+    }
+
+    private static Transaction transaction(String id, OffsetDateTime createdAt) {
+        Transaction tx = new Transaction();
+        tx.setId(id);
+        tx.setCreatedAt(createdAt);
+        return tx;
+    }
+}
@@ -0,0 +1,68 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import com.enoc.transaction.infrastructure.persistence.TransactionArchiveJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveJobTest {
+
+    @Mock
+    private TransactionRepository repository;
+
+    private SimpleMeterRegistry registry;
+    private TransactionArchiveJob job;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        job = new TransactionArchiveJob(repository, registry, 365, 100);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runShouldReportTheMovedTotalAndTheRate() {
+        when(repository.archiveBatch(any(), eq(100)))
+                .thenReturn(Mono.just(40L), Mono.just(0L));
+
+        StepVerifier.create(job.run())
+                .assertNext(status -> {
+                    Map<String, Object> lastRun = (Map<String, Object>) status.get("lastRun");
+                    assertThat(status.get("running")).isEqualTo(false);
+                    assertThat(lastRun.get("moved")).isEqualTo(40L);
+                    assertThat(lastRun).containsKey("documentsPerSecond");
+                })
+                .verifyComplete();
+
+        assertThat(registry.get("transaction.archive.moved").counter().count()).isEqualTo(40.0);
+    }
+
+    @Test
+    void runShouldArchiveEverythingOlderThanTheActiveRetention() {
+        when(repository.archiveBatch(any(), eq(100))).thenReturn(Mono.just(0L));
+        OffsetDateTime before = OffsetDateTime.now().minusDays(365);
+
+        StepVerifier.create(job.run())
+                .assertNext(status -> assertThat(status).containsKey("lastRun"))
+                .verifyComplete();
+
+        ArgumentCaptor<OffsetDateTime> cutoff = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(repository).archiveBatch(cutoff.capture(), eq(100));
+        assertThat(cutoff.getValue()).isBetween(before, OffsetDateTime.now().minusDays(365));
+    }
+}
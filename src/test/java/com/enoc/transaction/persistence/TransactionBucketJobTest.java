@@ -0,0 +1,52 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import com.enoc.transaction.infrastructure.persistence.TransactionBucketJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBucketJobTest {
+
+    @Mock
+    private TransactionRepository repository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runShouldCompactWithTheConfiguredSizesAndReportTheTotal() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransactionBucketJob job = new TransactionBucketJob(repository, registry, true, 500, 2000);
+        when(repository.compactBatch(500, 2000)).thenReturn(Mono.just(120L), Mono.just(0L));
+
+        StepVerifier.create(job.run())
+                .assertNext(status -> {
+                    assertThat(status).containsEntry("enabled", true).containsEntry("running", false);
+                    assertThat((Map<String, Object>) status.get("lastRun")).containsEntry("compacted", 120L);
+                })
+                .verifyComplete();
+
+        assertThat(registry.get("transaction.buckets.compacted").counter().count()).isEqualTo(120.0);
+    }
+
+    @Test
+    void runShouldDoNothingWhileBucketsAreDisabled() {
+        TransactionBucketJob job = new TransactionBucketJob(repository, new SimpleMeterRegistry(), false, 500, 2000);
+
+        StepVerifier.create(job.run())
+                .assertNext(status -> assertThat(status).containsEntry("enabled", false))
+                .verifyComplete();
+
+        verify(repository, never()).compactBatch(anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,277 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.TransactionBucket;
+import com.enoc.transaction.domain.repository.PageCursor;
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import com.enoc.transaction.infrastructure.config.MongoConfig;
+import com.enoc.transaction.infrastructure.persistence.TransactionBucketsImpl;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongodb.reactivestreams.client.AggregatePublisher;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBucketsImplTest {
+
+    private static final OffsetDateTime JANUARY = OffsetDateTime.of(2025, 1, 20, 10, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime FEBRUARY = OffsetDateTime.of(2025, 2, 3, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private MongoCollection<Document> archive;
+    @Mock
+    private MongoCollection<Document> buckets;
+    @Mock
+    private MongoCollection<Transaction> typedBuckets;
+    @Mock
+    private FindPublisher<Document> pending;
+    @Mock
+    private AggregatePublisher<Document> packed;
+    @Mock
+    private AggregatePublisher<Transaction> page;
+
+    private TransactionBucketsImpl bucketsImpl;
+
+    @BeforeEach
+    void setUp() {
+        bucketsImpl = new TransactionBucketsImpl(mongoTemplate);
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+        lenient().when(mongoTemplate.getCollectionName(TransactionBucket.class)).thenReturn("transaction_buckets");
+        lenient().when(mongoTemplate.getCollection("transaction_buckets")).thenReturn(Mono.just(buckets));
+        lenient().when(mongoTemplate.getCollection("transactions_archive")).thenReturn(Mono.just(archive));
+    }
+
+    @Test
+    void findPageInBucketsShouldSelectBucketsBySummaryAndSortAndLimitOnTheServer() {
+        Transaction newest = transaction("tx9", FEBRUARY);
+        Transaction older = transaction("tx3", JANUARY);
+        stubPage(newest, older);
+        PageCursor cursor = new PageCursor(FEBRUARY.plusDays(1), "tx10");
+
+        StepVerifier.create(bucketsImpl.findPageInBuckets(
+                        where("customerId").is("cust1").and("state").in("ACTIVE").and("createdAt").gt(JANUARY.minusDays(30)),
+                        cursor, 20))
+                .expectNext(newest, older)
+                .verifyComplete();
+
+        List<Document> pipeline = capturedPipeline();
+        Document bucketFilter = pipeline.get(0).get("$match", Document.class);
+        assertThat(bucketFilter).containsOnlyKeys("customerIds", "minCreatedAt", "maxCreatedAt");
+        assertThat(bucketFilter.get("customerIds")).isEqualTo("cust1");
+        assertThat(bucketFilter.get("minCreatedAt", Document.class))
+                .isEqualTo(new Document("$lte", Date.from(cursor.getCreatedAt().toInstant())));
+        assertThat(bucketFilter.get("maxCreatedAt", Document.class))
+                .isEqualTo(new Document("$gt", Date.from(JANUARY.minusDays(30).toInstant())));
+        assertThat(pipeline.subList(1, 3)).containsExactly(
+                new Document("$unwind", "$transactions"),
+                new Document("$replaceRoot", new Document("newRoot", "$transactions")));
+        assertThat(pipeline.get(3)).containsOnlyKeys("$match");
+        assertThat(pipeline.subList(4, 6)).containsExactly(
+                new Document("$sort", new Document("createdAt", -1).append("_id", -1)),
+                new Document("$limit", 20));
+    }
+
+    @Test
+    void findPageInBucketsShouldNotCopyNonEqualityFiltersToTheBuckets() {
+        stubPage();
+
+        StepVerifier.create(bucketsImpl.findPageInBuckets(
+                        where("productId").is("prod1").and("accountId").in("acc1", "acc2").and("createdAt").lt(FEBRUARY),
+                        null, 10))
+                .verifyComplete();
+
+        List<Document> pipeline = capturedPipeline();
+        Document bucketFilter = pipeline.get(0).get("$match", Document.class);
+        assertThat(bucketFilter).containsOnlyKeys("productId", "minCreatedAt");
+        assertThat(bucketFilter.get("productId")).isEqualTo("prod1");
+        assertThat(bucketFilter.get("minCreatedAt", Document.class)).isEqualTo(new Document("$lt", Date.from(FEBRUARY.toInstant())));
+    }
+
+    @Test
+    void findPageInBucketsShouldSkipTheBucketsForACursorWithoutDate() {
+        StepVerifier.create(bucketsImpl.findPageInBuckets(new Criteria(), new PageCursor(null, "tx1"), 10))
+                .verifyComplete();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void findPageIncludingHistoryShouldMergeArchiveAndBucketsNewestFirstWithoutRepeats() {
+        TransactionRepository repository = mock(TransactionRepository.class, CALLS_REAL_METHODS);
+        Transaction newest = transaction("tx9", FEBRUARY);
+        Transaction repeated = transaction("tx5", JANUARY.plusDays(5));
+        Transaction tie = transaction("tx4", JANUARY.plusDays(5));
+        Transaction oldest = transaction("tx1", JANUARY);
+        Criteria filter = where("customerId").is("cust1");
+        doReturn(Flux.just(newest, repeated)).when(repository).findPageIncludingArchive(filter, null, 3);
+        doReturn(Flux.just(repeated, tie, oldest)).when(repository).findPageInBuckets(filter, null, 3);
+
+        StepVerifier.create(repository.findPageIncludingHistory(filter, null, 3))
+                .expectNext(newest, repeated, tie)
+                .verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compactBatchShouldAppendWithoutDuplicatesAndFlagWhatDidNotFit() {
+        Document first = archived("tx1", "acc1", JANUARY);
+        Document second = archived("tx2", "acc1", JANUARY.plusDays(1));
+        Document third = archived("tx3", "acc2", FEBRUARY);
+        stubPending(first, second, third);
+        when(buckets.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.<BulkWriteResult>empty());
+        when(buckets.aggregate(anyList())).thenReturn(packed);
+        emit(packed, new Document("ids", "tx1"), new Document("ids", "tx2"));
+        when(archive.deleteMany(any(Bson.class))).thenReturn(Mono.<DeleteResult>empty());
+        when(archive.updateMany(any(Bson.class), any(Bson.class))).thenReturn(Mono.<UpdateResult>empty());
+
+        StepVerifier.create(bucketsImpl.compactBatch(500, 2))
+                .expectNext(3L)
+                .verifyComplete();
+
+        ArgumentCaptor<List<WriteModel<Document>>> models = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(buckets).bulkWrite(models.capture(), options.capture());
+        assertThat(options.getValue().isOrdered()).isFalse();
+        assertThat(models.getValue()).hasSize(2).allMatch(model -> ((UpdateOneModel<Document>) model).getOptions().isUpsert());
+        UpdateOneModel<Document> january = (UpdateOneModel<Document>) models.getValue().get(0);
+        assertThat(january.getFilter()).isEqualTo(new Document("_id", TransactionBucket.idOf("acc1", YearMonth.of(2025, 1))));
+        assertThat(((UpdateOneModel<Document>) models.getValue().get(1)).getFilter())
+                .isEqualTo(new Document("_id", TransactionBucket.idOf("acc2", YearMonth.of(2025, 2))));
+
+        List<Document> update = (List<Document>) january.getUpdatePipeline();
+        Document append = update.get(0).get("$set", Document.class);
+        List<Object> slice = append.get("transactions", Document.class).getList("$slice", Object.class);
+        assertThat(slice.get(1)).isEqualTo(2);
+        Document fresh = ((Document) slice.get(0)).getList("$concatArrays", Document.class).get(1).get("$filter", Document.class);
+        assertThat(fresh.get("input", Document.class).getList("$literal", Document.class)).containsExactly(first, second);
+        assertThat(fresh.get("cond")).isEqualTo(new Document("$not", List.of(new Document("$in", List.of("$$this._id",
+                new Document("$ifNull", List.of("$transactions._id", List.of())))))));
+        assertThat(update.get(1).get("$set", Document.class).get("count")).isEqualTo(new Document("$size", "$transactions"));
+
+        verify(archive).deleteMany(new Document("_id", new Document("$in", List.of("tx1", "tx2"))));
+        verify(archive).updateMany(new Document("_id", new Document("$in", List.of("tx3"))),
+                new Document("$set", new Document("bucketOverflow", true)));
+    }
+
+    @Test
+    void compactBatchShouldNotFlagAnythingWhenEveryDocumentWasPacked() {
+        stubPending(archived("tx1", "acc1", JANUARY));
+        when(buckets.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.<BulkWriteResult>empty());
+        when(buckets.aggregate(anyList())).thenReturn(packed);
+        emit(packed, new Document("ids", "tx1"));
+        when(archive.deleteMany(any(Bson.class))).thenReturn(Mono.<DeleteResult>empty());
+
+        StepVerifier.create(bucketsImpl.compactBatch(500, 2000))
+                .expectNext(1L)
+                .verifyComplete();
+
+        verify(archive, never()).updateMany(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void compactBatchShouldReportZeroOnceTheArchiveHasNothingPending() {
+        stubPending();
+
+        StepVerifier.create(bucketsImpl.compactBatch(500, 2000))
+                .expectNext(0L)
+                .verifyComplete();
+
+        verifyNoInteractions(buckets);
+    }
+
+    private void stubPage(Transaction... rows) {
+        when(buckets.withDocumentClass(Transaction.class)).thenReturn(typedBuckets);
+        when(typedBuckets.withCodecRegistry(any(CodecRegistry.class))).thenReturn(typedBuckets);
+        when(typedBuckets.aggregate(anyList(), eq(Transaction.class))).thenReturn(page);
+        when(page.batchSize(anyInt())).thenReturn(page);
+        emit(page, rows);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Document> capturedPipeline() {
+        ArgumentCaptor<List<Document>> pipeline = ArgumentCaptor.forClass(List.class);
+        verify(typedBuckets).aggregate(pipeline.capture(), eq(Transaction.class));
+        return pipeline.getValue();
+    }
+
+    private void stubPending(Document... documents) {
+        when(archive.find(any(Bson.class))).thenReturn(pending);
+        when(pending.limit(anyInt())).thenReturn(pending);
+        emit(pending, documents);
+    }
+
+    @SafeVarargs
+    private static <T> void emit(Publisher<T> publisher, T... values) {
+        doAnswer(invocation -> {
+            Flux.just(values).subscribe(invocation.<Subscriber<T>>getArgument(0));
+            return null;
+        }).when(publisher).subscribe(any());
+    }
+
+    private static Document archived(String id, String accountId, OffsetDateTime createdAt) {
+        return new Document("_id", id)
+                .append("accountId", accountId)
+                .append("createdAt", Date.from(createdAt.toInstant()))
+                .append("_class", Transaction.class.getName());
+    }
+
+    private static Transaction transaction(String id, OffsetDateTime createdAt) {
+        Transaction tx = new Transaction();
+        tx.setId(id);
+        tx.setCreatedAt(createdAt);
+        return tx;
+    }
+}
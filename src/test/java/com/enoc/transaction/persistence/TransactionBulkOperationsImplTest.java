@@ -0,0 +1,130 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.infrastructure.persistence.TransactionBulkOperationsImpl;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import java.util.List;
+import java.util.Map;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBulkOperationsImplTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private MongoCollection<Document> collection;
+    @Mock
+    private MongoCollection<Transaction> typed;
+
+    private TransactionBulkOperationsImpl bulkOperations;
+
+    @BeforeEach
+    void setUp() {
+        bulkOperations = new TransactionBulkOperationsImpl(mongoTemplate);
+        lenient().when(mongoTemplate.getCollectionName(Transaction.class)).thenReturn("transactions");
+        lenient().when(mongoTemplate.getCollection("transactions")).thenReturn(Mono.just(collection));
+        lenient().when(collection.withDocumentClass(Transaction.class)).thenReturn(typed);
+        lenient().when(typed.withCodecRegistry(any(CodecRegistry.class))).thenReturn(typed);
+    }
+
+    @Test
+    void insertAllUnorderedShouldReturnTheInsertedCountOfAnUnorderedInsert() {
+        InsertManyResult result = InsertManyResult.acknowledged(Map.of(0, new BsonString("tx1"), 1, new BsonString("tx2")));
+        when(typed.insertMany(anyList(), any(InsertManyOptions.class))).thenReturn(Mono.just(result));
+
+        StepVerifier.create(bulkOperations.insertAllUnordered(List.of(transaction("tx1"), transaction("tx2"))))
+                .expectNext(2L)
+                .verifyComplete();
+
+        ArgumentCaptor<InsertManyOptions> options = ArgumentCaptor.forClass(InsertManyOptions.class);
+        verify(typed).insertMany(anyList(), options.capture());
+        assertThat(options.getValue().isOrdered()).isFalse();
+    }
+
+    @Test
+    void insertAllUnorderedShouldIgnoreDuplicatesAndCountTheDocumentsThatWereInserted() {
+        when(typed.insertMany(anyList(), any(InsertManyOptions.class)))
+                .thenReturn(Mono.error(bulkFailure(1, error(11000, 0), error(11000, 2))));
+
+        StepVerifier.create(bulkOperations.insertAllUnordered(List.of(transaction("tx1"), transaction("tx2"), transaction("tx3"))))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void insertAllUnorderedShouldPropagateABatchWithAnErrorOtherThanADuplicate() {
+        MongoBulkWriteException failure = bulkFailure(1, error(11000, 0), error(121, 2));
+        when(typed.insertMany(anyList(), any(InsertManyOptions.class))).thenReturn(Mono.error(failure));
+
+        StepVerifier.create(bulkOperations.insertAllUnordered(List.of(transaction("tx1"), transaction("tx2"), transaction("tx3"))))
+                .expectErrorMatches(error -> error == failure)
+                .verify();
+    }
+
+    @Test
+    void insertAllUnorderedShouldSkipTheRoundTripForAnEmptyBatch() {
+        StepVerifier.create(bulkOperations.insertAllUnordered(List.of()))
+                .expectNext(0L)
+                .verifyComplete();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void findExistingIdsShouldReadOnlyTheIdsOfTheMatchingTransactions() {
+        when(mongoTemplate.find(any(Query.class), eq(Transaction.class))).thenReturn(Flux.just(transaction("tx2")));
+
+        StepVerifier.create(bulkOperations.findExistingIds(List.of("tx1", "tx2")))
+                .expectNext("tx2")
+                .verifyComplete();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Transaction.class));
+        assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("_id", new Document("$in", List.of("tx1", "tx2"))));
+        assertThat(query.getValue().getFieldsObject()).isEqualTo(new Document("_id", 1));
+    }
+
+    private static MongoBulkWriteException bulkFailure(int inserted, BulkWriteError... errors) {
+        return new MongoBulkWriteException(BulkWriteResult.acknowledged(inserted, 0, 0, 0, List.of()),
+                List.of(errors), null, new ServerAddress());
+    }
+
+    private static BulkWriteError error(int code, int index) {
+        return new BulkWriteError(code, "E" + code, new BsonDocument(), index);
+    }
+
+    private static Transaction transaction(String id) {
+        Transaction tx = new Transaction();
+        tx.setId(id);
+        return tx;
+    }
+}
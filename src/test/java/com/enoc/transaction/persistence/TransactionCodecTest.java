@@ -0,0 +1,136 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import com.enoc.transaction.domain.model.enums.TransactionOrigin;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.infrastructure.config.MongoConfig;
+import com.enoc.transaction.infrastructure.persistence.TransactionCodec;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionCodecTest {
+
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void encodeShouldWriteDecimal128AndNativeDatesAndDecodeBackTheSameTransaction() {
+        Transaction tx = fullTransaction();
+
+        BsonDocument bson = new BsonDocument();
+        TransactionCodec.INSTANCE.encode(new BsonDocumentWriter(bson), tx, EncoderContext.builder().build());
+
+        assertThat(bson.get("_id").getBsonType()).isEqualTo(BsonType.OBJECT_ID);
+        assertThat(bson.get("amount").getBsonType()).isEqualTo(BsonType.DECIMAL128);
+        assertThat(bson.get("commissionApplied").getBsonType()).isEqualTo(BsonType.DECIMAL128);
+        assertThat(bson.get("createdAt").getBsonType()).isEqualTo(BsonType.DATE_TIME);
+        assertThat(bson.get("date").getBsonType()).isEqualTo(BsonType.DATE_TIME);
+        assertThat(bson).doesNotContainKeys("destinationAccountId", "_class");
+
+        Transaction decoded = TransactionCodec.INSTANCE.decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(tx);
+    }
+
+    @Test
+    void mappingConverterShouldGoThroughTheCodecInBothDirections() {
+        Transaction tx = fullTransaction();
+        tx.setId("7f0c2a8e-9d7b-4c1e-8a55-3b8e2f1d6a90");
+
+        Document document = new Document();
+        converter.write(tx, document);
+
+        assertThat(document.get("_id")).isEqualTo(tx.getId());
+        assertThat(document.get("amount")).isEqualTo(new Decimal128(new BigDecimal("-125.50")));
+        assertThat(document.get("eventDate")).isInstanceOf(Date.class);
+        assertThat(document).doesNotContainKey("_class");
+        assertThat(converter.read(Transaction.class, document)).usingRecursiveComparison().isEqualTo(tx);
+    }
+
+    @Test
+    void readShouldAcceptDocumentsWrittenByTheReflectiveMapping() {
+        ObjectId id = new ObjectId();
+        Document legacy = new Document("_id", id)
+                .append("_class", Transaction.class.getName())
+                .append("customerId", "cust1")
+                .append("type", "DEPOSIT")
+                .append("amount", "100.25")
+                .append("commissionApplied", 2.5)
+                .append("createdAt", new Date(0))
+                .append("version", 3);
+
+        Transaction tx = converter.read(Transaction.class, legacy);
+
+        assertThat(tx.getId()).isEqualTo(id.toHexString());
+        assertThat(tx.getAmount()).isEqualTo(new BigDecimal("100.25"));
+        assertThat(tx.getCommissionApplied()).isEqualTo(new BigDecimal("2.5"));
+        assertThat(tx.getCreatedAt()).isEqualTo(OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+        assertThat(tx.getState()).isEqualTo(TransactionState.ACTIVE);
+        assertThat(tx.getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void generateIdIfAbsentShouldAssignAnObjectIdOnlyWhenMissing() {
+        Transaction tx = new Transaction();
+
+        TransactionCodec.INSTANCE.generateIdIfAbsentFromDocument(tx);
+
+        assertThat(ObjectId.isValid(tx.getId())).isTrue();
+        assertThat(TransactionCodec.INSTANCE.getDocumentId(tx).asObjectId().getValue().toHexString()).isEqualTo(tx.getId());
+    }
+
+    // Fechas en UTC y al milisegundo, la precisión de una fecha BSON.
+    private static Transaction fullTransaction() {
+        OffsetDateTime now = OffsetDateTime.of(2024, 5, 17, 10, 30, 15, 123_000_000, ZoneOffset.UTC);
+        Transaction tx = new Transaction();
+        tx.setId(new ObjectId().toHexString());
+        tx.setCustomerId("cust1");
+        tx.setDebtorDni("12345678");
+        tx.setPayerDni("87654321");
+        tx.setProductId("prod1");
+        tx.setAccountId("acc1");
+        tx.setOperationTypeId("op1");
+        tx.setEventDate(now.minusMinutes(1));
+        tx.setType(TransactionType.DEBIT_CARD_CHARGE);
+        tx.setOrigin(TransactionOrigin.DEBIT_CARD);
+        tx.setState(TransactionState.ACTIVE);
+        tx.setAmount(new BigDecimal("-125.50"));
+        tx.setCommissionApplied(new BigDecimal("3.50"));
+        tx.setDate(now.plusDays(30));
+        tx.setDescription("Compra con tarjeta");
+        tx.setStatus(StatusEnum.APPROVED);
+        tx.setCreatedAt(now);
+        tx.setUpdatedAt(now.plusSeconds(5));
+        tx.setVersion(2);
+        return tx;
+    }
+}
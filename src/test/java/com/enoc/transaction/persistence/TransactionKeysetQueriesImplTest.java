@@ -0,0 +1,76 @@
+package com.enoc.transaction.persistence;
+
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.repository.PageCursor;
+import com.enoc.transaction.infrastructure.persistence.TransactionKeysetQueriesImpl;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionKeysetQueriesImplTest {
+
+    private static final PageCursor CURSOR = new PageCursor(OffsetDateTime.of(2025, 1, 31, 12, 0, 0, 0, ZoneOffset.UTC), "tx50");
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private TransactionKeysetQueriesImpl queries;
+
+    @BeforeEach
+    void setUp() {
+        queries = new TransactionKeysetQueriesImpl(mongoTemplate);
+        when(mongoTemplate.find(any(Query.class), eq(Transaction.class))).thenReturn(Flux.empty());
+    }
+
+    @Test
+    void findPageShouldAcceptACursorAfterAnEmptyFilter() {
+        StepVerifier.create(queries.findPage(new Criteria(), CURSOR, 50)).verifyComplete();
+
+        Query query = captured();
+        assertThat(query.getQueryObject()).containsOnlyKeys("$or");
+        assertThat(query.getLimit()).isEqualTo(50);
+        assertThat(query.getSortObject()).isEqualTo(new Document("createdAt", -1).append("id", -1));
+    }
+
+    @Test
+    void findPageShouldCombineAFilterAndTheCursorWithAnd() {
+        StepVerifier.create(queries.findPage(where("customerId").is("cust1"), CURSOR, 20)).verifyComplete();
+
+        Document queryObject = captured().getQueryObject();
+        assertThat(queryObject).containsOnlyKeys("$and");
+        assertThat(queryObject.getList("$and", Document.class)).hasSize(2)
+                .first().isEqualTo(new Document("customerId", "cust1"));
+        assertThat(queryObject.getList("$and", Document.class).get(1)).containsOnlyKeys("$or");
+    }
+
+    @Test
+    void findPageWithoutCursorShouldKeepTheFilterAsIs() {
+        StepVerifier.create(queries.findPage(where("productId").is("prod1"), null, 20)).verifyComplete();
+
+        assertThat(captured().getQueryObject()).isEqualTo(new Document("productId", "prod1"));
+    }
+
+    private Query captured() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Transaction.class));
+        return query.getValue();
+    }
+}
@@ -0,0 +1,104 @@
+package com.enoc.transaction.service;
+
+import com.enoc.transaction.application.service.cache.CacheInvalidationBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+    private static final String CHANNEL = "transactions:cache-invalidations";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry registry;
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        bus = new CacheInvalidationBus(redisTemplate, registry, CHANNEL, 10, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.stop();
+    }
+
+    @Test
+    void publishShouldCoalesceABurstIntoOneMessage() {
+        doReturn(Flux.never()).when(redisTemplate).listenToChannel(CHANNEL);
+        when(redisTemplate.convertAndSend(eq(CHANNEL), anyString())).thenReturn(Mono.just(1L));
+        bus.start();
+
+        bus.publish("transactions::tx1");
+        bus.publish("lastTransactions::cust1");
+        bus.publish("transactions::tx1");
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, timeout(2000)).convertAndSend(eq(CHANNEL), message.capture());
+        assertThat(message.getValue().split("\n")).hasSize(3)
+                .endsWith("transactions::tx1", "lastTransactions::cust1");
+        assertThat(registry.get("transaction.cache.invalidation.batch.size").summary().max()).isEqualTo(2.0);
+    }
+
+    @Test
+    void batchesClosedByTheWindowWhileASendIsInFlightShouldNotStopPublishing() throws InterruptedException {
+        bus = new CacheInvalidationBus(redisTemplate, registry, CHANNEL, 10, 1);
+        doReturn(Flux.never()).when(redisTemplate).listenToChannel(CHANNEL);
+        when(redisTemplate.convertAndSend(eq(CHANNEL), anyString()))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(5)).thenReturn(1L));
+        bus.start();
+
+        for (int i = 0; i < 300; i++) {
+            bus.publish("transactions::tx" + i);
+            Thread.sleep(2);
+        }
+
+        Counter published = registry.get("transaction.cache.invalidation.published").counter();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (published.count() < 300 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(published.count()).isEqualTo(300.0);
+    }
+
+    @Test
+    void receivedMessagesShouldEvictEachKeyAndSkipMalformedOnes() {
+        long publishedAt = System.currentTimeMillis();
+        doReturn(Flux.just(
+                new ReactiveSubscription.ChannelMessage<>(CHANNEL, "not-a-timestamp\ntransactions::tx0"),
+                new ReactiveSubscription.ChannelMessage<>(CHANNEL, publishedAt + "\ntransactions::tx1\nactiveTransactions::tx1")))
+                .when(redisTemplate).listenToChannel(CHANNEL);
+        List<String> evicted = new ArrayList<>();
+        bus.onInvalidation(evicted::add);
+
+        bus.start();
+
+        assertThat(evicted).containsExactly("transactions::tx1", "activeTransactions::tx1");
+        assertThat(registry.get("transaction.cache.invalidation.received").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("transaction.cache.invalidation.lag").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,25 @@
+package com.enoc.transaction.service;
+
+import com.enoc.transaction.domain.service.FeeSchedule;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeeScheduleTest {
+
+    @Test
+    void feeForShouldApplyTheHighestTierBelowTheCount() {
+        FeeSchedule schedule = new FeeSchedule("500.00=5.0,1000=3.5");
+
+        assertThat(schedule.feeFor(500)).isEqualTo(0.0);
+        assertThat(schedule.feeFor(501)).isEqualTo(5.0);
+        assertThat(schedule.feeFor(1001)).isEqualTo(3.5);
+    }
+
+    @Test
+    void fractionalThresholdsShouldBeRejected() {
+        assertThatThrownBy(() -> new FeeSchedule("10.5=5.0"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("10.5=5.0");
+    }
+}
@@ -0,0 +1,196 @@
+package com.enoc.transaction.service;
+
+import com.enoc.transaction.application.service.cache.CacheInvalidationBus;
+import com.enoc.transaction.application.service.cache.ReactiveCachedTransactionService;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import com.enoc.transaction.dto.response.TransactionResponseDto;
+import com.enoc.transaction.infrastructure.mapper.TransactionMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCachedTransactionServiceTest {
+
+    @Mock
+    private TransactionRepository repository;
+    @Mock
+    private TransactionMapper mapper;
+    @Mock
+    private ReactiveRedisTemplate<String, TransactionResponseDto> redisTemplate;
+    @Mock
+    private ReactiveValueOperations<String, TransactionResponseDto> valueOperations;
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private SimpleMeterRegistry registry;
+    private ReactiveCachedTransactionService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        service = new ReactiveCachedTransactionService(repository, mapper, redisTemplate, invalidationBus, registry,
+                100, 60_000, 100, 60_000, 100, 60_000, 3_600_000, 1_800_000, 1_800_000);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void getByIdCachedShouldServeRepeatedReadsFromMemoryWithTheSameInstance() {
+        TransactionResponseDto cached = new TransactionResponseDto();
+        when(valueOperations.get("transactions::tx1")).thenReturn(Mono.just(cached));
+
+        StepVerifier.create(service.getByIdCached("tx1")).expectNext(cached).verifyComplete();
+        StepVerifier.create(service.getByIdCached("tx1"))
+                .assertNext(dto -> assertThat(dto).isSameAs(cached))
+                .verifyComplete();
+
+        verify(valueOperations, times(1)).get("transactions::tx1");
+        assertThat(gets("transactions", "l1", "hit")).isEqualTo(1.0);
+        assertThat(gets("transactions", "l1", "miss")).isEqualTo(1.0);
+        assertThat(gets("transactions", "l2", "hit")).isEqualTo(1.0);
+        assertThat(registry.get("transaction.cache.hit.ratio").tags("cache", "transactions", "tier", "l1").gauge().value())
+                .isEqualTo(0.5);
+    }
+
+    @Test
+    void getLastByCustomerIdCachedShouldLoadOnMissAndKeepTheResultOnBothTiers() {
+        Transaction tx = new Transaction();
+        TransactionResponseDto dto = new TransactionResponseDto();
+        when(valueOperations.get("lastTransactions::cust1")).thenReturn(Mono.empty());
+        when(repository.findTopByCustomerIdAndStateOrderByCreatedAtDesc(eq("cust1"), any())).thenReturn(Mono.just(tx));
+        when(mapper.toDto(tx)).thenReturn(dto);
+        when(valueOperations.setIfAbsent(eq("lastTransactions::cust1"), eq(dto), any(Duration.class))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.getLastByCustomerIdCached("cust1")).expectNext(dto).verifyComplete();
+        StepVerifier.create(service.getLastByCustomerIdCached("cust1")).expectNext(dto).verifyComplete();
+
+        verify(repository, times(1)).findTopByCustomerIdAndStateOrderByCreatedAtDesc(eq("cust1"), any());
+        assertThat(gets("lastTransactions", "l2", "miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void aLoadThatLosesTheWriteBackRaceShouldKeepTheValueAlreadyInRedis() {
+        Transaction tx = new Transaction();
+        TransactionResponseDto loaded = new TransactionResponseDto();
+        TransactionResponseDto written = new TransactionResponseDto();
+        written.setDescription("escrita por un commit concurrente");
+        when(valueOperations.get("transactions::tx1")).thenReturn(Mono.empty()).thenReturn(Mono.just(written));
+        when(repository.findByIdIncludingArchive("tx1")).thenReturn(Mono.just(tx));
+        when(mapper.toDto(tx)).thenReturn(loaded);
+        when(valueOperations.setIfAbsent(eq("transactions::tx1"), eq(loaded), any(Duration.class))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(service.getByIdCached("tx1")).expectNext(written).verifyComplete();
+        StepVerifier.create(service.getByIdCached("tx1"))
+                .assertNext(dto -> assertThat(dto).isSameAs(written))
+                .verifyComplete();
+
+        verify(valueOperations, times(2)).get("transactions::tx1");
+    }
+
+    @Test
+    void aLoadThatLosesTheRaceToAnEvictedKeyShouldNotBeKeptInMemory() {
+        Transaction tx = new Transaction();
+        TransactionResponseDto loaded = new TransactionResponseDto();
+        when(valueOperations.get("transactions::tx1")).thenReturn(Mono.empty());
+        when(repository.findByIdIncludingArchive("tx1")).thenReturn(Mono.just(tx));
+        when(mapper.toDto(tx)).thenReturn(loaded);
+        when(valueOperations.setIfAbsent(eq("transactions::tx1"), eq(loaded), any(Duration.class))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(service.getByIdCached("tx1")).expectNext(loaded).verifyComplete();
+        StepVerifier.create(service.getByIdCached("tx1")).expectNext(loaded).verifyComplete();
+
+        verify(repository, times(2)).findByIdIncludingArchive("tx1");
+    }
+
+    @Test
+    void concurrentMissesForTheSameIdShouldShareOneLoad() {
+        Transaction tx = new Transaction();
+        TransactionResponseDto dto = new TransactionResponseDto();
+        Sinks.One<Transaction> pending = Sinks.one();
+        when(valueOperations.get("transactions::tx1")).thenReturn(Mono.empty());
+        when(repository.findByIdIncludingArchive("tx1")).thenReturn(pending.asMono());
+        when(mapper.toDto(tx)).thenReturn(dto);
+        when(valueOperations.setIfAbsent(eq("transactions::tx1"), eq(dto), any(Duration.class))).thenReturn(Mono.just(true));
+
+        StepVerifier first = StepVerifier.create(service.getByIdCached("tx1")).expectNext(dto).expectComplete().verifyLater();
+        StepVerifier second = StepVerifier.create(service.getByIdCached("tx1")).expectNext(dto).expectComplete().verifyLater();
+        pending.tryEmitValue(tx);
+        first.verify();
+        second.verify();
+
+        verify(repository, times(1)).findByIdIncludingArchive("tx1");
+        verify(valueOperations, times(1)).setIfAbsent(eq("transactions::tx1"), eq(dto), any(Duration.class));
+        assertThat(registry.get("transaction.cache.loads.coalesced").tags("cache", "transactions").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void onUpdatedShouldWriteThroughEvictTheRestAndHonourRemoteInvalidations() {
+        ArgumentCaptor<Consumer<String>> evictor = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).onInvalidation(evictor.capture());
+        TransactionResponseDto first = new TransactionResponseDto();
+        TransactionResponseDto updated = new TransactionResponseDto();
+        when(valueOperations.get("transactions::tx1")).thenReturn(Mono.just(first), Mono.just(updated));
+        when(valueOperations.get("lastTransactions::cust1")).thenReturn(Mono.just(first), Mono.just(updated));
+        Transaction tx = new Transaction();
+        tx.setId("tx1");
+        tx.setCustomerId("cust1");
+        tx.setState(TransactionState.INACTIVE);
+        when(mapper.toDto(tx)).thenReturn(updated);
+        when(valueOperations.set("transactions::tx1", updated, Duration.ofHours(1))).thenReturn(Mono.just(true));
+        when(redisTemplate.delete(any(Publisher.class))).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(service.getByIdCached("tx1")).expectNext(first).verifyComplete();
+        StepVerifier.create(service.onUpdated(tx)).verifyComplete();
+        StepVerifier.create(service.getByIdCached("tx1")).expectNext(updated).verifyComplete();
+
+        verify(redisTemplate, times(2)).delete(any(Publisher.class));
+        verify(invalidationBus).publish("transactions::tx1");
+        verify(invalidationBus).publish("activeTransactions::tx1");
+        verify(invalidationBus).publish("lastTransactions::cust1");
+
+        StepVerifier.create(service.getLastByCustomerIdCached("cust1")).expectNext(first).verifyComplete();
+        evictor.getValue().accept("lastTransactions::cust1");
+        StepVerifier.create(service.getLastByCustomerIdCached("cust1")).expectNext(updated).verifyComplete();
+    }
+
+    @Test
+    void onCreatedShouldWriteTheNewTransactionAsTheCustomersLast() {
+        Transaction tx = new Transaction();
+        tx.setId("tx2");
+        tx.setCustomerId("cust1");
+        tx.setState(TransactionState.ACTIVE);
+        TransactionResponseDto dto = new TransactionResponseDto();
+        when(mapper.toDto(tx)).thenReturn(dto);
+        when(valueOperations.set("lastTransactions::cust1", dto, Duration.ofMinutes(30))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.onCreated(tx)).verifyComplete();
+
+        verify(valueOperations).set("lastTransactions::cust1", dto, Duration.ofMinutes(30));
+        verify(invalidationBus).publish("lastTransactions::cust1");
+    }
+
+    private double gets(String cache, String tier, String result) {
+        return registry.get("transaction.cache.gets").tags("cache", cache, "tier", tier, "result", result).counter().count();
+    }
+}
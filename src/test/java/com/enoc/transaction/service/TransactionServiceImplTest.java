@@ -1,36 +1,50 @@
 package com.enoc.transaction.service;
 
+import com.enoc.transaction.application.event.TransactionEventPublisher;
 import com.enoc.transaction.application.service.cache.ReactiveCachedTransactionService;
+import com.enoc.transaction.application.usecase.AccountBalanceProjection;
+import com.enoc.transaction.application.usecase.CustomerDebtProjection;
+import com.enoc.transaction.application.usecase.FeeCounterProjection;
+import com.enoc.transaction.domain.exception.BusinessException;
 import com.enoc.transaction.domain.exception.ResourceNotFoundException;
+import com.enoc.transaction.domain.model.AccountBalance;
 import com.enoc.transaction.domain.model.Transaction;
 import com.enoc.transaction.domain.model.enums.TransactionOrigin;
 import com.enoc.transaction.domain.model.enums.TransactionState;
 import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.PageCursor;
 import com.enoc.transaction.domain.repository.TransactionRepository;
+import com.enoc.transaction.domain.service.FeeSchedule;
 import com.enoc.transaction.domain.service.TransactionValidator;
 import com.enoc.transaction.dto.request.TransactionRequestDTO;
 import com.enoc.transaction.dto.response.TransactionResponseDto;
 import com.enoc.transaction.events.ExternalTransferRequested;
 import com.enoc.transaction.infrastructure.mapper.TransactionMapper;
-import com.enoc.transaction.infrastructure.messaging.producer.ExternalTransferProducer;
 import com.enoc.transaction.infrastructure.service.TransactionServiceImpl;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import javassist.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,13 +63,49 @@ class TransactionServiceImplTest {
     private TransactionValidator validator;
 
     @Mock
-    private ExternalTransferProducer externalTransferProducer;
+    private TransactionEventPublisher transactionEventPublisher;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private AccountBalanceProjection balanceProjection;
+
+    @Mock
+    private CustomerDebtProjection debtProjection;
+
+    @Mock
+    private FeeCounterProjection feeCounters;
+
+    @Spy
+    private FeeSchedule feeSchedule = new FeeSchedule("10=5.0,50=3.5");
 
     @InjectMocks
     private TransactionServiceImpl service;
 
     private TransactionRequestDTO requestDto;
 
+    @BeforeEach
+    void setUpOutbox() {
+        ReflectionTestUtils.setField(service, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(service, "maxPageSize", 500);
+        ReflectionTestUtils.setField(service, "activeRetentionDays", 365);
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(balanceProjection.apply(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(balanceProjection.revert(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(debtProjection.apply(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(debtProjection.refresh(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(debtProjection.evict(any())).thenReturn(Mono.empty());
+        lenient().when(feeCounters.record(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(feeCounters.evict(any())).thenReturn(Mono.empty());
+        lenient().when(transactionEventPublisher.publishCreated(any()))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(transactionEventPublisher.publishExternalTransferRequested(any(), any()))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(cachedService.onCreated(any())).thenReturn(Mono.empty());
+        lenient().when(cachedService.onUpdated(any())).thenReturn(Mono.empty());
+    }
+
     @Test
     void createShouldDelegateToCreateDeposit() {
         // Arrange
@@ -83,12 +133,7 @@ class TransactionServiceImplTest {
 
         // Stubbing solo lo necesario
         when(validator.validarMontoPositivo(any())).thenReturn(Mono.empty());
-        when(repository.existsByCustomerIdAndTypeAndDateBeforeAndState(
-                eq("cust123"),
-                eq(TransactionType.CREDIT_CHARGE),
-                any(OffsetDateTime.class),
-                eq(TransactionState.ACTIVE)
-        )).thenReturn(Mono.just(false));
+        when(debtProjection.isOverdue("cust123")).thenReturn(Mono.just(false));
         when(mapper.mapToEntity(any())).thenReturn(transaction);
         when(repository.save(any())).thenReturn(Mono.just(transaction));
         when(mapper.toDto(any())).thenReturn(expectedDto);
@@ -147,7 +192,7 @@ class TransactionServiceImplTest {
         TransactionResponseDto expected = buildResponseDto(TransactionType.DEPOSIT);
 
         when(validator.validarMontoPositivo(any())).thenReturn(Mono.empty());
-        when(repository.existsByCustomerIdAndTypeAndDateBeforeAndState(any(), any(), any(), any()))
+        when(debtProjection.isOverdue(any()))
                 .thenReturn(Mono.just(false));
         when(mapper.mapToEntity(any())).thenReturn(tx);
         when(repository.save(any())).thenReturn(Mono.just(tx));
@@ -166,7 +211,7 @@ class TransactionServiceImplTest {
         TransactionResponseDto expected = buildResponseDto(TransactionType.WITHDRAWAL);
 
         when(validator.validarMontoPositivo(any())).thenReturn(Mono.empty());
-        when(repository.existsByCustomerIdAndTypeAndDateBeforeAndState(any(), any(), any(), any()))
+        when(debtProjection.isOverdue(any()))
                 .thenReturn(Mono.just(false));
         when(mapper.mapToEntity(any())).thenReturn(tx);
         when(repository.save(any())).thenReturn(Mono.just(tx));
@@ -198,7 +243,7 @@ class TransactionServiceImplTest {
         Transaction tx = buildTransaction(TransactionType.CREDIT_PAYMENT);
         TransactionResponseDto expected = buildResponseDto(TransactionType.CREDIT_PAYMENT);
 
-        when(repository.existsByCustomerIdAndTypeAndDateBeforeAndState(any(), any(), any(), any()))
+        when(debtProjection.isOverdue(any()))
                 .thenReturn(Mono.just(true));
         when(mapper.mapToEntity(any())).thenReturn(tx);
         when(repository.save(any())).thenReturn(Mono.just(tx));
@@ -258,7 +303,7 @@ class TransactionServiceImplTest {
 
         // Assert
         ArgumentCaptor<ExternalTransferRequested> captor = ArgumentCaptor.forClass(ExternalTransferRequested.class);
-        verify(externalTransferProducer).publish(captor.capture());
+        verify(transactionEventPublisher).publishExternalTransferRequested(eq(tx), captor.capture());
 
         ExternalTransferRequested event = captor.getValue();
 
@@ -318,19 +363,18 @@ class TransactionServiceImplTest {
         TransactionRequestDTO request = buildRequest(TransactionType.DEBIT_WITHDRAWAL);
         request.setProductId("card123");
 
-        Transaction previousTx = new Transaction();
-        previousTx.setAccountId("acc001");
-        previousTx.setAmount(new BigDecimal("200.00"));
+        AccountBalance insufficient = new AccountBalance("acc000", "card123", new BigDecimal("1.00"), OffsetDateTime.now());
+        AccountBalance sufficient = new AccountBalance("acc001", "card123", new BigDecimal("200.00"),
+                OffsetDateTime.now().minusDays(1));
 
         Transaction tx = buildTransaction(TransactionType.DEBIT_WITHDRAWAL);
-        tx.setAccountId("acc001");
         tx.setAmount(request.getAmount().negate());
 
         TransactionResponseDto expected = buildResponseDto(TransactionType.DEBIT_WITHDRAWAL);
         expected.setAccountId("acc001");
 
-        when(repository.findByProductIdAndStateOrderByCreatedAtDesc(eq("card123"), any()))
-                .thenReturn(Flux.just(previousTx));
+        when(balanceProjection.accountsOf("card123"))
+                .thenReturn(Flux.just(insufficient, sufficient));
         when(mapper.mapToEntity(any())).thenReturn(tx);
         when(repository.save(any())).thenReturn(Mono.just(tx));
         when(mapper.toDto(any())).thenReturn(expected);
@@ -338,6 +382,20 @@ class TransactionServiceImplTest {
         StepVerifier.create(service.createDebitWithdrawalOrdered(request))
                 .expectNext(expected)
                 .verifyComplete();
+        assertEquals("acc001", tx.getAccountId());
+    }
+
+    @Test
+    void createDebitWithdrawalOrderedShouldFailWhenNoAccountCoversAmount() {
+        TransactionRequestDTO request = buildRequest(TransactionType.DEBIT_WITHDRAWAL);
+        request.setProductId("card123");
+
+        when(balanceProjection.accountsOf("card123"))
+                .thenReturn(Flux.just(new AccountBalance("acc001", "card123", BigDecimal.ONE, OffsetDateTime.now())));
+
+        StepVerifier.create(service.createDebitWithdrawalOrdered(request))
+                .expectError(BusinessException.class)
+                .verify();
     }
 
     @Test
@@ -345,12 +403,49 @@ class TransactionServiceImplTest {
         Transaction tx = buildTransaction(TransactionType.DEPOSIT);
         TransactionResponseDto dto = buildResponseDto(TransactionType.DEPOSIT);
 
-        when(repository.findAll()).thenReturn(Flux.just(tx));
+        when(repository.findPage(any(), isNull(), eq(51))).thenReturn(Flux.just(tx));
         when(mapper.toDto(tx)).thenReturn(dto);
 
-        StepVerifier.create(service.findAll())
-                .expectNext(dto)
+        StepVerifier.create(service.findAll(null, null))
+                .assertNext(page -> {
+                    assertEquals(List.of(dto), page.getItems());
+                    assertNull(page.getNextPageToken());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllShouldReturnCursorOfLastItemWhenMoreRowsExist() {
+        Transaction first = buildTransaction(TransactionType.DEPOSIT);
+        first.setId("tx-2");
+        first.setCreatedAt(OffsetDateTime.parse("2024-05-02T10:00:00Z"));
+        Transaction second = buildTransaction(TransactionType.DEPOSIT);
+        second.setId("tx-1");
+        second.setCreatedAt(OffsetDateTime.parse("2024-05-01T10:00:00Z"));
+
+        when(repository.findPage(any(), isNull(), eq(2))).thenReturn(Flux.just(first, second));
+        when(mapper.toDto(first)).thenReturn(buildResponseDto(TransactionType.DEPOSIT));
+
+        StepVerifier.create(service.findAll(null, 1))
+                .assertNext(page -> {
+                    assertEquals(1, page.getItems().size());
+                    PageCursor cursor = PageCursor.decode(page.getNextPageToken());
+                    assertEquals("tx-2", cursor.getId());
+                    assertEquals(first.getCreatedAt().toInstant(), cursor.getCreatedAt().toInstant());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllShouldCapPageSizeAndRejectInvalidToken() {
+        when(repository.findPage(any(), isNull(), eq(501))).thenReturn(Flux.empty());
+
+        StepVerifier.create(service.findAll(null, 10_000))
+                .assertNext(page -> assertTrue(page.getItems().isEmpty()))
                 .verifyComplete();
+        StepVerifier.create(service.findAll("not-a-token", 10))
+                .expectError(IllegalArgumentException.class)
+                .verify();
     }
 
     @Test
@@ -371,7 +466,7 @@ class TransactionServiceImplTest {
         Transaction updated = buildTransaction(TransactionType.TRANSFER_INTERNAL);
         TransactionResponseDto dto = buildResponseDto(TransactionType.TRANSFER_INTERNAL);
 
-        when(repository.existsByCustomerIdAndTypeAndDateBeforeAndState(any(), any(), any(), any()))
+        when(debtProjection.isOverdue(any()))
                 .thenReturn(Mono.just(false));
         when(repository.findById("tx123")).thenReturn(Mono.just(existing));
         when(repository.save(any())).thenReturn(Mono.just(updated));
@@ -396,7 +491,7 @@ class TransactionServiceImplTest {
 
     @Test
     void hasOverdueCreditTransactionsShouldReturnTrue() {
-        when(repository.existsByCustomerIdAndTypeAndDateBeforeAndState(any(), any(), any(), any()))
+        when(debtProjection.isOverdue(any()))
                 .thenReturn(Mono.just(true));
 
         StepVerifier.create(service.hasOverdueCreditTransactions("cust123"))
@@ -407,7 +502,7 @@ class TransactionServiceImplTest {
     /*
         @Test
         void validateVipEligibilityShouldReturnTrueWhenNoDebt() {
-            when(repository.existsByCustomerIdAndTypeAndDateBeforeAndState(any(), any(), any(), any()))
+            when(debtProjection.isOverdue(any()))
                     .thenReturn(Mono.just(false));
 
             StepVerifier.create(service.validateVipEligibility("cust123"))
@@ -417,7 +512,7 @@ class TransactionServiceImplTest {
 
         @Test
         void validatePymeEligibilityShouldReturnFalseWhenHasDebt() {
-            when(repository.existsByCustomerIdAndTypeAndDateBeforeAndState(any(), any(), any(), any()))
+            when(debtProjection.isOverdue(any()))
                     .thenReturn(Mono.just(true));
 
             StepVerifier.create(service.validatePymeEligibility("cust123"))
@@ -434,7 +529,7 @@ class TransactionServiceImplTest {
         TransactionResponseDto dto = buildResponseDto(TransactionType.CREDIT_PAYMENT);
         dto.setOrigin(TransactionOrigin.CREDIT);
 
-        when(repository.existsByCustomerIdAndTypeAndDateBeforeAndState(any(), any(), any(), any()))
+        when(debtProjection.isOverdue(any()))
                 .thenReturn(Mono.just(true));
         when(mapper.mapToEntity(any())).thenReturn(tx);
         when(repository.save(any())).thenReturn(Mono.just(tx));
@@ -468,15 +563,13 @@ class TransactionServiceImplTest {
         request.setProductId("card123");
         request.setAmount(new BigDecimal("50.00"));
 
-        Transaction previous = buildTransaction(TransactionType.DEPOSIT);
-        previous.setAmount(new BigDecimal("100.00"));
+        AccountBalance latest = new AccountBalance("acc001", "card123", new BigDecimal("100.00"), OffsetDateTime.now());
 
         Transaction tx = buildTransaction(TransactionType.DEBIT_WITHDRAWAL);
         tx.setAmount(new BigDecimal("-50.00"));
         TransactionResponseDto dto = buildResponseDto(TransactionType.DEBIT_WITHDRAWAL);
 
-        when(repository.findByProductIdAndStateOrderByCreatedAtDesc(eq("card123"), any()))
-                .thenReturn(Flux.just(previous));
+        when(balanceProjection.latestAccountOf("card123")).thenReturn(Mono.just(latest));
         when(mapper.mapToEntity(any())).thenReturn(tx);
         when(repository.save(any())).thenReturn(Mono.just(tx));
         when(mapper.toDto(any())).thenReturn(dto);
@@ -484,6 +577,8 @@ class TransactionServiceImplTest {
         StepVerifier.create(service.processOrderedDebitWithdrawal(request))
                 .expectNext(dto)
                 .verifyComplete();
+        assertEquals("acc001", tx.getAccountId());
+        verify(balanceProjection).apply(tx);
     }
 
     /*
@@ -569,28 +664,28 @@ class TransactionServiceImplTest {
     }
 
     @Test
-    void getTransactionsByCustomerIdShouldReturnMappedFlux() {
+    void getTransactionsByCustomerIdShouldIncludeTheArchive() {
         Transaction tx = buildTransaction(TransactionType.DEPOSIT);
         TransactionResponseDto dto = buildResponseDto(TransactionType.DEPOSIT);
 
-        when(repository.findByCustomerIdAndState("cust123", TransactionState.ACTIVE)).thenReturn(Flux.just(tx));
+        when(repository.findPageIncludingArchive(any(), isNull(), eq(51))).thenReturn(Flux.just(tx));
         when(mapper.toDto(tx)).thenReturn(dto);
 
-        StepVerifier.create(service.getTransactionsByCustomerId("cust123"))
-                .expectNext(dto)
+        StepVerifier.create(service.getTransactionsByCustomerId("cust123", null, null))
+                .assertNext(page -> assertEquals(List.of(dto), page.getItems()))
                 .verifyComplete();
     }
 
     @Test
-    void getTransactionsByProductIdShouldReturnMappedFlux() {
+    void getTransactionsByProductIdShouldIncludeTheArchive() {
         Transaction tx = buildTransaction(TransactionType.CREDIT_PAYMENT);
         TransactionResponseDto dto = buildResponseDto(TransactionType.CREDIT_PAYMENT);
 
-        when(repository.findByProductIdAndState("prod456", TransactionState.ACTIVE)).thenReturn(Flux.just(tx));
+        when(repository.findPageIncludingArchive(any(), isNull(), eq(51))).thenReturn(Flux.just(tx));
         when(mapper.toDto(tx)).thenReturn(dto);
 
-        StepVerifier.create(service.getTransactionsByProductId("prod456"))
-                .expectNext(dto)
+        StepVerifier.create(service.getTransactionsByProductId("prod456", null, null))
+                .assertNext(page -> assertEquals(List.of(dto), page.getItems()))
                 .verifyComplete();
     }
 
@@ -602,14 +697,67 @@ class TransactionServiceImplTest {
         Transaction tx = buildTransaction(TransactionType.TRANSFER_INTERNAL);
         TransactionResponseDto dto = buildResponseDto(TransactionType.TRANSFER_INTERNAL);
 
-        when(repository.findByCreatedAtBetweenAndState(start, end, TransactionState.ACTIVE)).thenReturn(Flux.just(tx));
+        when(repository.findPage(any(), isNull(), eq(51))).thenReturn(Flux.just(tx));
         when(mapper.toDto(tx)).thenReturn(dto);
 
-        StepVerifier.create(service.getTransactionsByDateRange(start, end))
-                .expectNext(dto)
+        StepVerifier.create(service.getTransactionsByDateRange(start, end, null, null))
+                .assertNext(page -> assertEquals(List.of(dto), page.getItems()))
                 .verifyComplete();
     }
 
+    @Test
+    void getTransactionsByDateRangeShouldIncludeTheArchiveWhenTheRangeReachesPastTheHotHorizon() {
+        OffsetDateTime start = OffsetDateTime.now().minusYears(2);
+        OffsetDateTime end = OffsetDateTime.now();
+
+        Transaction tx = buildTransaction(TransactionType.TRANSFER_INTERNAL);
+        TransactionResponseDto dto = buildResponseDto(TransactionType.TRANSFER_INTERNAL);
+
+        when(repository.findPageIncludingArchive(any(), isNull(), eq(51))).thenReturn(Flux.just(tx));
+        when(mapper.toDto(tx)).thenReturn(dto);
+
+        StepVerifier.create(service.getTransactionsByDateRange(start, end, null, null))
+                .assertNext(page -> assertEquals(List.of(dto), page.getItems()))
+                .verifyComplete();
+        verify(repository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void generateCustomerBalanceReportShouldReadTheArchiveWhenThePeriodReachesPastTheHotHorizon() {
+        OffsetDateTime start = OffsetDateTime.now().minusYears(2);
+        OffsetDateTime end = OffsetDateTime.now();
+
+        Transaction tx1 = buildTransaction(TransactionType.DEPOSIT);
+        tx1.setAmount(new BigDecimal("100.00"));
+        Transaction tx2 = buildTransaction(TransactionType.DEPOSIT);
+        tx2.setAmount(new BigDecimal("200.00"));
+
+        when(repository.findPageIncludingArchive(any(), isNull(), eq(500))).thenReturn(Flux.just(tx1, tx2));
+
+        StepVerifier.create(service.generateCustomerBalanceReport("cust123", start, end))
+                .assertNext(dto -> {
+                    assertEquals(300.0, dto.getTotalAmount());
+                    assertEquals(150.0, dto.getAverageBalance());
+                })
+                .verifyComplete();
+        verify(repository, never()).findByCustomerIdAndStateAndCreatedAtBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    void getTransactionsByCustomerIdShouldReadTheHistoryWhenBucketsAreEnabled() {
+        ReflectionTestUtils.setField(service, "bucketsEnabled", true);
+        Transaction tx = buildTransaction(TransactionType.DEPOSIT);
+        TransactionResponseDto dto = buildResponseDto(TransactionType.DEPOSIT);
+
+        when(repository.findPageIncludingHistory(any(), isNull(), eq(51))).thenReturn(Flux.just(tx));
+        when(mapper.toDto(tx)).thenReturn(dto);
+
+        StepVerifier.create(service.getTransactionsByCustomerId("cust123", null, null))
+                .assertNext(page -> assertEquals(List.of(dto), page.getItems()))
+                .verifyComplete();
+        verify(repository, never()).findPage(any(), any(), anyInt());
+    }
+
     @Test
     void getLastTransactionShouldReturnDto() {
         TransactionResponseDto dto = buildResponseDto(TransactionType.DEBIT_CARD_PAYMENT);
@@ -623,8 +771,7 @@ class TransactionServiceImplTest {
 
     @Test
     void calculateTransactionFeeShouldReturnZeroWhenUnderLimit() {
-        ReflectionTestUtils.setField(service, "transactionLimit", 10);
-        when(repository.countByAccountIdAndTypeIn("acc789", List.of("DEPOSIT"))).thenReturn(Mono.just(3L));
+        when(feeCounters.countOf("acc789", TransactionType.DEPOSIT)).thenReturn(Mono.just(3L));
 
         StepVerifier.create(service.calculateTransactionFee("acc789", TransactionType.DEPOSIT))
                 .expectNext(0.0)
@@ -633,12 +780,22 @@ class TransactionServiceImplTest {
 
     @Test
     void calculateTransactionFeeShouldReturnFixedFeeWhenOverLimit() {
-        when(repository.countByAccountIdAndTypeIn("acc789", List.of("DEPOSIT"))).thenReturn(Mono.just(100L));
+        when(feeCounters.countOf("acc789", TransactionType.DEPOSIT)).thenReturn(Mono.just(11L));
 
         StepVerifier.create(service.calculateTransactionFee("acc789", TransactionType.DEPOSIT))
                 .expectNext(5.0)
                 .verifyComplete();
     }
+
+    @Test
+    void calculateTransactionFeeShouldApplyTheHighestTierExceeded() {
+        when(feeCounters.countOf("acc789", TransactionType.DEPOSIT)).thenReturn(Mono.just(100L));
+
+        StepVerifier.create(service.calculateTransactionFee("acc789", TransactionType.DEPOSIT))
+                .expectNext(3.5)
+                .verifyComplete();
+        verify(repository, never()).countByAccountIdAndTypeIn(any(), any());
+    }
 /*
     @Test
     void generateCustomerBalanceReportShouldReturnAggregatedDto() {
@@ -0,0 +1,114 @@
+package com.enoc.transaction.usecase;
+
+import com.enoc.transaction.application.usecase.AccountBalanceProjection;
+import com.enoc.transaction.domain.exception.BusinessException;
+import com.enoc.transaction.domain.model.AccountBalance;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.repository.AccountBalanceRepository;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountBalanceProjectionTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2024-05-01T10:00:00Z");
+
+    @Mock
+    private AccountBalanceRepository repository;
+
+    @InjectMocks
+    private AccountBalanceProjection projection;
+
+    @Test
+    void applyShouldIncrementCredits() {
+        Transaction deposit = transaction("acc001", "150.00");
+        when(repository.increment("acc001", "prod1", new BigDecimal("150.00"), NOW)).thenReturn(Mono.empty());
+
+        StepVerifier.create(projection.apply(deposit))
+                .expectNext(deposit)
+                .verifyComplete();
+        verify(repository, never()).decrementIfSufficient(any(), any(), any(), any());
+    }
+
+    @Test
+    void applyShouldRejectDebitWhenBalanceIsInsufficient() {
+        Transaction withdrawal = transaction("acc001", "-80.00");
+        when(repository.decrementIfSufficient("acc001", "prod1", new BigDecimal("80.00"), NOW)).thenReturn(Mono.empty());
+
+        StepVerifier.create(projection.apply(withdrawal))
+                .expectError(BusinessException.class)
+                .verify();
+    }
+
+    @Test
+    void applyShouldAcceptDebitWhenBalanceCoversIt() {
+        Transaction withdrawal = transaction("acc001", "-80.00");
+        when(repository.decrementIfSufficient("acc001", "prod1", new BigDecimal("80.00"), NOW))
+                .thenReturn(Mono.just(new AccountBalance("acc001", "prod1", new BigDecimal("20.00"), NOW)));
+
+        StepVerifier.create(projection.apply(withdrawal))
+                .expectNext(withdrawal)
+                .verifyComplete();
+    }
+
+    @Test
+    void applyShouldIgnoreTransactionsWithoutAccountOrInactive() {
+        Transaction withoutAccount = transaction(null, "10.00");
+        Transaction inactive = transaction("acc001", "10.00");
+        inactive.setState(TransactionState.INACTIVE);
+
+        StepVerifier.create(projection.apply(withoutAccount)).expectNext(withoutAccount).verifyComplete();
+        StepVerifier.create(projection.apply(inactive)).expectNext(inactive).verifyComplete();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void revertShouldSubtractTheAmountUnconditionally() {
+        Transaction deposit = transaction("acc001", "150.00");
+        when(repository.increment(eq("acc001"), eq("prod1"), eq(new BigDecimal("-150.00")), isNull())).thenReturn(Mono.empty());
+
+        StepVerifier.create(projection.revert(deposit))
+                .expectNext(deposit)
+                .verifyComplete();
+    }
+
+    @Test
+    void applyAllShouldIssueOneIncrementPerAccount() {
+        Transaction first = transaction("acc001", "100.00");
+        Transaction second = transaction("acc001", "-30.00");
+        second.setCreatedAt(NOW.plusMinutes(1));
+        Transaction other = transaction("acc002", "5.00");
+        when(repository.increment(any(), any(), any(), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(projection.applyAll(List.of(first, second, other)))
+                .verifyComplete();
+        verify(repository).increment("acc001", "prod1", new BigDecimal("70.00"), NOW.plusMinutes(1));
+        verify(repository).increment("acc002", "prod1", new BigDecimal("5.00"), NOW);
+    }
+
+    private static Transaction transaction(String accountId, String amount) {
+        Transaction tx = new Transaction();
+        tx.setAccountId(accountId);
+        tx.setProductId("prod1");
+        tx.setAmount(new BigDecimal(amount));
+        tx.setState(TransactionState.ACTIVE);
+        tx.setCreatedAt(NOW);
+        return tx;
+    }
+}
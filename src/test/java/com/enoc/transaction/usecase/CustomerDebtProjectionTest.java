@@ -0,0 +1,88 @@
+package com.enoc.transaction.usecase;
+
+import com.enoc.transaction.application.usecase.CustomerDebtProjection;
+import com.enoc.transaction.domain.model.CustomerDebtStatus;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionState;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.CustomerDebtStatusRepository;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerDebtProjectionTest {
+
+    @Mock
+    private CustomerDebtStatusRepository repository;
+
+    private CustomerDebtProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        projection = new CustomerDebtProjection(repository, 1_000, 60_000);
+    }
+
+    @Test
+    void isOverdueShouldServeRepeatedChecksFromMemory() {
+        when(repository.findById("cust1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(projection.isOverdue("cust1")).expectNext(false).verifyComplete();
+        StepVerifier.create(projection.isOverdue("cust1")).expectNext(false).verifyComplete();
+
+        verify(repository, times(1)).findById("cust1");
+    }
+
+    @Test
+    void isOverdueShouldTreatPassedDueDateWithDebtAsOverdueBeforeTheSweep() {
+        CustomerDebtStatus status = new CustomerDebtStatus("cust1", new BigDecimal("100.00"),
+                OffsetDateTime.now().minusDays(1), false, OffsetDateTime.now());
+        when(repository.findById("cust1")).thenReturn(Mono.just(status));
+
+        StepVerifier.create(projection.isOverdue("cust1")).expectNext(true).verifyComplete();
+    }
+
+    @Test
+    void evictAfterCommitShouldDropTheCachedStatusOfTheCharge() {
+        OffsetDateTime due = OffsetDateTime.now().minusDays(1);
+        Transaction charge = new Transaction();
+        charge.setCustomerId("cust1");
+        charge.setType(TransactionType.CREDIT_CHARGE);
+        charge.setState(TransactionState.ACTIVE);
+        charge.setAmount(new BigDecimal("100.00"));
+        charge.setDate(due);
+        when(repository.findById("cust1"))
+                .thenReturn(Mono.empty())
+                .thenReturn(Mono.just(new CustomerDebtStatus("cust1", new BigDecimal("100.00"), due, true, due)));
+        when(repository.charge("cust1", new BigDecimal("100.00"), due)).thenReturn(Mono.empty());
+
+        StepVerifier.create(projection.isOverdue("cust1")).expectNext(false).verifyComplete();
+        StepVerifier.create(projection.apply(charge)).expectNext(charge).verifyComplete();
+        // Antes del commit la caché sigue sirviendo el estado confirmado.
+        StepVerifier.create(projection.isOverdue("cust1")).expectNext(false).verifyComplete();
+        StepVerifier.create(projection.evict(charge)).verifyComplete();
+        StepVerifier.create(projection.isOverdue("cust1")).expectNext(true).verifyComplete();
+    }
+
+    @Test
+    void applyShouldChargePaymentsToTheDebtorWhenAThirdPartyPays() {
+        Transaction payment = new Transaction();
+        payment.setCustomerId("payer");
+        payment.setDebtorDni("debtor");
+        payment.setType(TransactionType.CREDIT_PAYMENT);
+        payment.setState(TransactionState.ACTIVE);
+        payment.setAmount(new BigDecimal("40.00"));
+        when(repository.pay("debtor", new BigDecimal("40.00"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(projection.apply(payment)).expectNext(payment).verifyComplete();
+    }
+}
@@ -0,0 +1,49 @@
+package com.enoc.transaction.usecase;
+
+import com.enoc.transaction.application.usecase.EventIdBloomFilter;
+import java.util.UUID;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventIdBloomFilterTest {
+
+    @Test
+    void mightContainShouldNeverMissAnInsertedId() {
+        EventIdBloomFilter filter = new EventIdBloomFilter(10_000, 0.01);
+        String[] ids = new String[10_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            filter.put(ids[i]);
+        }
+
+        for (String id : ids) {
+            assertThat(filter.mightContain(id)).isTrue();
+        }
+    }
+
+    @Test
+    void mightContainShouldKeepFalsePositivesNearTheConfiguredRate() {
+        EventIdBloomFilter filter = new EventIdBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void mightContainShouldTreatUtf8AndStringIdsAlike() {
+        EventIdBloomFilter filter = new EventIdBloomFilter(100, 0.01);
+        filter.put(new Utf8("pay-001"));
+
+        assertThat(filter.mightContain("pay-001")).isTrue();
+    }
+}
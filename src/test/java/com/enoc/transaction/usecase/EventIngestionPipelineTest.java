@@ -0,0 +1,112 @@
+package com.enoc.transaction.usecase;
+
+import com.enoc.transaction.application.service.cache.ReactiveCachedTransactionService;
+import com.enoc.transaction.application.usecase.EventIngestionPipeline;
+import com.enoc.transaction.application.usecase.EventMappings;
+import com.enoc.transaction.application.usecase.ProcessedEventDeduplicator;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import com.enoc.transaction.events.TransactionCreated;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventIngestionPipelineTest {
+
+    @Mock
+    private TransactionRepository repository;
+    @Mock
+    private ProcessedEventDeduplicator deduplicator;
+    @Mock
+    private ReactiveCachedTransactionService cachedService;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private final AtomicInteger transactions = new AtomicInteger();
+    private EventIngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new EventIngestionPipeline(repository, deduplicator, cachedService, transactionalOperator);
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> {
+            transactions.incrementAndGet();
+            return invocation.getArgument(0);
+        });
+        lenient().when(deduplicator.isNew(anyString())).thenAnswer(invocation -> Mono.just(!"tx0".equals(invocation.getArgument(0))));
+        lenient().when(repository.insertAllUnordered(anyList()))
+                .thenAnswer(invocation -> Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+        lenient().when(repository.findExistingIds(anyList())).thenReturn(Flux.empty());
+        lenient().when(cachedService.evictLast(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void processBatchShouldInsertCountAndMarkOnlyFreshEventsInOneTransaction() {
+        when(deduplicator.markProcessed(anyList())).thenReturn(Mono.empty());
+
+        StepVerifier.create(pipeline.processBatch(EventMappings.TRANSACTION_CREATED, List.of(event("tx0"), event("tx1"), event("tx2"))))
+                .expectNext(2L)
+                .verifyComplete();
+
+        ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertAllUnordered(inserted.capture());
+        assertThat(inserted.getValue()).extracting(Transaction::getId).containsExactly("tx1", "tx2");
+        verify(deduplicator).markProcessed(List.of("tx1", "tx2"));
+        assertThat(transactions).hasValue(1);
+    }
+
+    @Test
+    void processBatchShouldInsertARepeatedOrAlreadyStoredIdOnceAndStillMarkIt() {
+        when(repository.findExistingIds(anyList())).thenReturn(Flux.just("tx3"));
+        when(deduplicator.markProcessed(anyList())).thenReturn(Mono.empty());
+
+        StepVerifier.create(pipeline.processBatch(EventMappings.TRANSACTION_CREATED,
+                        List.of(event("tx1"), event("tx2"), event("tx1"), event("tx3"))))
+                .expectNext(2L)
+                .verifyComplete();
+
+        ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertAllUnordered(inserted.capture());
+        assertThat(inserted.getValue()).extracting(Transaction::getId).containsExactly("tx1", "tx2");
+        verify(repository).findExistingIds(List.of("tx1", "tx2", "tx3"));
+        verify(deduplicator).markProcessed(List.of("tx1", "tx2", "tx3"));
+        assertThat(transactions).hasValue(1);
+    }
+
+    @Test
+    void processBatchShouldNotEvictCachesWhenMarkingFails() {
+        when(deduplicator.markProcessed(anyList())).thenReturn(Mono.error(new IllegalStateException("sin conexión")));
+
+        StepVerifier.create(pipeline.processBatch(EventMappings.TRANSACTION_CREATED, List.of(event("tx1"))))
+                .verifyError(IllegalStateException.class);
+
+        verify(cachedService, never()).evictLast(any());
+    }
+
+    private static TransactionCreated event(String id) {
+        return TransactionCreated.newBuilder()
+                .setTransactionId(id)
+                .setCustomerId("cust1")
+                .setAmount(25.5)
+                .setType("DEPOSIT")
+                .setTimestamp("2025-03-14T09:26:53Z")
+                .build();
+    }
+}
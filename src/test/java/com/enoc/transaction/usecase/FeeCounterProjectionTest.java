@@ -0,0 +1,91 @@
+package com.enoc.transaction.usecase;
+
+import com.enoc.transaction.application.usecase.FeeCounterProjection;
+import com.enoc.transaction.domain.model.FeeCounter;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.FeeCounterRepository;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FeeCounterProjectionTest {
+
+    private static final YearMonth MAY = YearMonth.of(2024, 5);
+
+    @Mock
+    private FeeCounterRepository repository;
+
+    private FeeCounterProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        projection = new FeeCounterProjection(repository, 1_000, 60_000);
+    }
+
+    @Test
+    void countOfShouldReadTheCurrentMonthCounterOnceAndThenServeItFromMemory() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        String id = FeeCounter.idOf("acc001", TransactionType.DEPOSIT, current);
+        when(repository.findById(id)).thenReturn(Mono.just(
+                new FeeCounter(id, "acc001", TransactionType.DEPOSIT, current.toString(), 7, OffsetDateTime.now())));
+
+        StepVerifier.create(projection.countOf("acc001", TransactionType.DEPOSIT)).expectNext(7L).verifyComplete();
+        StepVerifier.create(projection.countOf("acc001", TransactionType.DEPOSIT)).expectNext(7L).verifyComplete();
+
+        verify(repository, times(1)).findById(id);
+    }
+
+    @Test
+    void recordShouldIncrementTheBucketOfTheCreationMonthAndEvictShouldDropTheCachedCount() {
+        Transaction deposit = transaction("acc001", OffsetDateTime.now());
+        String id = FeeCounter.idOf("acc001", TransactionType.DEPOSIT, YearMonth.now(ZoneOffset.UTC));
+        when(repository.findById(id)).thenReturn(Mono.empty());
+        when(repository.increment("acc001", TransactionType.DEPOSIT, YearMonth.now(ZoneOffset.UTC), 1)).thenReturn(Mono.empty());
+
+        StepVerifier.create(projection.countOf("acc001", TransactionType.DEPOSIT)).expectNext(0L).verifyComplete();
+        StepVerifier.create(projection.record(deposit)).expectNext(deposit).verifyComplete();
+        StepVerifier.create(projection.countOf("acc001", TransactionType.DEPOSIT)).expectNext(0L).verifyComplete();
+        verify(repository, times(1)).findById(id);
+
+        StepVerifier.create(projection.evict(deposit)).verifyComplete();
+        StepVerifier.create(projection.countOf("acc001", TransactionType.DEPOSIT)).expectNext(0L).verifyComplete();
+        verify(repository, times(2)).findById(id);
+    }
+
+    @Test
+    void recordAllShouldIssueOneIncrementPerBucket() {
+        OffsetDateTime may = OffsetDateTime.parse("2024-05-10T10:00:00Z");
+        when(repository.increment(any(), any(), any(), any(Long.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(projection.recordAll(List.of(
+                        transaction("acc001", may), transaction("acc001", may.plusDays(1)), transaction("acc002", may),
+                        transaction("acc001", may.plusMonths(1)), transaction(null, may))))
+                .verifyComplete();
+
+        verify(repository).increment("acc001", TransactionType.DEPOSIT, MAY, 2);
+        verify(repository).increment("acc002", TransactionType.DEPOSIT, MAY, 1);
+        verify(repository).increment("acc001", TransactionType.DEPOSIT, MAY.plusMonths(1), 1);
+    }
+
+    private static Transaction transaction(String accountId, OffsetDateTime createdAt) {
+        Transaction tx = new Transaction();
+        tx.setAccountId(accountId);
+        tx.setType(TransactionType.DEPOSIT);
+        tx.setCreatedAt(createdAt);
+        return tx;
+    }
+}
@@ -0,0 +1,46 @@
+package com.enoc.transaction.usecase;
+
+import com.enoc.transaction.application.usecase.IsoTimestamps;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IsoTimestampsTest {
+
+    @Test
+    void parseShouldMatchOffsetDateTimeParse() {
+        String[] samples = {
+            "2024-05-01T10:15Z",
+            "2024-05-01T10:15:30Z",
+            "2024-05-01T10:15:30.1Z",
+            "2024-05-01T10:15:30.123-05:00",
+            "2024-02-29T23:59:59.123456789+05:30",
+            "1999-12-31T00:00:00.000000001-12:00",
+            "2024-05-01T10:15:30+01:00:15",
+            "2024-05-01t10:15:30Z"
+        };
+
+        for (String sample : samples) {
+            assertThat(IsoTimestamps.parse(new Utf8(sample))).isEqualTo(OffsetDateTime.parse(sample));
+        }
+    }
+
+    @Test
+    void parseShouldRoundTripOffsetDateTimeToString() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.ofHours(-5));
+
+        assertThat(IsoTimestamps.parse(now.toString())).isEqualTo(now);
+    }
+
+    @Test
+    void parseShouldRejectMalformedValuesLikeOffsetDateTimeParse() {
+        assertThatThrownBy(() -> IsoTimestamps.parse("2024-13-01T10:15:30Z")).isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> IsoTimestamps.parse("2024-05-01 10:15:30")).isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> IsoTimestamps.parse("2024-05-01T10:15:30.1234567891Z"))
+                .isInstanceOf(DateTimeParseException.class);
+    }
+}
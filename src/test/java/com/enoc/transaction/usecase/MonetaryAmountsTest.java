@@ -0,0 +1,27 @@
+package com.enoc.transaction.usecase;
+
+import com.enoc.transaction.application.usecase.MonetaryAmounts;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MonetaryAmountsTest {
+
+    @Test
+    void ofShouldMatchBigDecimalValueOfForCentAmounts() {
+        for (long cents = 1; cents <= 2_000_000; cents++) {
+            double amount = cents / 100d;
+
+            assertThat(MonetaryAmounts.of(amount)).isEqualTo(BigDecimal.valueOf(amount));
+        }
+    }
+
+    @Test
+    void ofShouldFallBackForOtherMagnitudes() {
+        double[] samples = {1e-5, 0.0001, 123456789.5, 1.23456789, -250.75, 1e7};
+
+        for (double amount : samples) {
+            assertThat(MonetaryAmounts.of(amount)).isEqualTo(BigDecimal.valueOf(amount));
+        }
+    }
+}
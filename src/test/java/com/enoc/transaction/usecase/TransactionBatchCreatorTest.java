@@ -0,0 +1,139 @@
+package com.enoc.transaction.usecase;
+
+import com.enoc.transaction.application.event.TransactionEventPublisher;
+import com.enoc.transaction.application.service.cache.ReactiveCachedTransactionService;
+import com.enoc.transaction.application.usecase.AccountBalanceProjection;
+import com.enoc.transaction.application.usecase.CustomerDebtProjection;
+import com.enoc.transaction.application.usecase.FeeCounterProjection;
+import com.enoc.transaction.application.usecase.TransactionBatchCreator;
+import com.enoc.transaction.domain.exception.BusinessException;
+import com.enoc.transaction.domain.model.Transaction;
+import com.enoc.transaction.domain.model.enums.StatusEnum;
+import com.enoc.transaction.domain.model.enums.TransactionType;
+import com.enoc.transaction.domain.repository.TransactionRepository;
+import com.enoc.transaction.domain.service.TransactionValidator;
+import com.enoc.transaction.dto.request.TransactionRequestDTO;
+import com.enoc.transaction.dto.response.BatchItemResult;
+import com.enoc.transaction.infrastructure.mapper.TransactionMapper;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchCreatorTest {
+
+    @Mock
+    private TransactionRepository repository;
+    @Mock
+    private TransactionEventPublisher transactionEventPublisher;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+    @Mock
+    private AccountBalanceProjection balanceProjection;
+    @Mock
+    private CustomerDebtProjection debtProjection;
+    @Mock
+    private FeeCounterProjection feeCounters;
+    @Mock
+    private ReactiveCachedTransactionService cachedService;
+
+    private TransactionBatchCreator creator;
+
+    @BeforeEach
+    void setUp() {
+        creator = new TransactionBatchCreator(repository, new TransactionMapper(), new TransactionValidator(),
+                transactionEventPublisher, transactionalOperator, balanceProjection, debtProjection, feeCounters, cachedService, 2);
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(repository.insertAllUnordered(anyList()))
+                .thenAnswer(invocation -> Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+        lenient().when(balanceProjection.applyAll(anyList())).thenReturn(Mono.empty());
+        lenient().when(debtProjection.apply(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(debtProjection.evictAll(anyList())).thenReturn(Mono.empty());
+        lenient().when(feeCounters.recordAll(anyList())).thenReturn(Mono.empty());
+        lenient().when(feeCounters.evictAll(anyList())).thenReturn(Mono.empty());
+        lenient().when(transactionEventPublisher.publishCreatedAll(anyList())).thenReturn(Mono.empty());
+        lenient().when(cachedService.evictLast(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void createShouldReportRejectionsPerItemAndCheckEachCustomerOnce() {
+        when(debtProjection.isOverdue("cust1")).thenReturn(Mono.just(false));
+        when(debtProjection.isOverdue("cust2")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(creator.create(Flux.just(
+                        request(TransactionType.DEPOSIT, "cust1", "100.00"),
+                        request(TransactionType.DEPOSIT, "cust2", "50.00"),
+                        request(TransactionType.DEPOSIT, "cust1", "-5.00"),
+                        request(TransactionType.CREDIT_PAYMENT, "cust1", "10.00"),
+                        request(TransactionType.DEPOSIT, "cust1", "20.00"))))
+                .assertNext(result -> assertThat(result.getStatus()).isEqualTo(StatusEnum.APPROVED))
+                .assertNext(result -> assertThat(result.getError()).isEqualTo("Cliente tiene deudas vencidas"))
+                .assertNext(result -> assertThat(result.getError()).isEqualTo("El monto debe ser mayor a cero"))
+                .assertNext(result -> assertThat(result.getError()).contains("no soportado en lote"))
+                .assertNext(result -> assertThat(result.getIndex()).isEqualTo(4))
+                .verifyComplete();
+
+        verify(debtProjection, times(1)).isOverdue("cust1");
+        verify(debtProjection, times(1)).isOverdue("cust2");
+    }
+
+    @Test
+    void createShouldInsertAndPublishEachChunkOnce() {
+        when(debtProjection.isOverdue("cust1")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(creator.create(Flux.just(
+                        request(TransactionType.DEPOSIT, "cust1", "1.00"),
+                        request(TransactionType.DEPOSIT, "cust1", "2.00"),
+                        request(TransactionType.DEPOSIT, "cust1", "3.00"))))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).insertAllUnordered(inserted.capture());
+        assertThat(inserted.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        verify(transactionEventPublisher, times(2)).publishCreatedAll(anyList());
+    }
+
+    @Test
+    void createShouldRejectOnlyTheDebitWithoutFunds() {
+        when(debtProjection.isOverdue("cust1")).thenReturn(Mono.just(false));
+        when(balanceProjection.apply(any())).thenReturn(Mono.error(new BusinessException("Saldo insuficiente en la cuenta acc1")));
+
+        List<BatchItemResult> results = creator.create(Flux.just(
+                        request(TransactionType.WITHDRAWAL, "cust1", "500.00"),
+                        request(TransactionType.DEPOSIT, "cust1", "10.00")))
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(StatusEnum.REJECTED, StatusEnum.APPROVED);
+        assertThat(results.get(0).getError()).isEqualTo("Saldo insuficiente en la cuenta acc1");
+        ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertAllUnordered(inserted.capture());
+        assertThat(inserted.getValue()).extracting(Transaction::getAmount).containsExactly(new BigDecimal("10.00"));
+    }
+
+    private static TransactionRequestDTO request(TransactionType type, String customerId, String amount) {
+        return TransactionRequestDTO.builder()
+                .type(type)
+                .customerId(customerId)
+                .accountId("acc1")
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}